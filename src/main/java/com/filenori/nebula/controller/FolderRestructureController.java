@@ -1,14 +1,25 @@
 package com.filenori.nebula.controller;
 
 import com.filenori.nebula.dto.request.FolderRestructureRequestDto;
+import com.filenori.nebula.dto.response.BucketRestructureResponseDto;
 import com.filenori.nebula.dto.response.FolderContentsDto;
+import com.filenori.nebula.dto.response.FolderMergePreviewDto;
 import com.filenori.nebula.dto.response.FolderRestructureResponseDto;
+import com.filenori.nebula.dto.response.ParaFolderTreeResponseDto;
+import com.filenori.nebula.service.ChangeSequenceService;
 import com.filenori.nebula.service.FolderBrowsingService;
+import com.filenori.nebula.service.FolderMergeService;
+import com.filenori.nebula.service.FolderNodeService;
 import com.filenori.nebula.service.FolderRestructureService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
@@ -21,6 +32,9 @@ public class FolderRestructureController {
 
     private final FolderRestructureService folderRestructureService;
     private final FolderBrowsingService folderBrowsingService;
+    private final FolderNodeService folderNodeService;
+    private final FolderMergeService folderMergeService;
+    private final ChangeSequenceService changeSequenceService;
 
     @PostMapping("/analyze-structure")
     public Mono<ResponseEntity<FolderRestructureResponseDto>> analyzeFolderStructure(
@@ -39,6 +53,31 @@ public class FolderRestructureController {
                 });
     }
 
+    /**
+     * 모든 PARA 버킷 구조 분석. 버킷별 결과를 분석이 끝나는 순서대로 스트리밍한다.
+     * Accept에 따라 application/x-ndjson(기본) 또는 text/event-stream으로 응답한다.
+     */
+    @PostMapping(value = "/analyze-structure/all",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public ResponseEntity<Flux<BucketRestructureResponseDto>> analyzeAllBuckets(@RequestParam String userId) {
+
+        log.info("=== Folder Structure Analysis Request (all buckets) === user={}", userId);
+
+        if (!ObjectId.isValid(userId)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Flux<BucketRestructureResponseDto> results = folderRestructureService.analyzeAllBuckets(new ObjectId(userId))
+                .doOnNext(result -> log.info("Bucket {} analysis completed with {} suggestions (cached={})",
+                        result.getParaBucket(), result.getMergeSuggestions().size(), result.isCached()))
+                .onErrorResume(error -> {
+                    // 이미 내보낸 버킷 결과는 유지하고 스트림만 종료
+                    log.error("Error analyzing folder structure for all buckets", error);
+                    return Flux.empty();
+                });
+        return ResponseEntity.ok(results);
+    }
+
     @PostMapping("/apply-merge")
     public Mono<ResponseEntity<String>> applyFolderMerge(
             @RequestParam String userId,
@@ -59,30 +98,166 @@ public class FolderRestructureController {
                 });
     }
 
+    /**
+     * 폴더 통합 미리보기 (실제로 옮기지 않고 이동 파일 수, 통합 후 크기, 파일명 충돌을 집계로 계산)
+     */
+    @PostMapping("/merge-preview")
+    public ResponseEntity<FolderMergePreviewDto> previewFolderMerge(
+            @RequestParam String userId,
+            @RequestParam String paraBucket,
+            @RequestBody FolderRestructureResponseDto.MergeSuggestion suggestion) {
+
+        log.info("=== Folder Merge Preview === user={}, bucket={}, target='{}'", userId, paraBucket, suggestion.getSuggestedName());
+
+        if (!ObjectId.isValid(userId)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return ResponseEntity.ok(folderMergeService.preview(new ObjectId(userId), paraBucket,
+                    suggestion.getSourceFolders(), suggestion.getSuggestedName()));
+        } catch (IllegalArgumentException error) {
+            log.warn("Invalid merge preview request: {}", error.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception error) {
+            log.error("Error previewing folder merge", error);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 폴더 통합 되돌리기 (저널에 기록된 파일을 한 번의 bulkWrite로 원래 폴더로 복구)
+     *
+     * @param mergeId 되돌릴 통합 ID (생략하면 해당 버킷의 가장 최근 통합)
+     */
+    @PostMapping("/undo-merge")
+    public ResponseEntity<String> undoFolderMerge(
+            @RequestParam String userId,
+            @RequestParam String paraBucket,
+            @RequestParam(required = false) String mergeId) {
+
+        log.info("=== Undoing Folder Merge === user={}, bucket={}, mergeId={}", userId, paraBucket, mergeId);
+
+        if (!ObjectId.isValid(userId) || (mergeId != null && !ObjectId.isValid(mergeId))) {
+            return ResponseEntity.badRequest().body("userId 또는 mergeId 형식이 올바르지 않습니다.");
+        }
+
+        try {
+            long restored = folderMergeService.undo(new ObjectId(userId), paraBucket,
+                    mergeId != null ? new ObjectId(mergeId) : null);
+            return ResponseEntity.ok(String.format("폴더 통합을 되돌렸습니다. %d개 파일이 원래 폴더로 복구되었습니다.", restored));
+        } catch (IllegalArgumentException error) {
+            log.warn("Invalid undo merge request: {}", error.getMessage());
+            return ResponseEntity.badRequest().body(error.getMessage());
+        } catch (Exception error) {
+            log.error("Error undoing folder merge", error);
+            return ResponseEntity.internalServerError()
+                    .body("폴더 통합 되돌리기 중 오류가 발생했습니다: " + error.getMessage());
+        }
+    }
+
+    /**
+     * 폴더 내용 조회 (파일은 키셋 페이지네이션)
+     *
+     * @param sort      name(기본) | size | modifiedAt
+     * @param direction asc(기본) | desc
+     * @param limit     페이지 크기 (기본 100, 최대 1000)
+     * @param cursor    이전 응답의 nextCursor
+     */
     @GetMapping("/browse")
     public ResponseEntity<FolderContentsDto> browseFolderContents(
             @RequestParam String userId,
             @RequestParam String paraBucket,
-            @RequestParam(required = false, defaultValue = "") String paraFolder) {
+            @RequestParam(required = false, defaultValue = "") String paraFolder,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            WebRequest webRequest) {
         
         log.info("=== Folder Browsing Request ===");
-        log.info("User: {}, Bucket: {}, Folder: '{}'", userId, paraBucket, paraFolder);
+        log.info("User: {}, Bucket: {}, Folder: '{}', sort={} {}, limit={}", userId, paraBucket, paraFolder, sort, direction, limit);
+
+        // 마지막 조회 이후 사용자 데이터가 바뀌지 않았으면 폴더 내용을 다시 계산하지 않고 304 응답
+        if (ObjectId.isValid(userId) && webRequest.checkNotModified(changeSequenceService.eTag(new ObjectId(userId)))) {
+            return null;
+        }
 
         try {
             // paraFolder가 비어있으면 루트 폴더로 처리
             String targetFolder = (paraFolder == null || paraFolder.trim().isEmpty()) ? "" : paraFolder.trim();
             
-            FolderContentsDto contents = folderBrowsingService.getFolderContents(userId, paraBucket, targetFolder);
+            FolderContentsDto contents = folderBrowsingService.getFolderContents(
+                    userId, paraBucket, targetFolder, sort, direction, limit, cursor);
             
             log.info("Found {} files and {} subfolders", contents.getTotalFiles(), contents.getTotalSubfolders());
             return ResponseEntity.ok(contents);
             
+        } catch (IllegalArgumentException error) {
+            log.warn("Invalid folder browsing request: {}", error.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception error) {
             log.error("Error browsing folder contents", error);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    /**
+     * 폴더 트리 한 단계 조회 (folder_nodes의 하위 노드만 읽음)
+     *
+     * @param paraFolder 상위 폴더 (비어 있으면 버킷 루트)
+     */
+    @GetMapping("/tree")
+    public ResponseEntity<ParaFolderTreeResponseDto> getFolderTree(
+            @RequestParam String userId,
+            @RequestParam String paraBucket,
+            @RequestParam(required = false, defaultValue = "") String paraFolder,
+            WebRequest webRequest) {
+
+        log.info("=== Folder Tree Request === user={}, bucket={}, folder='{}'", userId, paraBucket, paraFolder);
+
+        if (!ObjectId.isValid(userId) || paraBucket == null || paraBucket.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (webRequest.checkNotModified(changeSequenceService.eTag(new ObjectId(userId)))) {
+            return null;
+        }
+
+        try {
+            return ResponseEntity.ok(folderNodeService.getFolderTree(new ObjectId(userId), paraBucket, paraFolder));
+        } catch (Exception error) {
+            log.error("Error loading folder tree", error);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 버킷의 폴더 트리 재계산 (organized_files 폴더별 $group 집계)
+     *
+     * @return 생성된 노드 수 (루트 포함). 같은 버킷을 이미 재계산 중이면 409
+     */
+    @PostMapping("/tree/rebuild")
+    public ResponseEntity<Integer> rebuildFolderTree(
+            @RequestParam String userId,
+            @RequestParam String paraBucket) {
+
+        log.info("=== Rebuilding folder tree === user={}, bucket={}", userId, paraBucket);
+
+        if (!ObjectId.isValid(userId) || paraBucket == null || paraBucket.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return ResponseEntity.ok(folderNodeService.rebuildBucket(new ObjectId(userId), paraBucket));
+        } catch (IllegalStateException error) {
+            log.warn("Folder tree rebuild already running: {}", error.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (Exception error) {
+            log.error("Error rebuilding folder tree", error);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     @GetMapping("/breadcrumb")
     public ResponseEntity<List<String>> getFolderBreadcrumb(
             @RequestParam String paraBucket,
@@ -1,19 +1,42 @@
 package com.filenori.nebula.controller;
 
+import com.filenori.nebula.dto.request.OrganizedFileBatchSearchRequestDto;
+import com.filenori.nebula.dto.request.OrganizedFileBulkDeleteRequestDto;
 import com.filenori.nebula.dto.request.OrganizedFileSaveRequestDto;
 import com.filenori.nebula.dto.request.OrganizedFileSaveWithGenerationRequestDto;
 import com.filenori.nebula.dto.request.OrganizedFileSearchRequestDto;
+import com.filenori.nebula.dto.response.FolderSearchResponseDto;
+import com.filenori.nebula.dto.response.OrganizedFileBatchSearchResponseDto;
+import com.filenori.nebula.dto.response.OrganizedFileChangesResponseDto;
+import com.filenori.nebula.dto.response.OrganizedFileDeleteResponseDto;
+import com.filenori.nebula.dto.response.OrganizedFileImportResponseDto;
+import com.filenori.nebula.dto.response.OrganizedFilePageResponseDto;
 import com.filenori.nebula.dto.response.OrganizedFileSaveResponseDto;
 import com.filenori.nebula.dto.response.OrganizedFileSearchResponseDto;
 import com.filenori.nebula.entity.OrganizedFileDocument;
+import com.filenori.nebula.entity.UserFileStatsDocument;
+import com.filenori.nebula.service.ChangeSequenceService;
+import com.filenori.nebula.service.FolderCentroidService;
 import com.filenori.nebula.service.OrganizedFileService;
+import com.filenori.nebula.service.OrganizedFileSyncService;
+import com.filenori.nebula.service.OrganizedFileTransferService;
 import com.filenori.nebula.service.OrganizedFileSearchService;
+import com.filenori.nebula.service.UserFileStatsService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Map;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/organized-files")
@@ -23,6 +46,11 @@ public class OrganizedFileController {
 
     private final OrganizedFileService organizedFileService;
     private final OrganizedFileSearchService organizedFileSearchService;
+    private final FolderCentroidService folderCentroidService;
+    private final UserFileStatsService userFileStatsService;
+    private final OrganizedFileTransferService organizedFileTransferService;
+    private final OrganizedFileSyncService organizedFileSyncService;
+    private final ChangeSequenceService changeSequenceService;
 
     /**
      * 키워드를 기반으로 파일명을 자동 생성한 후 MongoDB에 저장
@@ -83,24 +111,48 @@ public class OrganizedFileController {
     }
 
     /**
-     * 특정 사용자의 모든 정리된 파일 조회
+     * 특정 사용자의 모든 정리된 파일 조회 (임베딩 제외, Mongo 커서에서 바로 스트리밍)
      * 
      * @param userId 사용자 ID
      * @return 정리된 파일 목록
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<OrganizedFileDocument>> getAllOrganizedFiles(@PathVariable String userId) {
+    public ResponseEntity<StreamingResponseBody> getAllOrganizedFiles(@PathVariable String userId, WebRequest webRequest) {
         
         log.info("=== Getting all organized files for user: {} ===", userId);
+        return streamFiles(userId, null, webRequest);
+    }
+
+    /**
+     * 키셋 페이지네이션 파일 목록 조회 (임베딩 제외)
+     *
+     * @param userId     사용자 ID
+     * @param paraBucket PARA 버킷 (생략 시 전체)
+     * @param cursor     이전 응답의 nextCursor (첫 페이지는 생략)
+     * @param limit      페이지 크기
+     * @return 파일 목록과 다음 페이지 커서
+     */
+    @GetMapping("/user/{userId}/files")
+    public ResponseEntity<OrganizedFilePageResponseDto> listOrganizedFiles(
+            @PathVariable String userId,
+            @RequestParam(required = false) String paraBucket,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+
+        log.info("=== Listing organized files === user={}, bucket={}, cursor={}", userId, paraBucket, cursor);
+
+        if (isNotModified(userId, webRequest)) {
+            return null;
+        }
 
         try {
-            List<OrganizedFileDocument> files = organizedFileService.getAllOrganizedFiles(userId);
-            
-            log.info("Retrieved {} organized files for user: {}", files.size(), userId);
-            return ResponseEntity.ok(files);
-            
+            return ResponseEntity.ok(organizedFileService.listOrganizedFiles(userId, paraBucket, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            log.warn("List validation error: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
-            log.error("Error retrieving organized files for user: {}", userId, e);
+            log.error("Error listing organized files for user: {}", userId, e);
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -130,6 +182,105 @@ public class OrganizedFileController {
         }
     }
 
+    /**
+     * 폴더 검색 (폴더 센트로이드 임베딩 대상 벡터 검색)
+     */
+    @PostMapping("/search/folders")
+    public ResponseEntity<FolderSearchResponseDto> searchFolders(@RequestBody OrganizedFileSearchRequestDto requestDto) {
+
+        log.info("=== Folder Search === user={}, query='{}'", requestDto.getUserId(), requestDto.getQuery());
+
+        try {
+            return ResponseEntity.ok(organizedFileSearchService.searchFolders(requestDto));
+        } catch (IllegalArgumentException e) {
+            log.warn("Folder search validation error: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            log.error("Folder search processing error", e);
+            return ResponseEntity.status(503).build();
+        } catch (Exception e) {
+            log.error("Unexpected error during folder search", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 폴더 센트로이드 재계산 (기존 데이터 백필)
+     *
+     * @param userId 사용자 ID
+     * @return 생성된 센트로이드 수
+     */
+    @PostMapping("/user/{userId}/folder-centroids/rebuild")
+    public ResponseEntity<Integer> rebuildFolderCentroids(@PathVariable String userId) {
+
+        log.info("=== Rebuilding folder centroids for user: {} ===", userId);
+
+        if (!ObjectId.isValid(userId)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return ResponseEntity.ok(folderCentroidService.rebuildCentroids(new ObjectId(userId)));
+        } catch (Exception e) {
+            log.error("Error rebuilding folder centroids for user: {}", userId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 여러 질의를 한 번에 검색 (임베딩은 단일 호출, 벡터 질의는 동시 실행)
+     */
+    @PostMapping("/search/batch")
+    public ResponseEntity<OrganizedFileBatchSearchResponseDto> searchOrganizedFilesBatch(
+            @RequestBody OrganizedFileBatchSearchRequestDto requestDto) {
+
+        log.info("=== Organized File Batch Search === user={}, queries={}",
+                requestDto.getUserId(), requestDto.getQueries() != null ? requestDto.getQueries().size() : 0);
+
+        try {
+            OrganizedFileBatchSearchResponseDto response = organizedFileSearchService.searchBatch(requestDto);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.warn("Batch search validation error: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            log.error("Batch search processing error", e);
+            return ResponseEntity.status(503).build();
+        } catch (Exception e) {
+            log.error("Unexpected error during batch search", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 특정 파일과 유사한 파일 조회 (저장된 임베딩 사용, 임베딩 호출 없음)
+     *
+     * @param userId 사용자 ID
+     * @param fileId 기준 파일 ID
+     * @return 기준 파일을 제외한 유사 파일 목록
+     */
+    @GetMapping("/user/{userId}/file/{fileId}/similar")
+    public ResponseEntity<OrganizedFileSearchResponseDto> findSimilarFiles(
+            @PathVariable String userId,
+            @PathVariable String fileId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Double minScore) {
+
+        log.info("=== Similar files request === user={}, file={}", userId, fileId);
+
+        try {
+            return organizedFileSearchService.findSimilarFiles(userId, fileId, limit, minScore)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            log.warn("Similar files validation error: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Unexpected error during similar files search", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     /**
      * 특정 파일 삭제
      * 
@@ -160,6 +311,69 @@ public class OrganizedFileController {
         }
     }
 
+    /**
+     * 여러 파일 일괄 삭제 (사용자 소유 문서만, 단일 deleteMany)
+     *
+     * @param userId     사용자 ID
+     * @param requestDto 삭제할 파일 ID 목록
+     * @return 삭제된 파일 수
+     */
+    @PostMapping("/user/{userId}/files/delete")
+    public ResponseEntity<OrganizedFileDeleteResponseDto> deleteOrganizedFiles(
+            @PathVariable String userId,
+            @RequestBody OrganizedFileBulkDeleteRequestDto requestDto) {
+
+        log.info("=== Bulk delete request === user={}, ids={}",
+                userId, requestDto.getIds() != null ? requestDto.getIds().size() : 0);
+
+        long startTime = System.currentTimeMillis();
+        try {
+            long deleted = organizedFileService.deleteOrganizedFiles(userId, requestDto.getIds());
+            return ResponseEntity.ok(OrganizedFileDeleteResponseDto.builder()
+                    .deletedCount(deleted)
+                    .tookMs(System.currentTimeMillis() - startTime)
+                    .build());
+        } catch (IllegalArgumentException e) {
+            log.warn("Bulk delete validation error: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error bulk deleting files for user: {}", userId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 폴더(하위 폴더 포함) 또는 버킷 전체 삭제
+     *
+     * @param userId     사용자 ID
+     * @param paraBucket PARA 버킷
+     * @param paraFolder 삭제할 폴더 (생략 시 버킷 전체)
+     * @return 삭제된 파일 수
+     */
+    @DeleteMapping("/user/{userId}/folder")
+    public ResponseEntity<OrganizedFileDeleteResponseDto> deleteFolder(
+            @PathVariable String userId,
+            @RequestParam String paraBucket,
+            @RequestParam(required = false) String paraFolder) {
+
+        log.info("=== Folder delete request === user={}, bucket={}, folder='{}'", userId, paraBucket, paraFolder);
+
+        long startTime = System.currentTimeMillis();
+        try {
+            long deleted = organizedFileService.deleteFolder(userId, paraBucket, paraFolder);
+            return ResponseEntity.ok(OrganizedFileDeleteResponseDto.builder()
+                    .deletedCount(deleted)
+                    .tookMs(System.currentTimeMillis() - startTime)
+                    .build());
+        } catch (IllegalArgumentException e) {
+            log.warn("Folder delete validation error: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error deleting folder for user: {}", userId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     /**
      * 특정 파일 조회
      * 
@@ -174,12 +388,7 @@ public class OrganizedFileController {
         log.info("User: {}, File ID: {}", userId, fileId);
 
         try {
-            List<OrganizedFileDocument> allFiles = organizedFileService.getAllOrganizedFiles(userId);
-            
-            OrganizedFileDocument file = allFiles.stream()
-                    .filter(f -> f.getId().toString().equals(fileId))
-                    .findFirst()
-                    .orElse(null);
+            OrganizedFileDocument file = organizedFileService.getOrganizedFile(userId, fileId).orElse(null);
             
             if (file != null) {
                 log.info("Found file: {}", file.getOriginalRelativePath());
@@ -189,6 +398,9 @@ public class OrganizedFileController {
                 return ResponseEntity.notFound().build();
             }
             
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid ID format - User: {}, File: {}", userId, fileId);
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             log.error("Error retrieving file - User: {}, File: {}", userId, fileId, e);
             return ResponseEntity.internalServerError().build();
@@ -196,34 +408,21 @@ public class OrganizedFileController {
     }
 
     /**
-     * 특정 PARA 버킷의 파일 조회
+     * 특정 PARA 버킷의 파일 조회 (idx_user_bucket_folder 인덱스 사용, 임베딩 제외 스트리밍)
      * 
      * @param userId 사용자 ID
      * @param paraBucket PARA 버킷 (Projects, Areas, Resources, Archive)
      * @return 해당 버킷의 파일 목록
      */
     @GetMapping("/user/{userId}/bucket/{paraBucket}")
-    public ResponseEntity<List<OrganizedFileDocument>> getFilesByParaBucket(
+    public ResponseEntity<StreamingResponseBody> getFilesByParaBucket(
             @PathVariable String userId, 
-            @PathVariable String paraBucket) {
+            @PathVariable String paraBucket,
+            WebRequest webRequest) {
         
         log.info("=== Getting files by PARA bucket ===");
         log.info("User: {}, PARA Bucket: {}", userId, paraBucket);
-
-        try {
-            List<OrganizedFileDocument> allFiles = organizedFileService.getAllOrganizedFiles(userId);
-            
-            List<OrganizedFileDocument> bucketFiles = allFiles.stream()
-                    .filter(file -> paraBucket.equalsIgnoreCase(file.getParaBucket()))
-                    .toList();
-            
-            log.info("Found {} files in bucket '{}' for user: {}", bucketFiles.size(), paraBucket, userId);
-            return ResponseEntity.ok(bucketFiles);
-            
-        } catch (Exception e) {
-            log.error("Error retrieving files by bucket - User: {}, Bucket: {}", userId, paraBucket, e);
-            return ResponseEntity.internalServerError().build();
-        }
+        return streamFiles(userId, paraBucket, webRequest);
     }
 
     /**
@@ -233,26 +432,30 @@ public class OrganizedFileController {
      * @return 파일 통계 정보
      */
     @GetMapping("/user/{userId}/stats")
-    public ResponseEntity<FileStatsDto> getFileStats(@PathVariable String userId) {
+    public ResponseEntity<FileStatsDto> getFileStats(@PathVariable String userId, WebRequest webRequest) {
         
         log.info("=== Getting file stats for user: {} ===", userId);
 
+        if (!ObjectId.isValid(userId)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (isNotModified(userId, webRequest)) {
+            return null;
+        }
+
         try {
-            List<OrganizedFileDocument> allFiles = organizedFileService.getAllOrganizedFiles(userId);
-            
-            long projectsCount = allFiles.stream().filter(f -> "Projects".equalsIgnoreCase(f.getParaBucket())).count();
-            long areasCount = allFiles.stream().filter(f -> "Areas".equalsIgnoreCase(f.getParaBucket())).count();
-            long resourcesCount = allFiles.stream().filter(f -> "Resources".equalsIgnoreCase(f.getParaBucket())).count();
-            long archiveCount = allFiles.stream().filter(f -> "Archive".equalsIgnoreCase(f.getParaBucket())).count();
-            long developmentCount = allFiles.stream().filter(OrganizedFileDocument::isDevelopment).count();
+            UserFileStatsDocument userStats = userFileStatsService.getStats(new ObjectId(userId));
+            Map<String, Long> bucketCounts = userStats.getBucketCounts() != null ? userStats.getBucketCounts() : Map.of();
             
             FileStatsDto stats = new FileStatsDto(
-                    allFiles.size(),
-                    projectsCount,
-                    areasCount,
-                    resourcesCount,
-                    archiveCount,
-                    developmentCount
+                    userStats.getTotalFiles(),
+                    bucketCounts.getOrDefault("Projects", 0L),
+                    bucketCounts.getOrDefault("Areas", 0L),
+                    bucketCounts.getOrDefault("Resources", 0L),
+                    bucketCounts.getOrDefault("Archive", 0L),
+                    userStats.getDevelopmentCount(),
+                    userStats.getTotalBytes(),
+                    userStats.getLastModifiedAt()
             );
             
             log.info("File stats for user {}: Total={}, Projects={}, Areas={}, Resources={}, Archive={}, Development={}", 
@@ -267,6 +470,158 @@ public class OrganizedFileController {
         }
     }
 
+    /**
+     * 변경분 동기화 (since 이후 생성/변경/이동/삭제된 파일만 조회)
+     * 최초 동기화는 since 없이 호출해 기준 시퀀스를 받은 뒤 전체 목록을 내려받는다.
+     *
+     * @param userId 사용자 ID
+     * @param since  마지막으로 반영한 시퀀스 (이전 응답의 nextSince)
+     * @param limit  최대 변경 수 (같은 시퀀스의 변경은 나누지 않으므로 초과할 수 있음)
+     * @return 변경/삭제 목록과 다음 since
+     */
+    @GetMapping("/user/{userId}/changes")
+    public ResponseEntity<OrganizedFileChangesResponseDto> getChanges(
+            @PathVariable String userId,
+            @RequestParam(required = false) Long since,
+            @RequestParam(required = false) Integer limit) {
+
+        log.info("=== Changes request === user={}, since={}", userId, since);
+
+        if (!ObjectId.isValid(userId)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return ResponseEntity.ok(organizedFileSyncService.getChangesSince(new ObjectId(userId), since, limit));
+        } catch (IllegalArgumentException e) {
+            log.warn("Changes validation error: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error retrieving changes for user: {}", userId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 라이브러리 내보내기 (NDJSON, Mongo 커서에서 바로 스트리밍)
+     *
+     * @param userId            사용자 ID
+     * @param gzip              gzip 압축 여부
+     * @param includeEmbeddings 임베딩 포함 여부 (기본 제외)
+     * @return 한 줄에 파일 하나씩 담긴 NDJSON
+     */
+    @GetMapping("/user/{userId}/export")
+    public ResponseEntity<StreamingResponseBody> exportOrganizedFiles(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(defaultValue = "false") boolean includeEmbeddings) {
+
+        log.info("=== Exporting organized files === user={}, gzip={}, embeddings={}", userId, gzip, includeEmbeddings);
+
+        if (!ObjectId.isValid(userId)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ObjectId userObjectId = new ObjectId(userId);
+        String fileName = "organized-files-" + userId + (gzip ? ".ndjson.gz" : ".ndjson");
+        StreamingResponseBody body = outputStream ->
+                organizedFileTransferService.exportLibrary(userObjectId, includeEmbeddings, gzip, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    /**
+     * 라이브러리 가져오기 (export와 같은 NDJSON 형식, 청크 단위 벌크 upsert)
+     *
+     * @param userId          대상 사용자 ID
+     * @param gzip            본문이 gzip 압축되어 있는지 여부 (Content-Encoding: gzip 헤더로도 지정 가능)
+     * @param contentEncoding Content-Encoding 헤더
+     * @param inputStream     요청 본문
+     * @return 가져오기 결과
+     */
+    @PostMapping("/user/{userId}/import")
+    public ResponseEntity<OrganizedFileImportResponseDto> importOrganizedFiles(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream inputStream) {
+
+        log.info("=== Importing organized files === user={}, gzip={}", userId, gzip);
+
+        if (!ObjectId.isValid(userId)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            boolean compressed = gzip || "gzip".equalsIgnoreCase(contentEncoding);
+            OrganizedFileImportResponseDto response = organizedFileTransferService.importLibrary(
+                    new ObjectId(userId), compressed, inputStream);
+
+            log.info("Import completed - Saved: {}, Updated: {}, Failed: {}",
+                    response.getSavedCount(), response.getUpdatedCount(), response.getFailedCount());
+            return ResponseEntity.ok(response);
+        } catch (IOException e) {
+            log.warn("Failed to read import body for user {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error importing organized files for user: {}", userId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    /**
+     * 파일 통계 재계산 (organized_files 전체 $group 집계)
+     *
+     * @param userId 사용자 ID
+     * @return 재계산된 전체 파일 수
+     */
+    @PostMapping("/user/{userId}/stats/rebuild")
+    public ResponseEntity<Long> rebuildFileStats(@PathVariable String userId) {
+
+        log.info("=== Rebuilding file stats for user: {} ===", userId);
+
+        if (!ObjectId.isValid(userId)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return ResponseEntity.ok(userFileStatsService.rebuildStats(new ObjectId(userId)).getTotalFiles());
+        } catch (Exception e) {
+            log.error("Error rebuilding file stats for user: {}", userId, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamFiles(String userId, String paraBucket, WebRequest webRequest) {
+        if (!ObjectId.isValid(userId)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (isNotModified(userId, webRequest)) {
+            return null;
+        }
+
+        ObjectId userObjectId = new ObjectId(userId);
+        StreamingResponseBody body = outputStream ->
+                organizedFileService.streamOrganizedFiles(userObjectId, paraBucket, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * If-None-Match가 사용자 데이터 버전과 같으면 304 응답을 설정한다. (organized_files는 읽지 않음)
+     * 일치하지 않으면 ETag 헤더만 설정되고 정상 응답을 이어간다.
+     */
+    private boolean isNotModified(String userId, WebRequest webRequest) {
+        if (!ObjectId.isValid(userId)) {
+            return false;
+        }
+        return webRequest.checkNotModified(changeSequenceService.eTag(new ObjectId(userId)));
+    }
+
     // 파일 통계 DTO
     public record FileStatsDto(
             long totalFiles,
@@ -274,6 +629,8 @@ public class OrganizedFileController {
             long areasCount,
             long resourcesCount,
             long archiveCount,
-            long developmentCount
+            long developmentCount,
+            long totalBytes,
+            Instant lastModifiedAt
     ) {}
 }
\ No newline at end of file
@@ -25,13 +25,15 @@ public class PromptController {
      *                   - userId: 사용자 ID
      *                   - directory: 기본 디렉토리 경로
      *                   - entries: 파일 정보 리스트 (최대 500개 권장)
+     * @param persist    false이면 생성 결과를 저장하지 않고 반환만 함 (기본값 true)
      * @return 생성된 파일 이름 정보를 담은 DTO 리스트
      */
     @PostMapping("/generate-filename")
-    public ResponseEntity<List<FileNameGenerationResultDto>> generateFileName(@RequestBody KeywordRequestDto requestDto) {
+    public ResponseEntity<List<FileNameGenerationResultDto>> generateFileName(@RequestBody KeywordRequestDto requestDto,
+                                                                      @RequestParam(defaultValue = "true") boolean persist) {
         long startTime = System.currentTimeMillis();
 
-        List<FileNameGenerationResultDto> responseDto = promptService.generateFileNameFromKeywords(requestDto);
+        List<FileNameGenerationResultDto> responseDto = promptService.generateFileNameFromKeywords(requestDto, persist);
 
         long processingTime = System.currentTimeMillis() - startTime;
         if (!responseDto.isEmpty()) {
@@ -0,0 +1,26 @@
+package com.filenori.nebula.dto.request;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrganizedFileBatchSearchRequestDto {
+    private String userId;
+    private List<QueryItem> queries;
+    private Boolean includeTimings;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class QueryItem {
+        private String query;
+        private Integer limit;
+        private Integer numCandidates;
+        private Double minScore;
+    }
+}
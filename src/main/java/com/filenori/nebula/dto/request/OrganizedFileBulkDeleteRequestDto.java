@@ -0,0 +1,14 @@
+package com.filenori.nebula.dto.request;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrganizedFileBulkDeleteRequestDto {
+    private List<String> ids; // 삭제할 파일 ID 목록
+}
@@ -13,5 +13,7 @@ public class OrganizedFileSearchRequestDto {
     private Integer limit;
     private Integer numCandidates;
     private Double minScore;
+    private String cursor; // 이전 응답의 nextCursor (다음 페이지 조회 시 query 대신 사용)
+    private Boolean includeTimings; // true면 응답에 단계별 소요 시간 포함
 }
 
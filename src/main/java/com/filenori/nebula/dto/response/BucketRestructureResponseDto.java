@@ -0,0 +1,27 @@
+package com.filenori.nebula.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 전체 버킷 분석 스트림의 한 항목 (버킷 하나의 통합 제안)
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BucketRestructureResponseDto {
+
+    @JsonProperty("para_bucket")
+    private String paraBucket;
+
+    @JsonProperty("merge_suggestions")
+    private List<FolderRestructureResponseDto.MergeSuggestion> mergeSuggestions;
+
+    private String reason;
+
+    private boolean cached; // 버킷 내용이 바뀌지 않아 캐시된 분석을 반환했는지
+}
@@ -15,10 +15,11 @@ public class FolderContentsDto {
     private String folderPath;      // "Projects/Docs"
     private String paraBucket;      // "Projects"
     private String paraFolder;      // "Docs"
-    private int totalFiles;
+    private int totalFiles;         // 폴더에 바로 속한 전체 파일 수 (폴더 노드 통계 기준)
     private int totalSubfolders;
     private List<FileItemDto> files;
-    private List<FolderItemDto> subfolders;
+    private List<FolderItemDto> subfolders; // 첫 페이지에만 포함
+    private String nextCursor;              // 다음 파일 페이지 커서 (마지막 페이지면 null)
     
     @Getter
     @Builder
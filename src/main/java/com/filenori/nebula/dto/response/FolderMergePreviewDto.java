@@ -0,0 +1,38 @@
+package com.filenori.nebula.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FolderMergePreviewDto {
+    private String paraBucket;
+    private String targetFolder;
+    private long movingCount;                  // 옮겨질 문서 수 (폴더 항목 포함, 실제 통합 시 movedCount와 같음)
+    private long movingFileCount;              // 그중 파일 수
+    private long movingBytes;
+    private Map<String, Long> movingCountBySource;
+    private long targetFileCount;              // 타겟 폴더에 이미 있는 파일 수
+    private long targetBytes;
+    private long resultingFileCount;           // 통합 후 타겟 폴더 파일 수
+    private long resultingBytes;
+    private long collisionCount;               // 통합 후 같은 파일명(대소문자 무시)을 가진 이름 수
+    private List<NameCollisionDto> collisions; // 최대 20개
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class NameCollisionDto {
+        private String fileName;
+        private long count;
+        private List<String> originalRelativePaths; // 최대 5개
+    }
+}
@@ -0,0 +1,31 @@
+package com.filenori.nebula.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FolderSearchResponseDto {
+    private List<FolderResultDto> results;
+    private long total;
+    private long tookMs;
+    private Map<String, Long> timings; // includeTimings 요청 시 단계별 소요 시간(ms)
+
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FolderResultDto {
+        private String paraBucket;
+        private String paraFolder;
+        private long fileCount;
+        private double similarity;
+    }
+}
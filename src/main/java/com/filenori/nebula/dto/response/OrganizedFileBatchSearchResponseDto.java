@@ -0,0 +1,32 @@
+package com.filenori.nebula.dto.response;
+
+import com.filenori.nebula.dto.response.OrganizedFileSearchResponseDto.SearchResultDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrganizedFileBatchSearchResponseDto {
+    private List<QueryResultDto> queries; // 요청 순서와 동일
+    private long tookMs;
+    private Map<String, Long> timings; // includeTimings 요청 시 단계별 소요 시간(ms)
+
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class QueryResultDto {
+        private String query;
+        private List<SearchResultDto> results;
+        private long total;
+        private String error; // 해당 질의만 실패한 경우 사유
+        private Map<String, Long> timings; // includeTimings 요청 시 이 질의의 단계별 소요 시간(ms)
+    }
+}
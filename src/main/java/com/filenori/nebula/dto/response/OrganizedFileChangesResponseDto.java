@@ -0,0 +1,30 @@
+package com.filenori.nebula.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrganizedFileChangesResponseDto {
+    private List<OrganizedFileSummaryDto> upserts; // since 이후 생성/변경/이동된 파일
+    private List<DeletedFileDto> deletions;        // since 이후 삭제된 파일
+    private long nextSince;                        // 다음 요청의 since 값
+    private boolean hasMore;                       // true면 nextSince로 바로 다시 요청
+    private boolean resyncRequired;                // true면 툼스톤이 만료됐을 수 있으므로 since 없이 전체 목록부터 다시 동기화
+
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DeletedFileDto {
+        private String id;
+        private String originalRelativePath;
+        private long changeSeq;
+    }
+}
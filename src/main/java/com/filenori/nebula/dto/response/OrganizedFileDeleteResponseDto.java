@@ -0,0 +1,15 @@
+package com.filenori.nebula.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrganizedFileDeleteResponseDto {
+    private long deletedCount;
+    private long tookMs;
+}
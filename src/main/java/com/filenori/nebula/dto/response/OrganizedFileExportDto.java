@@ -0,0 +1,39 @@
+package com.filenori.nebula.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 내보내기/가져오기 NDJSON 한 줄 (문서 ID와 사용자 ID는 포함하지 않음)
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrganizedFileExportDto {
+    private String baseDirectory;
+    private String originalRelativePath;
+    private boolean directory;
+    private boolean development;
+    private long sizeBytes;
+    private String modifiedAt;
+    private List<String> keywords;
+
+    private String koreanFileName;
+    private String englishFileName;
+    private String paraBucket;
+    private String paraFolder;
+    private String paraFullPath;
+    private String reason;
+
+    private Instant createdAt;
+    private List<Double> embedding; // includeEmbeddings=false 이면 생략
+    private Instant embeddingUpdatedAt;
+}
@@ -0,0 +1,22 @@
+package com.filenori.nebula.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrganizedFileImportResponseDto {
+    private long totalProcessed;
+    private long savedCount;
+    private long updatedCount;
+    private long failedCount;
+    private List<String> errorMessages; // 최대 maxErrorMessages개까지만 포함
+    private Instant processedAt;
+}
@@ -0,0 +1,18 @@
+package com.filenori.nebula.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrganizedFilePageResponseDto {
+    private List<OrganizedFileSummaryDto> items;
+    private int size;
+    private String nextCursor; // 다음 페이지가 없으면 null (마지막 항목의 ID)
+}
@@ -6,6 +6,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 
 @Getter
 @Builder
@@ -15,6 +16,8 @@ public class OrganizedFileSearchResponseDto {
     private List<SearchResultDto> results;
     private long total;
     private long tookMs;
+    private String nextCursor; // 다음 페이지가 없으면 null
+    private Map<String, Long> timings; // includeTimings 요청 시 단계별 소요 시간(ms)
 
     @Getter
     @Builder
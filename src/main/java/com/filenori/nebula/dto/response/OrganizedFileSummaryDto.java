@@ -0,0 +1,32 @@
+package com.filenori.nebula.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 목록 조회용 경량 파일 정보 (임베딩 제외)
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrganizedFileSummaryDto {
+    private String id;
+    private String originalRelativePath;
+    private String koreanFileName;
+    private String englishFileName;
+    private String paraBucket;
+    private String paraFolder;
+    private boolean directory;
+    private boolean development;
+    private long sizeBytes;
+    private String modifiedAt;
+    private List<String> keywords;
+    private Instant createdAt;
+    private Long changeSeq;
+}
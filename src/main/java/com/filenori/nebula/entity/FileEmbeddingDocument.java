@@ -0,0 +1,32 @@
+package com.filenori.nebula.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 파일 임베딩 (organized_files와 같은 _id)
+ * 임베딩이 문서 크기의 대부분을 차지하므로 organized_files에서 분리해, 목록/탐색 조회가 벡터를 읽지 않도록 한다.
+ * 벡터 인덱스는 이 컬렉션의 embedding 경로를 대상으로 하며 userId를 filter 필드로 둔다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "file_embeddings")
+public class FileEmbeddingDocument {
+
+    @Id
+    private ObjectId id; // organized_files._id
+
+    private ObjectId userId;
+    private List<Double> embedding;
+    private Instant embeddingUpdatedAt;
+}
@@ -0,0 +1,39 @@
+package com.filenori.nebula.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * (사용자, PARA 버킷, 폴더)별 멤버 파일 임베딩의 센트로이드
+ * embeddingSum/memberCount를 함께 저장해 파일 저장·이동·삭제 시 전체 재계산 없이 증분 갱신한다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "folder_centroids")
+@CompoundIndex(name = "idx_user_bucket_folder", def = "{ 'userId': 1, 'paraBucket': 1, 'paraFolder': 1 }", unique = true)
+public class FolderCentroidDocument {
+
+    @Id
+    private ObjectId id;
+
+    private ObjectId userId;
+    private String paraBucket;
+    private String paraFolder;
+
+    private List<Double> embeddingSum;
+    private List<Double> embedding; // embeddingSum / memberCount (벡터 인덱스 대상)
+    private long memberCount;
+
+    private Instant updatedAt;
+}
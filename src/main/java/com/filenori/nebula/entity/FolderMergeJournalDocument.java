@@ -0,0 +1,54 @@
+package com.filenori.nebula.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 폴더 통합 저널 (되돌리기용)
+ * 소스 폴더별로 옮긴 파일 ID와 이동에 쓴 변경 시퀀스를 기록해, 통합을 한 번의 bulkWrite로 되돌릴 수 있게 한다.
+ * expiresAt 기준 TTL 인덱스로 보관 기간이 지나면 자동 삭제된다.
+ */
+@Getter
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "folder_merge_journals")
+@CompoundIndex(name = "idx_user_bucket_created", def = "{ 'userId': 1, 'paraBucket': 1, 'createdAt': -1 }")
+public class FolderMergeJournalDocument {
+
+    @Id
+    private ObjectId id;
+
+    private ObjectId userId;
+    private String paraBucket;
+    private String targetFolder;
+    private List<MovedFolder> movedFolders;
+    private long movedCount;
+    private boolean transactional; // 트랜잭션 안에서 적용되었는지 (standalone 배포는 false)
+
+    private Instant createdAt;
+    private Instant undoneAt;
+
+    @Indexed(name = "idx_folder_merge_journal_expires", expireAfter = "0s")
+    private Instant expiresAt;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MovedFolder {
+        private String sourceFolder;
+        private long changeSeq;       // 이 소스 폴더 이동에만 쓴 변경 시퀀스
+        private long movedCount;
+        private List<ObjectId> fileIds; // 옮긴 파일 ID (한도를 넘으면 null, 되돌릴 때 changeSeq로 찾음)
+    }
+}
@@ -0,0 +1,61 @@
+package com.filenori.nebula.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * (사용자, PARA 버킷)별 폴더 트리의 노드
+ * organized_files 변경 이벤트로 자신과 모든 상위 노드의 통계를 증분 갱신하므로, 폴더 탐색은 하위 노드만 읽으면 된다.
+ * path는 정규화된 소문자 경로이며 버킷 루트 노드(path "")는 버킷 전체 합계이자 트리가 만들어졌다는 표시로 쓴다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "folder_nodes")
+@CompoundIndexes({
+        @CompoundIndex(name = "idx_user_bucket_path", def = "{ 'userId': 1, 'paraBucket': 1, 'path': 1 }", unique = true),
+        @CompoundIndex(name = "idx_user_bucket_parent", def = "{ 'userId': 1, 'paraBucket': 1, 'parentPath': 1, 'name': 1 }")
+})
+public class FolderNodeDocument {
+
+    @Id
+    private ObjectId id;
+
+    private ObjectId userId;
+    private String paraBucket;
+    private String path;        // "docs/specs" (버킷 루트는 "")
+    private String parentPath;  // 루트 노드는 null
+    private String name;        // 마지막 경로 세그먼트
+    private int depth;
+
+    private long entryCount;      // 하위 트리 전체 문서 수 (디렉터리 항목 포함, 0이 되면 노드 삭제)
+    private long fileCount;       // 하위 트리 전체 파일 수
+    private long directFileCount; // 이 폴더에 바로 속한 파일 수
+    private long childCount;      // 하위 폴더 노드 수
+    private String lastModified;  // 하위 트리 파일 중 가장 최근 modifiedAt (삭제 시에는 줄지 않음)
+    private List<KeywordCount> keywordSketch; // 하위 트리 키워드 Space-Saving 스케치 (KeywordSketch, 개수 내림차순)
+    private long sketchVersion;               // 스케치 read-modify-write 충돌 감지용
+    private ObjectId buildId;                 // 이 노드를 마지막으로 쓴 전체 집계 (재집계 후 남은 옛 노드 정리용)
+
+    private Instant updatedAt;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class KeywordCount {
+        private String keyword;
+        private long count;
+        private long error; // 밀려난 항목에서 물려받은 최대 과대 추정치
+    }
+}
@@ -0,0 +1,44 @@
+package com.filenori.nebula.entity;
+
+import com.filenori.nebula.dto.response.FolderRestructureResponseDto.MergeSuggestion;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * (사용자, PARA 버킷)별 폴더 재구성 분석 캐시
+ * contentVersion은 버킷의 파일이 바뀔 때마다 바뀐 파일 수만큼 증가하고, 마지막 분석 결과는 분석 시점의 버전(analyzedVersion)과 모델로 기록된다.
+ * 두 버전과 모델이 모두 같을 때만 캐시된 제안을 그대로 돌려준다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "folder_restructure_analyses")
+@CompoundIndex(name = "idx_user_bucket", def = "{ 'userId': 1, 'paraBucket': 1 }", unique = true)
+public class FolderRestructureAnalysisDocument {
+
+    @Id
+    private ObjectId id;
+
+    private ObjectId userId;
+    private String paraBucket;     // canonical 버킷명
+
+    private long contentVersion;   // 버킷 내용 버전 (변경된 파일 수만큼 증가)
+    private Long analyzedVersion;  // 캐시된 분석의 기준 버전 (분석 전이면 null)
+    private String model;
+
+    private List<MergeSuggestion> mergeSuggestions;
+    private String reason;
+
+    private Instant analyzedAt;
+    private Instant updatedAt;
+}
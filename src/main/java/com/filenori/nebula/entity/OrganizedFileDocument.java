@@ -6,6 +6,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
@@ -14,13 +15,20 @@ import java.time.Instant;
 import java.util.List;
 
 @Getter
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "organized_files")
 @CompoundIndexes({
         @CompoundIndex(name = "idx_user_bucket_folder", def = "{ 'userId': 1, 'paraBucket': 1, 'paraFolder': 1 }"),
-        @CompoundIndex(name = "idx_user_original_path", def = "{ 'userId': 1, 'originalRelativePath': 1 }", unique = true)
+        @CompoundIndex(name = "idx_user_bucket_folder_path", def = "{ 'userId': 1, 'paraBucket': 1, 'folderPath': 1 }"),
+        // 폴더 내 파일 정렬/키셋 페이지네이션용 (정렬 필드 + _id)
+        @CompoundIndex(name = "idx_user_bucket_folder_path_name", def = "{ 'userId': 1, 'paraBucket': 1, 'folderPath': 1, 'koreanFileName': 1, '_id': 1 }"),
+        @CompoundIndex(name = "idx_user_bucket_folder_path_size", def = "{ 'userId': 1, 'paraBucket': 1, 'folderPath': 1, 'sizeBytes': 1, '_id': 1 }"),
+        @CompoundIndex(name = "idx_user_bucket_folder_path_modified", def = "{ 'userId': 1, 'paraBucket': 1, 'folderPath': 1, 'modifiedAt': 1, '_id': 1 }"),
+        @CompoundIndex(name = "idx_user_original_path", def = "{ 'userId': 1, 'originalRelativePath': 1 }", unique = true),
+        @CompoundIndex(name = "idx_user_id", def = "{ 'userId': 1, '_id': 1 }"),
+        @CompoundIndex(name = "idx_user_change_seq", def = "{ 'userId': 1, 'changeSeq': 1 }")
 })
 public class OrganizedFileDocument {
 
@@ -41,9 +49,16 @@ public class OrganizedFileDocument {
     private String paraBucket;
     private String paraFolder;
     private String paraFullPath;
+    private String folderPath; // 정규화된 소문자 폴더 경로 (버킷 접두 제거, FolderPaths.normalize). 폴더 범위 조회용
     private String reason;
 
     private Instant createdAt;
+
+    // file_embeddings 컬렉션에 따로 저장됨 (OrganizedFileRepositoryCustom#attachEmbeddings로 채움)
+    @Transient
     private List<Double> embedding;
+    @Transient
     private Instant embeddingUpdatedAt;
+
+    private Long changeSeq; // 마지막으로 변경된 시점의 사용자 변경 시퀀스
 }
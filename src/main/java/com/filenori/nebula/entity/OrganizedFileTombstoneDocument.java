@@ -0,0 +1,43 @@
+package com.filenori.nebula.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * 삭제된 organized_files 문서의 툼스톤 (변경분 동기화용)
+ * deletedAt 기준 TTL 인덱스로 보존 기간이 지나면 자동 삭제된다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "organized_file_tombstones")
+@CompoundIndex(name = "idx_user_change_seq", def = "{ 'userId': 1, 'changeSeq': 1 }")
+public class OrganizedFileTombstoneDocument {
+
+    /**
+     * 툼스톤 보존 기간. deletedAt TTL 인덱스의 expireAfter와 같은 값이어야 한다.
+     */
+    public static final Duration RETENTION = Duration.ofDays(90);
+
+    @Id
+    private ObjectId id;
+
+    private ObjectId userId;
+    private ObjectId fileId; // 삭제된 organized_files 문서 ID
+    private String originalRelativePath;
+    private long changeSeq;
+
+    @Indexed(name = "idx_tombstone_deleted_at", expireAfter = "90d")
+    private Instant deletedAt;
+}
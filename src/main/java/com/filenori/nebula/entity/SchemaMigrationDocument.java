@@ -0,0 +1,28 @@
+package com.filenori.nebula.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * 완료된 데이터 마이그레이션 기록
+ * 기록이 있으면 기동 시 해당 마이그레이션의 대상 조회를 건너뛴다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "schema_migrations")
+public class SchemaMigrationDocument {
+
+    @Id
+    private String id; // 마이그레이션 이름
+
+    private long migratedCount;
+    private Instant completedAt;
+}
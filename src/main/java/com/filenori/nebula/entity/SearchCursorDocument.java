@@ -0,0 +1,49 @@
+package com.filenori.nebula.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 벡터 검색 페이지네이션 상태 (질의 벡터와 검색 파라미터)
+ * 다음 페이지 조회 시 재임베딩 없이 검색을 이어가기 위해 저장하며, expiresAt 기준 TTL 인덱스로 자동 삭제된다.
+ * 두 번째 페이지를 처음 조회할 때 최대 조회 깊이까지의 순위(rankedResults)를 한 번 계산해 두고, 이후 페이지는 이 목록에서 자른다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "search_cursors")
+public class SearchCursorDocument {
+
+    @Id
+    private ObjectId id;
+
+    private ObjectId userId;
+    private List<Double> queryVector;
+    private int pageSize;
+    private int numCandidates;
+    private double minScore;
+    private List<RankedResult> rankedResults; // similarity 내림차순, _id 오름차순 (첫 이어보기 전에는 null)
+
+    private Instant createdAt;
+
+    @Indexed(name = "idx_search_cursor_expires", expireAfter = "0s")
+    private Instant expiresAt;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RankedResult {
+        private ObjectId fileId;
+        private double similarity;
+    }
+}
@@ -0,0 +1,52 @@
+package com.filenori.nebula.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 사용자별 변경 시퀀스와 데이터 버전
+ * seq는 쓰기 직전에 발급되어 변경된 문서와 삭제 툼스톤에 changeSeq로 기록되고,
+ * version은 쓰기와 파생 데이터 갱신이 끝난 뒤 증가해 조회 API의 ETag로 사용된다.
+ * pending에는 발급됐지만 쓰기가 아직 끝나지 않은 시퀀스가, checkpoints에는 하루 단위 (시퀀스, 발급 시각) 기록이 남는다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "user_change_sequences")
+public class UserChangeSequenceDocument {
+
+    @Id
+    private ObjectId userId;
+
+    private long seq;
+    private long version;
+    private Instant updatedAt;
+
+    private List<PendingWrite> pending;
+    private List<Checkpoint> checkpoints;
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PendingWrite {
+        private long seq;
+        private Instant startedAt;
+    }
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Checkpoint {
+        private long seq;
+        private Instant at;
+    }
+}
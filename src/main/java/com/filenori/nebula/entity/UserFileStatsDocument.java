@@ -0,0 +1,34 @@
+package com.filenori.nebula.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * 사용자별 파일 통계 (organized_files 쓰기 시 $inc로 증분 갱신)
+ * 통계 API는 이 문서 하나만 _id로 읽는다.
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "user_file_stats")
+public class UserFileStatsDocument {
+
+    @Id
+    private ObjectId userId;
+
+    private long totalFiles;
+    private Map<String, Long> bucketCounts; // PARA 버킷명 -> 파일 수
+    private long developmentCount;
+    private long totalBytes;
+
+    private Instant lastModifiedAt; // 마지막으로 파일이 저장/이동/삭제된 시각
+}
@@ -0,0 +1,20 @@
+package com.filenori.nebula.event;
+
+import org.bson.types.ObjectId;
+
+/**
+ * 폴더 이동/병합(updateMulti) 이후 발행되는 이벤트
+ * 파일 단위 변경 목록 없이 폴더 단위로 파생 데이터를 옮길 수 있도록 한다.
+ *
+ * @param userId       사용자 ID
+ * @param paraBucket   PARA 버킷
+ * @param sourceFolder 이동 전 폴더
+ * @param targetFolder 이동 후 폴더
+ * @param movedCount   이동된 문서 수
+ */
+public record FolderMovedEvent(ObjectId userId,
+                               String paraBucket,
+                               String sourceFolder,
+                               String targetFolder,
+                               long movedCount) {
+}
@@ -0,0 +1,24 @@
+package com.filenori.nebula.event;
+
+import com.filenori.nebula.entity.OrganizedFileDocument;
+import org.bson.types.ObjectId;
+
+import java.util.List;
+
+/**
+ * organized_files 쓰기 이후 발행되는 이벤트
+ * 파생 데이터(폴더 센트로이드 등)는 변경 전/후 문서를 비교해 증분 갱신한다.
+ *
+ * @param userId  사용자 ID
+ * @param changes 변경 목록 (before == null 이면 신규, after == null 이면 삭제)
+ */
+public record OrganizedFileChangedEvent(ObjectId userId, List<FileChange> changes) {
+
+    /**
+     * 파생 데이터(통계, 센트로이드 등) 리스너 순서. 사용자 데이터 버전(ETag) 증가보다 먼저 실행되어야 한다.
+     */
+    public static final int DERIVED_DATA_LISTENER_ORDER = 0;
+
+    public record FileChange(OrganizedFileDocument before, OrganizedFileDocument after) {
+    }
+}
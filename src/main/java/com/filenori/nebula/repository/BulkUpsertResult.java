@@ -0,0 +1,30 @@
+package com.filenori.nebula.repository;
+
+import org.bson.types.ObjectId;
+
+import java.util.List;
+
+/**
+ * 벌크 upsert 결과 (입력 문서 순서와 동일한 항목별 결과)
+ */
+public record BulkUpsertResult(List<ItemResult> items) {
+
+    public enum Status {
+        INSERTED,
+        UPDATED,
+        DUPLICATE_KEY,
+        FAILED
+    }
+
+    /**
+     * @param status       처리 결과
+     * @param id           저장된 문서 ID (실패한 경우 null)
+     * @param errorMessage 실패한 경우 사유
+     */
+    public record ItemResult(Status status, ObjectId id, String errorMessage) {
+
+        public boolean isSuccess() {
+            return status == Status.INSERTED || status == Status.UPDATED;
+        }
+    }
+}
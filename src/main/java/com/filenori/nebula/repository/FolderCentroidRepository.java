@@ -0,0 +1,17 @@
+package com.filenori.nebula.repository;
+
+import com.filenori.nebula.entity.FolderCentroidDocument;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface FolderCentroidRepository extends MongoRepository<FolderCentroidDocument, ObjectId> {
+
+    List<FolderCentroidDocument> findByUserIdAndParaFolderIn(ObjectId userId, Collection<String> paraFolders);
+
+    void deleteByUserId(ObjectId userId);
+}
@@ -0,0 +1,17 @@
+package com.filenori.nebula.repository;
+
+import com.filenori.nebula.entity.FolderMergeJournalDocument;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface FolderMergeJournalRepository extends MongoRepository<FolderMergeJournalDocument, ObjectId> {
+
+    Optional<FolderMergeJournalDocument> findByIdAndUserId(ObjectId id, ObjectId userId);
+
+    Optional<FolderMergeJournalDocument> findFirstByUserIdAndParaBucketInAndUndoneAtIsNullOrderByCreatedAtDesc(ObjectId userId, Collection<String> paraBuckets);
+}
@@ -0,0 +1,19 @@
+package com.filenori.nebula.repository;
+
+import com.filenori.nebula.entity.FolderNodeDocument;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface FolderNodeRepository extends MongoRepository<FolderNodeDocument, ObjectId> {
+
+    Optional<FolderNodeDocument> findByUserIdAndParaBucketAndPath(ObjectId userId, String paraBucket, String path);
+
+    List<FolderNodeDocument> findByUserIdAndParaBucketAndParentPathOrderByNameAsc(ObjectId userId, String paraBucket, String parentPath);
+
+    boolean existsByUserIdAndParaBucketAndPath(ObjectId userId, String paraBucket, String path);
+}
@@ -0,0 +1,30 @@
+package com.filenori.nebula.repository;
+
+import com.filenori.nebula.entity.OrganizedFileDocument;
+
+import java.util.List;
+import java.util.Map;
+
+public interface OrganizedFileRepositoryCustom {
+
+    /**
+     * (userId, originalRelativePath) 고유 인덱스를 키로 unordered 벌크 upsert를 수행한다.
+     * 기존 문서가 주어진 항목은 바뀐 필드만 $set/$unset 하고, 나머지 필드는 $setOnInsert로만 기록한다.
+     * 임베딩은 기존 문서와 달라진 항목만 file_embeddings에 따로 upsert 한다.
+     *
+     * @param documents      저장할 문서 (id는 무시되고 키로 매칭됨)
+     * @param existingByPath originalRelativePath별 현재 저장된 문서 (없으면 전체 필드를 기록, 임베딩 비교를 위해 attachEmbeddings 된 상태여야 함)
+     * @param changeSeq      실제로 변경된 문서에 기록할 변경 시퀀스
+     * @param chunkSize      한 번의 bulkWrite에 담을 최대 문서 수
+     * @return 입력 순서와 동일한 항목별 결과
+     */
+    BulkUpsertResult bulkUpsert(List<OrganizedFileDocument> documents,
+                                Map<String, OrganizedFileDocument> existingByPath,
+                                long changeSeq,
+                                int chunkSize);
+
+    /**
+     * file_embeddings에서 임베딩을 읽어 채운 사본을 반환한다. (입력 순서 유지, 임베딩이 없으면 그대로)
+     */
+    List<OrganizedFileDocument> attachEmbeddings(List<OrganizedFileDocument> documents);
+}
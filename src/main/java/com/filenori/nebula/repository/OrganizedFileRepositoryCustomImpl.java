@@ -0,0 +1,291 @@
+package com.filenori.nebula.repository;
+
+import com.filenori.nebula.entity.FileEmbeddingDocument;
+import com.filenori.nebula.entity.OrganizedFileDocument;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+@RequiredArgsConstructor
+@Slf4j
+public class OrganizedFileRepositoryCustomImpl implements OrganizedFileRepositoryCustom {
+
+    private static final int DUPLICATE_KEY_ERROR_CODE = 11000;
+    private static final String CHANGE_SEQ_FIELD = "changeSeq";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public BulkUpsertResult bulkUpsert(List<OrganizedFileDocument> documents,
+                                       Map<String, OrganizedFileDocument> existingByPath,
+                                       long changeSeq,
+                                       int chunkSize) {
+        if (documents == null || documents.isEmpty()) {
+            return new BulkUpsertResult(List.of());
+        }
+
+        Map<String, OrganizedFileDocument> existing = existingByPath != null ? existingByPath : Map.of();
+        int size = Math.max(1, chunkSize);
+        BulkUpsertResult.ItemResult[] results = new BulkUpsertResult.ItemResult[documents.size()];
+        List<String> fieldNames = mappedFieldNames();
+
+        for (int from = 0; from < documents.size(); from += size) {
+            List<OrganizedFileDocument> chunk = documents.subList(from, Math.min(from + size, documents.size()));
+            executeChunk(chunk, existing, changeSeq, from, fieldNames, results);
+        }
+
+        resolveMatchedIds(documents, existing, results);
+        writeEmbeddings(documents, existing, results, size);
+        return new BulkUpsertResult(Arrays.asList(results));
+    }
+
+    @Override
+    public List<OrganizedFileDocument> attachEmbeddings(List<OrganizedFileDocument> documents) {
+        List<ObjectId> ids = documents.stream()
+                .map(OrganizedFileDocument::getId)
+                .filter(Objects::nonNull)
+                .toList();
+        if (ids.isEmpty()) {
+            return documents;
+        }
+
+        Map<ObjectId, FileEmbeddingDocument> embeddingById = new HashMap<>();
+        mongoTemplate.find(Query.query(Criteria.where("_id").in(ids)), FileEmbeddingDocument.class)
+                .forEach(embedding -> embeddingById.put(embedding.getId(), embedding));
+        if (embeddingById.isEmpty()) {
+            return documents;
+        }
+
+        return documents.stream()
+                .map(document -> {
+                    FileEmbeddingDocument embedding = document.getId() != null ? embeddingById.get(document.getId()) : null;
+                    return embedding == null ? document : document.toBuilder()
+                            .embedding(embedding.getEmbedding())
+                            .embeddingUpdatedAt(embedding.getEmbeddingUpdatedAt())
+                            .build();
+                })
+                .toList();
+    }
+
+    private void executeChunk(List<OrganizedFileDocument> chunk,
+                              Map<String, OrganizedFileDocument> existingByPath,
+                              long changeSeq,
+                              int offset,
+                              List<String> fieldNames,
+                              BulkUpsertResult.ItemResult[] results) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OrganizedFileDocument.class);
+        for (OrganizedFileDocument document : chunk) {
+            OrganizedFileDocument before = existingByPath.get(document.getOriginalRelativePath());
+            operations.upsert(keyQuery(document), toUpdate(before, document, changeSeq, fieldNames));
+        }
+
+        try {
+            applyResult(operations.execute(), offset, chunk.size(), results);
+        } catch (BulkOperationException e) {
+            // unordered 모드에서는 실패한 항목만 errors에 담기고 나머지는 반영됨
+            for (BulkWriteError error : e.getErrors()) {
+                BulkUpsertResult.Status status = error.getCode() == DUPLICATE_KEY_ERROR_CODE
+                        ? BulkUpsertResult.Status.DUPLICATE_KEY
+                        : BulkUpsertResult.Status.FAILED;
+                results[offset + error.getIndex()] = new BulkUpsertResult.ItemResult(status, null, error.getMessage());
+            }
+            applyResult(e.getResult(), offset, chunk.size(), results);
+        } catch (RuntimeException e) {
+            log.error("Bulk upsert chunk failed (offset={}, size={})", offset, chunk.size(), e);
+            for (int i = 0; i < chunk.size(); i++) {
+                results[offset + i] = new BulkUpsertResult.ItemResult(BulkUpsertResult.Status.FAILED, null, e.getMessage());
+            }
+        }
+    }
+
+    private void applyResult(BulkWriteResult result,
+                             int offset,
+                             int chunkSize,
+                             BulkUpsertResult.ItemResult[] results) {
+        if (result != null) {
+            for (BulkWriteUpsert upsert : result.getUpserts()) {
+                results[offset + upsert.getIndex()] = new BulkUpsertResult.ItemResult(
+                        BulkUpsertResult.Status.INSERTED, upsert.getId().asObjectId().getValue(), null);
+            }
+        }
+        for (int i = 0; i < chunkSize; i++) {
+            if (results[offset + i] == null) {
+                results[offset + i] = new BulkUpsertResult.ItemResult(BulkUpsertResult.Status.UPDATED, null, null);
+            }
+        }
+    }
+
+    private Query keyQuery(OrganizedFileDocument document) {
+        return Query.query(Criteria.where("userId").is(document.getUserId())
+                .and("originalRelativePath").is(document.getOriginalRelativePath()));
+    }
+
+    /**
+     * 변경 전 문서와 비교해 바뀐 필드만 $set, 사라진 필드만 $unset 한다.
+     * 바뀌지 않은 필드와 createdAt은 $setOnInsert로 두어, 그 사이 문서가 삭제된 경우에도 완전한 문서가 삽입되도록 한다.
+     * 변경 전 문서를 모르면 전체 교체와 같은 결과가 되도록 모든 필드를 기록한다.
+     * changeSeq는 실제로 바뀐 필드가 있을 때만 갱신한다.
+     */
+    private Update toUpdate(OrganizedFileDocument before, OrganizedFileDocument after, long changeSeq, List<String> fieldNames) {
+        Document current = toBson(after);
+        Document previous = before != null ? toBson(before) : null;
+        Object createdAt = current.remove("createdAt");
+
+        Update update = new Update();
+        boolean changed = previous == null;
+        for (Map.Entry<String, Object> entry : current.entrySet()) {
+            if (previous != null && Objects.equals(previous.get(entry.getKey()), entry.getValue())) {
+                update.setOnInsert(entry.getKey(), entry.getValue());
+            } else {
+                update.set(entry.getKey(), entry.getValue());
+                changed = true;
+            }
+        }
+        for (String fieldName : fieldNames) {
+            if ("createdAt".equals(fieldName) || CHANGE_SEQ_FIELD.equals(fieldName) || current.containsKey(fieldName)) {
+                continue;
+            }
+            if (previous == null || previous.containsKey(fieldName)) {
+                update.unset(fieldName);
+                changed = true;
+            }
+        }
+        if (createdAt != null) {
+            update.setOnInsert("createdAt", createdAt);
+        }
+        if (changed) {
+            update.set(CHANGE_SEQ_FIELD, changeSeq);
+        } else {
+            update.setOnInsert(CHANGE_SEQ_FIELD, changeSeq);
+        }
+        return update;
+    }
+
+    private Document toBson(OrganizedFileDocument document) {
+        Document converted = new Document();
+        mongoTemplate.getConverter().write(document, converted);
+        converted.remove("_id");
+        converted.remove(CHANGE_SEQ_FIELD);
+        return converted;
+    }
+
+    /**
+     * 매칭(UPDATED)된 항목의 ID를 채운다. 호출 측이 조회한 시점 이후 다른 요청이 먼저 삽입한 문서는 다시 조회한다.
+     */
+    private void resolveMatchedIds(List<OrganizedFileDocument> documents,
+                                   Map<String, OrganizedFileDocument> existingByPath,
+                                   BulkUpsertResult.ItemResult[] results) {
+        Map<ObjectId, List<String>> unresolvedPathsByUser = new HashMap<>();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i].status() != BulkUpsertResult.Status.UPDATED) {
+                continue;
+            }
+            OrganizedFileDocument before = existingByPath.get(documents.get(i).getOriginalRelativePath());
+            if (before != null && before.getId() != null) {
+                results[i] = new BulkUpsertResult.ItemResult(BulkUpsertResult.Status.UPDATED, before.getId(), null);
+            } else {
+                unresolvedPathsByUser.computeIfAbsent(documents.get(i).getUserId(), key -> new ArrayList<>())
+                        .add(documents.get(i).getOriginalRelativePath());
+            }
+        }
+
+        if (unresolvedPathsByUser.isEmpty()) {
+            return;
+        }
+
+        Map<String, ObjectId> idByKey = new HashMap<>();
+        unresolvedPathsByUser.forEach((userId, paths) -> {
+            Query query = Query.query(Criteria.where("userId").is(userId).and("originalRelativePath").in(paths));
+            query.fields().include("_id", "userId", "originalRelativePath");
+            mongoTemplate.find(query, OrganizedFileDocument.class)
+                    .forEach(found -> idByKey.put(userId + "|" + found.getOriginalRelativePath(), found.getId()));
+        });
+
+        for (int i = 0; i < results.length; i++) {
+            if (results[i].status() == BulkUpsertResult.Status.UPDATED && results[i].id() == null) {
+                OrganizedFileDocument document = documents.get(i);
+                ObjectId id = idByKey.get(document.getUserId() + "|" + document.getOriginalRelativePath());
+                results[i] = new BulkUpsertResult.ItemResult(BulkUpsertResult.Status.UPDATED, id, null);
+            }
+        }
+    }
+
+    /**
+     * 저장에 성공한 항목 중 임베딩이 새로 생겼거나 바뀐 항목만 file_embeddings에 upsert 한다.
+     * 임베딩이 없는 항목은 기존 임베딩을 지우지 않는다. (생성 실패 시 이전 임베딩 유지)
+     */
+    private void writeEmbeddings(List<OrganizedFileDocument> documents,
+                                 Map<String, OrganizedFileDocument> existingByPath,
+                                 BulkUpsertResult.ItemResult[] results,
+                                 int chunkSize) {
+        BulkOperations operations = null;
+        int pending = 0;
+        for (int i = 0; i < results.length; i++) {
+            OrganizedFileDocument document = documents.get(i);
+            if (!results[i].isSuccess() || results[i].id() == null
+                    || document.getEmbedding() == null || document.getEmbedding().isEmpty()) {
+                continue;
+            }
+            OrganizedFileDocument before = existingByPath.get(document.getOriginalRelativePath());
+            if (before != null && Objects.equals(before.getEmbedding(), document.getEmbedding())) {
+                continue;
+            }
+
+            if (operations == null) {
+                operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FileEmbeddingDocument.class);
+            }
+            operations.upsert(Query.query(Criteria.where("_id").is(results[i].id())), new Update()
+                    .set("userId", document.getUserId())
+                    .set("embedding", document.getEmbedding())
+                    .set("embeddingUpdatedAt", document.getEmbeddingUpdatedAt()));
+            if (++pending >= chunkSize) {
+                executeEmbeddingWrites(operations, pending);
+                operations = null;
+                pending = 0;
+            }
+        }
+        if (operations != null) {
+            executeEmbeddingWrites(operations, pending);
+        }
+    }
+
+    private void executeEmbeddingWrites(BulkOperations operations, int size) {
+        try {
+            operations.execute();
+        } catch (RuntimeException e) {
+            // 파일 문서는 이미 저장됨. 임베딩은 다음 저장 시 다시 기록된다
+            log.error("Failed to write {} file embeddings", size, e);
+        }
+    }
+
+    private List<String> mappedFieldNames() {
+        List<String> fieldNames = new ArrayList<>();
+        mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(OrganizedFileDocument.class)
+                .doWithProperties((PropertyHandler<MongoPersistentProperty>) property -> {
+                    if (!property.isIdProperty()) {
+                        fieldNames.add(property.getFieldName());
+                    }
+                });
+        return fieldNames;
+    }
+}
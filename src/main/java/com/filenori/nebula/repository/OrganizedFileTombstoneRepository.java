@@ -0,0 +1,10 @@
+package com.filenori.nebula.repository;
+
+import com.filenori.nebula.entity.OrganizedFileTombstoneDocument;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrganizedFileTombstoneRepository extends MongoRepository<OrganizedFileTombstoneDocument, ObjectId> {
+}
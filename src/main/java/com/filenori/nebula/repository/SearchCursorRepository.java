@@ -0,0 +1,14 @@
+package com.filenori.nebula.repository;
+
+import com.filenori.nebula.entity.SearchCursorDocument;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SearchCursorRepository extends MongoRepository<SearchCursorDocument, ObjectId> {
+
+    Optional<SearchCursorDocument> findByIdAndUserId(ObjectId id, ObjectId userId);
+}
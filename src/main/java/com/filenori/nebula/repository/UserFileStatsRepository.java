@@ -0,0 +1,10 @@
+package com.filenori.nebula.repository;
+
+import com.filenori.nebula.entity.UserFileStatsDocument;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserFileStatsRepository extends MongoRepository<UserFileStatsDocument, ObjectId> {
+}
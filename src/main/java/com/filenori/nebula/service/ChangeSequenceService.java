@@ -0,0 +1,177 @@
+package com.filenori.nebula.service;
+
+import com.filenori.nebula.entity.UserChangeSequenceDocument;
+import com.filenori.nebula.event.FolderMovedEvent;
+import com.filenori.nebula.event.OrganizedFileChangedEvent;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.Updates;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 사용자별 단조 증가 변경 시퀀스 발급
+ * 한 번의 쓰기 작업(벌크 저장, 폴더 이동, 삭제)에 하나의 시퀀스를 발급해 관련 문서 모두에 같은 값을 기록한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class ChangeSequenceService {
+
+    private final MongoTemplate mongoTemplate;
+
+    private static final Duration CHECKPOINT_INTERVAL = Duration.ofDays(1);
+    private static final int CHECKPOINT_LIMIT = 120;
+
+    /**
+     * 쓰기 중 표시의 최대 유지 시간. complete가 호출되지 못한 채 프로세스가 죽어도 이 시간이 지나면 동기화가 다시 진행된다.
+     */
+    @Value("${organizedFiles.sync.pendingLeaseSeconds:600}")
+    private long pendingLeaseSeconds;
+
+    /**
+     * 다음 시퀀스를 발급하고 쓰기 중(pending) 목록에 등록한다. (파이프라인 findOneAndUpdate, 첫 호출 시 1)
+     * 발급과 등록이 한 번의 원자적 갱신이라 safeHighWaterMark가 발급만 되고 등록되지 않은 시퀀스를 볼 수 없다.
+     * 호출자는 쓰기가 끝나면(실패 포함) 반드시 complete를 호출해야 한다.
+     */
+    public long next(ObjectId userId) {
+        Date now = new Date();
+        Date leaseCutoff = new Date(now.getTime() - pendingLeaseSeconds * 1000L);
+        Date checkpointCutoff = new Date(now.getTime() - CHECKPOINT_INTERVAL.toMillis());
+
+        Document incrementSeq = new Document("$set", new Document("seq",
+                new Document("$add", List.of(new Document("$ifNull", List.of("$seq", 0L)), 1L)))
+                .append("updatedAt", now));
+        // 두 번째 단계는 증가된 seq를 본다. 만료된 pending은 이때 함께 정리한다.
+        Document registerPending = new Document("$set", new Document("pending", new Document("$concatArrays", List.of(
+                new Document("$filter", new Document("input", new Document("$ifNull", List.of("$pending", List.of())))
+                        .append("cond", new Document("$gte", List.of("$$this.startedAt", leaseCutoff)))),
+                List.of(new Document("seq", "$seq").append("startedAt", now)))))
+                .append("checkpoints", new Document("$cond", List.of(
+                        new Document("$lt", List.of(
+                                new Document("$ifNull", List.of(new Document("$max", "$checkpoints.at"), new Date(0L))),
+                                checkpointCutoff)),
+                        new Document("$slice", List.of(
+                                new Document("$concatArrays", List.of(
+                                        new Document("$ifNull", List.of("$checkpoints", List.of())),
+                                        List.of(new Document("seq", "$seq").append("at", now)))),
+                                -CHECKPOINT_LIMIT)),
+                        new Document("$ifNull", List.of("$checkpoints", List.of()))))));
+
+        Document sequence = sequenceCollection().findOneAndUpdate(
+                Filters.eq("_id", userId),
+                List.of(incrementSeq, registerPending),
+                new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+        return sequence != null ? ((Number) sequence.get("seq")).longValue() : 0L;
+    }
+
+    /**
+     * next로 발급한 시퀀스의 쓰기가 끝났음을 표시한다. 쓰기 성공 여부와 관계없이 finally에서 호출한다.
+     */
+    public void complete(ObjectId userId, long seq) {
+        sequenceCollection().updateOne(Filters.eq("_id", userId),
+                Updates.pull("pending", new Document("seq", seq)));
+    }
+
+    /**
+     * 현재(마지막으로 발급된) 시퀀스. 쓰기가 한 번도 없었으면 0
+     */
+    public long current(ObjectId userId) {
+        UserChangeSequenceDocument sequence = mongoTemplate.findById(userId, UserChangeSequenceDocument.class);
+        return sequence != null ? sequence.getSeq() : 0L;
+    }
+
+    /**
+     * 변경분 동기화가 안전하게 진행할 수 있는 범위
+     *
+     * @param tombstoneRetention 툼스톤 보존 기간 (TTL)
+     */
+    public SyncWindow syncWindow(ObjectId userId, Duration tombstoneRetention) {
+        UserChangeSequenceDocument sequence = mongoTemplate.findById(userId, UserChangeSequenceDocument.class);
+        if (sequence == null) {
+            return new SyncWindow(0L, 1L);
+        }
+
+        Instant now = Instant.now();
+        Instant leaseCutoff = now.minusSeconds(pendingLeaseSeconds);
+        long highWaterMark = sequence.getPending() == null ? sequence.getSeq() : sequence.getPending().stream()
+                .filter(pending -> pending.getStartedAt() != null && !pending.getStartedAt().isBefore(leaseCutoff))
+                .mapToLong(pending -> pending.getSeq() - 1)
+                .min()
+                .orElse(sequence.getSeq());
+
+        // 보존 기간 안에 발급된 가장 오래된 체크포인트 이후의 툼스톤은 아직 남아 있다
+        Instant retentionCutoff = now.minus(tombstoneRetention);
+        long retainedFrom = sequence.getCheckpoints() == null ? sequence.getSeq() + 1 : sequence.getCheckpoints().stream()
+                .filter(checkpoint -> checkpoint.getAt() != null && checkpoint.getAt().isAfter(retentionCutoff))
+                .mapToLong(UserChangeSequenceDocument.Checkpoint::getSeq)
+                .min()
+                .orElse(sequence.getSeq() + 1);
+
+        return new SyncWindow(Math.min(highWaterMark, sequence.getSeq()), retainedFrom);
+    }
+
+    /**
+     * 조회 API용 ETag (사용자 데이터 버전). organized_files는 읽지 않는다.
+     */
+    public String eTag(ObjectId userId) {
+        Query query = Query.query(Criteria.where("_id").is(userId));
+        query.fields().include("version");
+        UserChangeSequenceDocument sequence = mongoTemplate.findOne(query, UserChangeSequenceDocument.class);
+        return "W/\"" + (sequence != null ? sequence.getVersion() : 0L) + "\"";
+    }
+
+    /**
+     * 쓰기 이벤트 처리가 모두 끝난 뒤(통계 등 파생 데이터 갱신 이후) 버전을 올린다.
+     * 쓰기 전에 올리면 그 사이의 조회가 이전 내용을 새 ETag로 캐시할 수 있기 때문.
+     */
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onOrganizedFilesChanged(OrganizedFileChangedEvent event) {
+        bumpVersion(event.userId());
+    }
+
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onFolderMoved(FolderMovedEvent event) {
+        bumpVersion(event.userId());
+    }
+
+    /**
+     * 이벤트 처리 이후 비동기로 갱신되는 파생 데이터(폴더 트리 재집계 등)가 완료됐을 때 호출해 ETag를 바꾼다.
+     * 이벤트 시점의 버전 증가만으로는 그 사이 조회가 갱신 전 내용을 새 ETag로 캐시해 이후 304를 받을 수 있기 때문.
+     */
+    public void bumpVersion(ObjectId userId) {
+        mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(userId)),
+                new Update().inc("version", 1L).set("updatedAt", Instant.now()),
+                UserChangeSequenceDocument.class);
+    }
+
+    private MongoCollection<Document> sequenceCollection() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(UserChangeSequenceDocument.class));
+    }
+
+    /**
+     * @param highWaterMark 이 값 이하의 시퀀스는 쓰기가 모두 끝났다. nextSince는 이 값을 넘지 않는다.
+     * @param retainedFrom  since + 1이 이 값보다 작으면 그 사이 툼스톤이 만료됐을 수 있어 전체 재동기화가 필요하다
+     */
+    public record SyncWindow(long highWaterMark, long retainedFrom) {
+    }
+}
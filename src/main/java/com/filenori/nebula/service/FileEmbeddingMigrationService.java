@@ -0,0 +1,127 @@
+package com.filenori.nebula.service;
+
+import com.filenori.nebula.entity.SchemaMigrationDocument;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Updates;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * organized_files 문서에 남아 있는 임베딩을 file_embeddings로 옮긴다.
+ * 서버 안에서 $merge로 복사한 뒤, file_embeddings에 있는 것이 확인된 _id에서만 원본 필드를 $unset 한다.
+ * 이미 옮긴 임베딩(file_embeddings에 있는 것)은 덮어쓰지 않는다.
+ * 남은 임베딩이 없으면 schema_migrations에 완료를 기록하고, 이후 기동에서는 그 기록만 확인한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FileEmbeddingMigrationService {
+
+    static final String MIGRATION_ID = "file_embeddings_split";
+
+    private static final String SOURCE_COLLECTION = "organized_files";
+    private static final String TARGET_COLLECTION = "file_embeddings";
+    private static final int UNSET_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${embeddings.migration.enabled:true}")
+    private boolean migrationEnabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (!migrationEnabled) {
+            return;
+        }
+        try {
+            migrate();
+        } catch (Exception e) {
+            log.error("Failed to migrate embeddings to {}", TARGET_COLLECTION, e);
+        }
+    }
+
+    /**
+     * @return 원본에서 임베딩을 제거한 문서 수
+     */
+    public long migrate() {
+        if (mongoTemplate.findById(MIGRATION_ID, SchemaMigrationDocument.class) != null) {
+            return 0;
+        }
+
+        MongoCollection<Document> source = mongoTemplate.getCollection(SOURCE_COLLECTION);
+        long unset = 0;
+        if (source.find(Filters.exists("embedding")).limit(1).first() != null) {
+            log.info("Migrating embeddings from {} to {}", SOURCE_COLLECTION, TARGET_COLLECTION);
+            source.aggregate(List.of(
+                            new Document("$match", new Document("embedding", new Document("$exists", true))),
+                            new Document("$project", new Document("userId", 1)
+                                    .append("embedding", 1)
+                                    .append("embeddingUpdatedAt", 1)),
+                            new Document("$merge", new Document("into", TARGET_COLLECTION)
+                                    .append("on", "_id")
+                                    .append("whenMatched", "keepExisting")
+                                    .append("whenNotMatched", "insert"))))
+                    .allowDiskUse(true)
+                    .toCollection();
+
+            unset = unsetCopiedEmbeddings(source);
+            log.info("Moved embeddings of {} organized files to {}", unset, TARGET_COLLECTION);
+        }
+
+        // 복사되지 않은 임베딩이 남아 있으면 다음 기동에서 다시 시도한다
+        if (source.find(Filters.exists("embedding")).limit(1).first() != null) {
+            log.warn("Embeddings remain in {} after migration; will retry on next startup", SOURCE_COLLECTION);
+            return unset;
+        }
+        mongoTemplate.save(SchemaMigrationDocument.builder()
+                .id(MIGRATION_ID)
+                .migratedCount(unset)
+                .completedAt(Instant.now())
+                .build());
+        return unset;
+    }
+
+    /**
+     * 임베딩이 남은 원본 _id를 청크 단위로 읽어, file_embeddings에 같은 _id가 있는 문서에서만 필드를 제거한다.
+     */
+    private long unsetCopiedEmbeddings(MongoCollection<Document> source) {
+        MongoCollection<Document> target = mongoTemplate.getCollection(TARGET_COLLECTION);
+        long unset = 0;
+        try (MongoCursor<Document> cursor = source.find(Filters.exists("embedding"))
+                .projection(Projections.include("_id"))
+                .batchSize(UNSET_BATCH_SIZE)
+                .iterator()) {
+            List<Object> ids = new ArrayList<>(UNSET_BATCH_SIZE);
+            while (cursor.hasNext()) {
+                ids.add(cursor.next().get("_id"));
+                if (ids.size() >= UNSET_BATCH_SIZE || !cursor.hasNext()) {
+                    List<Object> copied = new ArrayList<>(ids.size());
+                    target.find(Filters.in("_id", ids))
+                            .projection(Projections.include("_id"))
+                            .forEach(document -> copied.add(document.get("_id")));
+                    if (!copied.isEmpty()) {
+                        unset += source.updateMany(
+                                Filters.and(Filters.in("_id", copied), Filters.exists("embedding")),
+                                Updates.combine(Updates.unset("embedding"), Updates.unset("embeddingUpdatedAt")))
+                                .getModifiedCount();
+                    }
+                    ids = new ArrayList<>(UNSET_BATCH_SIZE);
+                }
+            }
+        }
+        return unset;
+    }
+}
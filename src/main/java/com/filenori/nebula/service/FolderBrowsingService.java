@@ -1,198 +1,295 @@
 package com.filenori.nebula.service;
 
 import com.filenori.nebula.dto.response.FolderContentsDto;
+import com.filenori.nebula.entity.FolderNodeDocument;
 import com.filenori.nebula.entity.OrganizedFileDocument;
-import com.filenori.nebula.repository.OrganizedFileRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
 import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
-import java.time.format.DateTimeFormatter;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FolderBrowsingService {
 
-    private final OrganizedFileRepository organizedFileRepository;
+    private static final int COMMON_KEYWORD_LIMIT = 5;
 
-    public FolderContentsDto getFolderContents(String userId, String paraBucket, String paraFolder) {
-        log.info("=== Getting folder contents using Aggregation ===");
-        log.info("User: {}, Bucket: {}, Folder: '{}'", userId, paraBucket, paraFolder);
+    private final FolderNodeService folderNodeService;
+    private final MongoTemplate mongoTemplate;
 
-        ObjectId userObjectId = new ObjectId(userId);
-        
-        String normalizedParent = normalizeFolderPath(paraFolder, paraBucket);
-        String bucketLower = paraBucket == null ? "" : paraBucket.trim().toLowerCase(Locale.ROOT);
+    @Value("${folderBrowse.defaultPageSize:100}")
+    private int defaultPageSize;
 
-        // Aggregation을 통한 통합 조회
-        String folderPattern;
-        
-        if (normalizedParent.isEmpty()) {
-            // 루트 레벨: 버킷 하위 모든 항목 조회 후 직접 하위만 필터링
-            folderPattern = "(?i).*";
-        } else {
-            // 특정 폴더: 버킷 접두 여부와 관계없이 동일 폴더 및 하위 항목 조회
-            folderPattern = "(?i)" + buildFolderPattern(normalizedParent, bucketLower);
-        }
-        
-        log.info("Using aggregation with pattern: '{}' (normalized folder '{}')", folderPattern, normalizedParent);
+    @Value("${folderBrowse.maxPageSize:1000}")
+    private int maxPageSize;
 
-        List<OrganizedFileDocument> allItems = organizedFileRepository
-                .findFolderContentsByAggregation(userObjectId, paraBucket, folderPattern);
-        
-        log.info("Aggregation returned {} items", allItems.size());
-        
-        // 결과 분리
-        List<FolderContentsDto.FileItemDto> files = new ArrayList<>();
-        Set<String> subfolderNames = new HashSet<>();
-        Map<String, FolderStats> folderStatsMap = new HashMap<>();
-        
-        for (OrganizedFileDocument item : allItems) {
-            String itemParaFolder = item.getParaFolder();
-            String normalizedItemFolder = normalizeFolderPath(itemParaFolder, paraBucket);
-            log.info("Processing item: paraFolder='{}' (normalized='{}'), directory={}, file='{}'", 
-                    itemParaFolder, normalizedItemFolder, item.isDirectory(), item.getOriginalRelativePath());
-            
-            if (isDirectFile(normalizedItemFolder, normalizedParent)) {
-                // 직접 하위 파일
-                files.add(convertToFileItemDto(item));
-            } else if (isDirectSubfolder(normalizedItemFolder, normalizedParent)) {
-                // 직접 하위 폴더
-                String subfolderName = extractSubfolderName(normalizedItemFolder, normalizedParent);
-                subfolderNames.add(subfolderName);
-                
-                // 폴더 통계 업데이트
-                FolderStats stats = folderStatsMap.computeIfAbsent(subfolderName, k -> new FolderStats());
-                if (item.isDirectory()) {
-                    stats.subfolderCount++;
-                } else {
-                    stats.fileCount++;
-                    if (item.getModifiedAt() != null && (stats.lastModified == null || 
-                            item.getModifiedAt().compareTo(stats.lastModified) > 0)) {
-                        stats.lastModified = item.getModifiedAt();
-                    }
-                    if (item.getKeywords() != null) {
-                        stats.keywords.addAll(item.getKeywords());
-                    }
-                }
-            }
-        }
-        
-        // 하위 폴더 DTO 생성
-        List<FolderContentsDto.FolderItemDto> subfolders = subfolderNames.stream()
-                .map(name -> {
-                    FolderStats stats = folderStatsMap.get(name);
-                    String fullPath = normalizedParent.isEmpty() ? name : normalizedParent + "/" + name;
+    /**
+     * 폴더 내용 조회. 파일은 정렬 필드 + _id 키셋으로 페이지를 나누고, 하위 폴더는 첫 페이지에만 포함한다.
+     *
+     * @param sort      name(기본) | size | modifiedAt
+     * @param direction asc(기본) | desc
+     * @param cursor    이전 페이지의 nextCursor (첫 페이지는 null)
+     */
+    public FolderContentsDto getFolderContents(String userId, String paraBucket, String paraFolder,
+                                               String sort, String direction, Integer limit, String cursor) {
+        log.info("=== Getting folder contents from folder nodes ===");
+        log.info("User: {}, Bucket: {}, Folder: '{}', sort={} {}, cursor={}", userId, paraBucket, paraFolder, sort, direction, cursor);
 
-                    return FolderContentsDto.FolderItemDto.builder()
-                            .folderName(name)
-                            .fullPath(fullPath)
-                            .fileCount(stats.fileCount)
-                            .subfolderCount(stats.subfolderCount)
-                            .lastModified(stats.lastModified)
-                            .commonKeywords(stats.keywords.stream().limit(5).collect(Collectors.toList()))
-                            .build();
-                })
-                .sorted(Comparator.comparing(FolderContentsDto.FolderItemDto::getFolderName))
+        ObjectId userObjectId = new ObjectId(userId);
+        String normalizedParent = FolderPaths.normalize(paraFolder, paraBucket);
+        FileSort fileSort = FileSort.from(sort);
+        Sort.Direction sortDirection = parseDirection(direction);
+        PageCursor pageCursor = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor, fileSort, sortDirection);
+        int pageSize = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+
+        // 하위 폴더와 통계는 폴더 노드에서 바로 읽는다 (하위 노드 수만큼만 조회)
+        // 트리가 아직 없는 버킷은 노드가 만들어지는 동안 MongoDB 집계로 하위 폴더 요약만 받아온다
+        List<FolderContentsDto.FolderItemDto> subfolders = pageCursor != null
+                ? null
+                : folderNodeService.findChildrenOrBuildAsync(userObjectId, paraBucket, normalizedParent)
+                        .map(nodes -> nodes.stream()
+                                .map(node -> FolderContentsDto.FolderItemDto.builder()
+                                        .folderName(FolderPaths.nameOf(node.getPath()))
+                                        .fullPath(node.getPath())
+                                        .fileCount((int) node.getFileCount())
+                                        .subfolderCount((int) node.getChildCount())
+                                        .lastModified(node.getLastModified())
+                                        .commonKeywords(FolderNodeService.topKeywords(node, COMMON_KEYWORD_LIMIT))
+                                        .build())
+                                .collect(Collectors.toList()))
+                        .orElseGet(() -> summarizeSubfolders(userObjectId, paraBucket, normalizedParent));
+
+        // 루트 레벨에는 직접 파일이 없으며, 그 외에는 해당 폴더에 바로 속한 파일만 조회
+        List<OrganizedFileDocument> documents = normalizedParent.isEmpty()
+                ? new ArrayList<>()
+                : findDirectFiles(userObjectId, paraBucket, normalizedParent, fileSort, sortDirection, pageCursor, pageSize + 1);
+        boolean hasMore = documents.size() > pageSize;
+        List<OrganizedFileDocument> page = hasMore ? documents.subList(0, pageSize) : documents;
+        List<FolderContentsDto.FileItemDto> files = page.stream()
+                .map(this::convertToFileItemDto)
                 .collect(Collectors.toList());
 
-        log.info("Final result: {} files, {} subfolders in {}/{}", 
-                files.size(), subfolders.size(), paraBucket, paraFolder);
+        // 전체 개수는 문서를 세지 않고 폴더 노드 통계에서 읽는다 (트리가 만들어지기 전에는 현재 페이지 기준)
+        Optional<FolderNodeDocument> node = normalizedParent.isEmpty()
+                ? Optional.empty()
+                : folderNodeService.findNode(userObjectId, paraBucket, normalizedParent);
+        int totalFiles = node.map(found -> (int) found.getDirectFileCount()).orElse(files.size());
+        int totalSubfolders = subfolders != null
+                ? subfolders.size()
+                : node.map(found -> (int) found.getChildCount()).orElse(0);
+
+        log.info("Final result: {} files (total {}), {} subfolders in {}/{}",
+                files.size(), totalFiles, totalSubfolders, paraBucket, paraFolder);
 
         return FolderContentsDto.builder()
                 .folderPath(paraBucket + "/" + normalizedParent)
                 .paraBucket(paraBucket)
                 .paraFolder(normalizedParent)
-                .totalFiles(files.size())
-                .totalSubfolders(subfolders.size())
+                .totalFiles(totalFiles)
+                .totalSubfolders(totalSubfolders)
                 .files(files)
                 .subfolders(subfolders)
+                .nextCursor(hasMore ? encodeCursor(fileSort, sortDirection, page.get(page.size() - 1)) : null)
                 .build();
     }
 
-    private static class FolderStats {
-        int fileCount = 0;
-        int subfolderCount = 0;
-        String lastModified = null;
-        Set<String> keywords = new HashSet<>();
-    }
+    /**
+     * 하위 트리 문서를 JVM으로 가져오지 않고, 다음 경로 세그먼트로 $group 해 하위 폴더별 요약만 받는다.
+     * 파일 수, 바로 아래 폴더 수, 최근 수정일은 한 번의 그룹으로, 키워드 빈도 상위 목록은 $facet의 별도 분기로 계산한다.
+     */
+    private List<FolderContentsDto.FolderItemDto> summarizeSubfolders(ObjectId userId, String paraBucket, String normalizedParent) {
+        // 부모 자신은 제외하고 하위 폴더 문서만 (루트면 folderPath가 비어 있지 않은 모든 문서)
+        Document folderRange = normalizedParent.isEmpty()
+                ? new Document("$gt", "")
+                : new Document("$gte", normalizedParent + "/").append("$lt", normalizedParent + "0");
+        int offset = normalizedParent.isEmpty() ? 0 : normalizedParent.codePointCount(0, normalizedParent.length()) + 1;
 
-    private boolean isDirectFile(String itemParaFolder, String parentFolder) {
-        if (parentFolder == null || parentFolder.trim().isEmpty()) {
-            // 루트 레벨에서는 직접 파일이 없어야 함
-            return false;
-        }
-        return itemParaFolder.equals(parentFolder);
-    }
+        Document segments = new Document("$split", List.of(
+                new Document("$substrCP", List.of("$" + FolderPaths.FIELD, offset,
+                        new Document("$strLenCP", "$" + FolderPaths.FIELD))),
+                "/"));
 
-    private boolean isDirectSubfolder(String subfolderPath, String parentFolder) {
-        if (parentFolder == null || parentFolder.trim().isEmpty()) {
-            return !subfolderPath.contains("/");
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("userId", userId)
+                        .append("paraBucket", new Document("$in", OrganizedFileService.bucketVariants(paraBucket)))
+                        .append(FolderPaths.FIELD, folderRange)),
+                new Document("$project", new Document("directory", 1)
+                        .append("modifiedAt", 1)
+                        .append("keywords", 1)
+                        .append("segments", segments)),
+                new Document("$facet", new Document("stats", List.of(
+                        new Document("$group", new Document("_id", new Document("$arrayElemAt", List.of("$segments", 0)))
+                                .append("fileCount", new Document("$sum", new Document("$cond", List.of("$directory", 0, 1))))
+                                .append("children", new Document("$addToSet", new Document("$arrayElemAt", List.of("$segments", 1))))
+                                .append("lastModified", new Document("$max",
+                                        new Document("$cond", Arrays.asList("$directory", null, "$modifiedAt")))))))
+                        .append("keywords", List.of(
+                                new Document("$match", new Document("directory", false)),
+                                new Document("$unwind", "$keywords"),
+                                new Document("$group", new Document("_id", new Document("folder",
+                                        new Document("$arrayElemAt", List.of("$segments", 0))).append("keyword", "$keywords"))
+                                        .append("count", new Document("$sum", 1))),
+                                new Document("$sort", new Document("count", -1).append("_id.keyword", 1)),
+                                new Document("$group", new Document("_id", "$_id.folder")
+                                        .append("keywords", new Document("$push", "$_id.keyword"))),
+                                new Document("$project", new Document("keywords",
+                                        new Document("$slice", List.of("$keywords", COMMON_KEYWORD_LIMIT)))))))
+        );
+
+        Document result = mongoTemplate.getCollection(mongoTemplate.getCollectionName(OrganizedFileDocument.class))
+                .aggregate(pipeline)
+                .first();
+        if (result == null) {
+            return new ArrayList<>();
         }
 
-        if (!subfolderPath.startsWith(parentFolder + "/")) {
-            return false;
+        Map<String, List<String>> keywordsByFolder = new HashMap<>();
+        for (Document keywords : result.getList("keywords", Document.class)) {
+            keywordsByFolder.put(keywords.getString("_id"), keywords.getList("keywords", String.class));
         }
 
-        String relativePath = subfolderPath.substring(parentFolder.length() + 1);
-        return !relativePath.contains("/");
+        return result.getList("stats", Document.class).stream()
+                .filter(stats -> stats.getString("_id") != null)
+                .map(stats -> {
+                    String name = stats.getString("_id");
+                    return FolderContentsDto.FolderItemDto.builder()
+                            .folderName(name)
+                            .fullPath(normalizedParent.isEmpty() ? name : normalizedParent + "/" + name)
+                            .fileCount(stats.get("fileCount", Number.class).intValue())
+                            .subfolderCount(stats.getList("children", Object.class).size())
+                            .lastModified(stats.getString("lastModified"))
+                            .commonKeywords(keywordsByFolder.getOrDefault(name, Collections.emptyList()))
+                            .build();
+                })
+                .sorted(Comparator.comparing(FolderContentsDto.FolderItemDto::getFolderName))
+                .collect(Collectors.toList());
     }
 
-    private String extractSubfolderName(String subfolderPath, String parentFolder) {
-        if (parentFolder == null || parentFolder.trim().isEmpty()) {
-            int slashIndex = subfolderPath.indexOf("/");
-            return slashIndex > 0 ? subfolderPath.substring(0, slashIndex) : subfolderPath;
+    /**
+     * 폴더에 바로 속한 파일 한 페이지. folderPath 등치 + 정렬 필드 범위 조건이라
+     * idx_user_bucket_folder_path_{name,size,modified} 인덱스 순서대로 필요한 만큼만 읽는다.
+     * 버킷 대소문자 변형은 몇 개뿐인 $in 값이므로 변형별 인덱스 범위를 정렬 순서대로 병합(SORT_MERGE)해 읽는다.
+     */
+    private List<OrganizedFileDocument> findDirectFiles(ObjectId userId, String paraBucket, String normalizedFolder,
+                                                        FileSort fileSort, Sort.Direction direction,
+                                                        PageCursor cursor, int limit) {
+        Criteria criteria = Criteria.where("userId").is(userId)
+                .and("paraBucket").in(OrganizedFileService.bucketVariants(paraBucket))
+                .and(FolderPaths.FIELD).is(normalizedFolder)
+                .and("directory").is(false);
+        if (cursor != null) {
+            criteria = criteria.andOperator(keysetCriteria(fileSort.field, direction, cursor));
         }
 
-        if (subfolderPath.startsWith(parentFolder + "/")) {
-            String relativePath = subfolderPath.substring(parentFolder.length() + 1);
-            int slashIndex = relativePath.indexOf("/");
-            return slashIndex > 0 ? relativePath.substring(0, slashIndex) : relativePath;
-        }
-        return subfolderPath;
+        Query query = Query.query(criteria)
+                .with(Sort.by(direction, fileSort.field, "_id"))
+                .limit(limit);
+        query.fields().include("koreanFileName", "englishFileName", "originalRelativePath", "sizeBytes",
+                "modifiedAt", "keywords", "reason", "development");
+        return mongoTemplate.find(query, OrganizedFileDocument.class);
     }
 
-    private String normalizeFolderPath(String path, String paraBucket) {
-        if (path == null || path.trim().isEmpty()) {
-            return "";
-        }
+    /**
+     * (정렬 필드, _id) 순서에서 커서 다음 위치 조건. MongoDB 정렬에서 null(필드 없음)은 가장 작은 값이다.
+     */
+    private Criteria keysetCriteria(String field, Sort.Direction direction, PageCursor cursor) {
+        boolean ascending = direction.isAscending();
+        Criteria sameValueAfterId = ascending
+                ? Criteria.where(field).is(cursor.value()).and("_id").gt(cursor.id())
+                : Criteria.where(field).is(cursor.value()).and("_id").lt(cursor.id());
 
-        String[] rawSegments = path.trim().replace("\\", "/").split("/");
-        List<String> segments = new ArrayList<>();
-        for (String segment : rawSegments) {
-            if (segment != null && !segment.trim().isEmpty()) {
-                segments.add(segment.trim().toLowerCase(Locale.ROOT));
-            }
+        if (cursor.value() == null) {
+            return ascending
+                    ? new Criteria().orOperator(sameValueAfterId, Criteria.where(field).ne(null))
+                    : sameValueAfterId;
         }
+        return ascending
+                ? new Criteria().orOperator(Criteria.where(field).gt(cursor.value()), sameValueAfterId)
+                : new Criteria().orOperator(Criteria.where(field).lt(cursor.value()), sameValueAfterId,
+                        Criteria.where(field).is(null));
+    }
 
-        if (segments.isEmpty()) {
-            return "";
+    private Sort.Direction parseDirection(String direction) {
+        if (direction == null || direction.isBlank()) {
+            return Sort.Direction.ASC;
         }
+        return Sort.Direction.fromOptionalString(direction.trim())
+                .orElseThrow(() -> new IllegalArgumentException("direction must be asc or desc"));
+    }
 
-        if (paraBucket != null && !paraBucket.trim().isEmpty()) {
-            String bucketLower = paraBucket.trim().toLowerCase(Locale.ROOT);
-            if (!segments.isEmpty() && segments.get(0).equals(bucketLower)) {
-                segments.remove(0);
+    private String encodeCursor(FileSort fileSort, Sort.Direction direction, OrganizedFileDocument last) {
+        Object value = fileSort.valueOf(last);
+        String encodedValue = value == null ? "" : (value instanceof Long ? "n:" : "s:") + value;
+        String raw = fileSort.name() + "|" + direction.name() + "|" + last.getId().toHexString() + "|" + encodedValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private PageCursor decodeCursor(String cursor, FileSort fileSort, Sort.Direction direction) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || !parts[0].equals(fileSort.name()) || !parts[1].equals(direction.name())) {
+                throw new IllegalArgumentException("cursor가 현재 정렬 조건과 맞지 않습니다.");
+            }
+            Object value;
+            if (parts[3].isEmpty()) {
+                value = null;
+            } else if (parts[3].startsWith("n:")) {
+                value = Long.parseLong(parts[3].substring(2));
+            } else {
+                value = parts[3].substring(2);
             }
+            return new PageCursor(new ObjectId(parts[2]), value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("cursor 형식이 올바르지 않습니다.", e);
         }
+    }
 
-        return String.join("/", segments);
+    private record PageCursor(ObjectId id, Object value) {
     }
 
-    private String buildFolderPattern(String normalizedFolder, String bucketLower) {
-        String escapedNormalized = Pattern.quote(normalizedFolder);
+    private enum FileSort {
+        NAME("koreanFileName"),
+        SIZE("sizeBytes"),
+        MODIFIED_AT("modifiedAt");
+
+        private final String field;
 
-        if (bucketLower == null || bucketLower.isEmpty()) {
-            return "^" + escapedNormalized + "(?:$|/.*)";
+        FileSort(String field) {
+            this.field = field;
         }
 
-        String escapedPrefixed = Pattern.quote(bucketLower + "/" + normalizedFolder);
-        return "^(?:" + escapedNormalized + "|" + escapedPrefixed + ")(?:$|/.*)";
+        static FileSort from(String value) {
+            if (value == null || value.isBlank() || value.equalsIgnoreCase("name")) {
+                return NAME;
+            }
+            if (value.equalsIgnoreCase("size")) {
+                return SIZE;
+            }
+            if (value.equalsIgnoreCase("modifiedAt")) {
+                return MODIFIED_AT;
+            }
+            throw new IllegalArgumentException("sort must be one of name, size, modifiedAt");
+        }
+
+        Object valueOf(OrganizedFileDocument document) {
+            return switch (this) {
+                case NAME -> document.getKoreanFileName();
+                case SIZE -> document.getSizeBytes();
+                case MODIFIED_AT -> document.getModifiedAt();
+            };
+        }
     }
 
     private FolderContentsDto.FileItemDto convertToFileItemDto(OrganizedFileDocument file) {
@@ -0,0 +1,170 @@
+package com.filenori.nebula.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 폴더 통합 후보 생성기
+ * 폴더별 센트로이드 임베딩의 코사인 유사도와 키워드 MinHash 서명으로 추정한 Jaccard 유사도 중 하나라도 임계값을 넘는 쌍을 잇고,
+ * union-find로 연결 요소를 묶어 통합 후보 그룹을 만든다. 어느 폴더와도 이어지지 않은 폴더는 후보에서 제외되므로
+ * LLM에 보내는 폴더 수가 전체 폴더 수가 아니라 후보 수에 비례한다.
+ */
+public class FolderCandidateClusterer {
+
+    private static final int MIN_HASH_SIZE = 64;
+    private static final long[] MIN_HASH_SEEDS = buildSeeds(MIN_HASH_SIZE);
+
+    private final double centroidThreshold;
+    private final double keywordThreshold;
+
+    public FolderCandidateClusterer(double centroidThreshold, double keywordThreshold) {
+        this.centroidThreshold = centroidThreshold;
+        this.keywordThreshold = keywordThreshold;
+    }
+
+    /**
+     * @return 크기 2 이상의 후보 그룹 목록 (그룹이 큰 순서). 각 그룹은 입력 순서를 유지한 폴더명 목록
+     */
+    public List<List<String>> cluster(List<FolderFeatures> folders) {
+        int size = folders.size();
+        double[][] centroids = new double[size][];
+        int[][] signatures = new int[size][];
+        for (int i = 0; i < size; i++) {
+            centroids[i] = normalizedVector(folders.get(i).centroid());
+            signatures[i] = minHash(folders.get(i).tokens());
+        }
+
+        int[] parent = new int[size];
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+        }
+
+        // 서명/센트로이드가 고정 크기이므로 쌍 비교 비용은 키워드 수와 무관하다
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                if (find(parent, i) == find(parent, j)) {
+                    continue;
+                }
+                if (isSimilar(centroids[i], centroids[j], signatures[i], signatures[j])) {
+                    union(parent, i, j);
+                }
+            }
+        }
+
+        Map<Integer, List<String>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            groups.computeIfAbsent(find(parent, i), root -> new ArrayList<>()).add(folders.get(i).folderName());
+        }
+
+        return groups.values().stream()
+                .filter(group -> group.size() >= 2)
+                .sorted(Comparator.comparingInt((List<String> group) -> group.size()).reversed())
+                .toList();
+    }
+
+    private boolean isSimilar(double[] leftCentroid, double[] rightCentroid, int[] leftSignature, int[] rightSignature) {
+        if (leftCentroid != null && rightCentroid != null && leftCentroid.length == rightCentroid.length
+                && dot(leftCentroid, rightCentroid) >= centroidThreshold) {
+            return true;
+        }
+        return leftSignature != null && rightSignature != null
+                && estimateJaccard(leftSignature, rightSignature) >= keywordThreshold;
+    }
+
+    static double estimateJaccard(int[] left, int[] right) {
+        int matches = 0;
+        for (int i = 0; i < left.length; i++) {
+            if (left[i] == right[i]) {
+                matches++;
+            }
+        }
+        return (double) matches / left.length;
+    }
+
+    static int[] minHash(Set<String> tokens) {
+        if (tokens == null || tokens.isEmpty()) {
+            return null;
+        }
+        int[] signature = new int[MIN_HASH_SIZE];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (String token : tokens) {
+            long base = token.hashCode();
+            for (int i = 0; i < MIN_HASH_SIZE; i++) {
+                int hash = (int) (mix(base ^ MIN_HASH_SEEDS[i]) >>> 33);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static double[] normalizedVector(List<Double> vector) {
+        if (vector == null || vector.isEmpty()) {
+            return null;
+        }
+        double[] values = new double[vector.size()];
+        double norm = 0;
+        for (int i = 0; i < values.length; i++) {
+            values[i] = vector.get(i);
+            norm += values[i] * values[i];
+        }
+        if (norm == 0) {
+            return null;
+        }
+        norm = Math.sqrt(norm);
+        for (int i = 0; i < values.length; i++) {
+            values[i] /= norm;
+        }
+        return values;
+    }
+
+    private static double dot(double[] left, double[] right) {
+        double sum = 0;
+        for (int i = 0; i < left.length; i++) {
+            sum += left[i] * right[i];
+        }
+        return sum;
+    }
+
+    private static int find(int[] parent, int index) {
+        while (parent[index] != index) {
+            parent[index] = parent[parent[index]];
+            index = parent[index];
+        }
+        return index;
+    }
+
+    private static void union(int[] parent, int left, int right) {
+        parent[find(parent, left)] = find(parent, right);
+    }
+
+    // splitmix64 finalizer
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    private static long[] buildSeeds(int count) {
+        long[] seeds = new long[count];
+        long seed = 0x9e3779b97f4a7c15L;
+        for (int i = 0; i < count; i++) {
+            seed = mix(seed + 0x9e3779b97f4a7c15L);
+            seeds[i] = seed;
+        }
+        return seeds;
+    }
+
+    /**
+     * @param centroid 폴더 센트로이드 임베딩 (없으면 null)
+     * @param tokens   폴더명 토큰과 주요 키워드 (정규화된 소문자)
+     */
+    public record FolderFeatures(String folderName, List<Double> centroid, Set<String> tokens) {
+    }
+}
@@ -0,0 +1,287 @@
+package com.filenori.nebula.service;
+
+import com.filenori.nebula.entity.FolderCentroidDocument;
+import com.filenori.nebula.entity.OrganizedFileDocument;
+import com.filenori.nebula.event.FolderMovedEvent;
+import com.filenori.nebula.event.OrganizedFileChangedEvent;
+import com.filenori.nebula.event.OrganizedFileChangedEvent.FileChange;
+import com.filenori.nebula.repository.FolderCentroidRepository;
+import com.filenori.nebula.repository.OrganizedFileRepository;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * 폴더 센트로이드(folder_centroids) 관리
+ * organized_files 변경 이벤트를 받아 멤버 임베딩 합계/개수를 증분 갱신한다.
+ * paraBucket은 정규화된 값(OrganizedFileService.canonicalizeBucket)으로 저장하므로 대소문자만 다른 버킷의 파일도 한 센트로이드에 모인다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FolderCentroidService {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final FolderCentroidRepository folderCentroidRepository;
+    private final OrganizedFileRepository organizedFileRepository;
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener
+    @Order(OrganizedFileChangedEvent.DERIVED_DATA_LISTENER_ORDER)
+    public void onOrganizedFilesChanged(OrganizedFileChangedEvent event) {
+        Map<FolderKey, CentroidDelta> deltas = new HashMap<>();
+        for (FileChange change : event.changes()) {
+            if (hasSameContribution(change.before(), change.after())) {
+                continue;
+            }
+            accumulate(deltas, change.before(), -1);
+            accumulate(deltas, change.after(), 1);
+        }
+
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            applyDeltas(event.userId(), deltas);
+        } catch (Exception e) {
+            // 원본 쓰기는 이미 완료됨. 센트로이드는 rebuildCentroids로 복구 가능
+            log.error("Failed to update folder centroids for user {}", event.userId(), e);
+        }
+    }
+
+    /**
+     * 폴더 이동/병합 시 소스 폴더의 합계/개수를 타겟 폴더에 더하고 소스 센트로이드는 제거한다.
+     */
+    @EventListener
+    @Order(OrganizedFileChangedEvent.DERIVED_DATA_LISTENER_ORDER)
+    public void onFolderMoved(FolderMovedEvent event) {
+        try {
+            mergeCentroid(event.userId(), event.paraBucket(), event.sourceFolder(), event.targetFolder());
+        } catch (Exception e) {
+            log.error("Failed to merge folder centroid {}/{} -> {} for user {}",
+                    event.paraBucket(), event.sourceFolder(), event.targetFolder(), event.userId(), e);
+        }
+    }
+
+    /**
+     * 사용자의 모든 폴더 센트로이드를 멤버 임베딩으로부터 다시 계산한다. (기존 데이터 백필용)
+     * 정규화 이전 버킷 이름으로 저장된 센트로이드도 지우고 정규화된 버킷으로 다시 만든다.
+     *
+     * @return 생성된 센트로이드 수
+     */
+    public int rebuildCentroids(ObjectId userId) {
+        Query query = Query.query(Criteria.where("userId").is(userId));
+        query.fields().include("paraBucket", "paraFolder");
+
+        // 임베딩은 file_embeddings에 있으므로 REBUILD_BATCH_SIZE 단위로 묶어 조회한다
+        Map<FolderKey, CentroidDelta> sums = new HashMap<>();
+        try (Stream<OrganizedFileDocument> documents = mongoTemplate.stream(query, OrganizedFileDocument.class)) {
+            Iterator<OrganizedFileDocument> iterator = documents.iterator();
+            List<OrganizedFileDocument> batch = new ArrayList<>(REBUILD_BATCH_SIZE);
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() >= REBUILD_BATCH_SIZE || !iterator.hasNext()) {
+                    organizedFileRepository.attachEmbeddings(batch)
+                            .forEach(document -> accumulate(sums, document, 1));
+                    batch = new ArrayList<>(REBUILD_BATCH_SIZE);
+                }
+            }
+        }
+
+        Instant now = Instant.now();
+        List<FolderCentroidDocument> centroids = sums.entrySet().stream()
+                .filter(entry -> entry.getValue().count > 0)
+                .map(entry -> toDocument(null, userId, entry.getKey(), entry.getValue().sum, entry.getValue().count, now))
+                .toList();
+
+        folderCentroidRepository.deleteByUserId(userId);
+        folderCentroidRepository.saveAll(centroids);
+        log.info("Rebuilt {} folder centroids for user {}", centroids.size(), userId);
+        return centroids.size();
+    }
+
+    /**
+     * 정규화 이전 버킷 이름으로 남아 있는 소스 센트로이드도 함께 옮기도록 버킷 변형 전체에서 찾는다.
+     */
+    private void mergeCentroid(ObjectId userId, String paraBucket, String sourceFolder, String targetFolder) {
+        Query sourceQuery = Query.query(Criteria.where("userId").is(userId)
+                .and("paraBucket").in(OrganizedFileService.bucketVariants(paraBucket))
+                .and("paraFolder").is(sourceFolder));
+
+        CentroidDelta delta = new CentroidDelta();
+        // 읽기와 삭제를 한 번에 해서, 그 사이 소스 폴더에 반영된 증분이 사라지지 않게 한다
+        FolderCentroidDocument source;
+        while ((source = mongoTemplate.findAndRemove(sourceQuery, FolderCentroidDocument.class)) != null) {
+            if (source.getEmbeddingSum() == null) {
+                continue;
+            }
+            if (delta.sum == null) {
+                delta.sum = new double[source.getEmbeddingSum().size()];
+            } else if (delta.sum.length != source.getEmbeddingSum().size()) {
+                log.warn("Skipping source centroid with mismatched dimension. expected={}, actual={}",
+                        delta.sum.length, source.getEmbeddingSum().size());
+                continue;
+            }
+            for (int i = 0; i < delta.sum.length; i++) {
+                delta.sum[i] += source.getEmbeddingSum().get(i);
+            }
+            delta.count += source.getMemberCount();
+        }
+        if (delta.sum == null) {
+            return;
+        }
+        applyDeltas(userId, Map.of(new FolderKey(paraBucket, targetFolder), delta));
+    }
+
+    private boolean hasSameContribution(OrganizedFileDocument before, OrganizedFileDocument after) {
+        return before != null && after != null
+                && Objects.equals(OrganizedFileService.canonicalizeBucket(before.getParaBucket()),
+                        OrganizedFileService.canonicalizeBucket(after.getParaBucket()))
+                && Objects.equals(before.getParaFolder(), after.getParaFolder())
+                && Objects.equals(before.getEmbedding(), after.getEmbedding());
+    }
+
+    private void accumulate(Map<FolderKey, CentroidDelta> deltas, OrganizedFileDocument document, int sign) {
+        if (document == null
+                || isBlank(document.getParaBucket())
+                || isBlank(document.getParaFolder())
+                || document.getEmbedding() == null
+                || document.getEmbedding().isEmpty()) {
+            return;
+        }
+
+        FolderKey key = new FolderKey(document.getParaBucket(), document.getParaFolder());
+        deltas.computeIfAbsent(key, k -> new CentroidDelta()).add(document.getEmbedding(), sign);
+    }
+
+    /**
+     * 폴더마다 한 번의 파이프라인 update(upsert)로 memberCount와 embeddingSum을 서버에서 더한다.
+     * 읽고-더하고-저장하는 방식과 달리 같은 폴더를 동시에 갱신해도 서로의 증분을 덮어쓰지 않는다.
+     * 차원이 바뀐 기존 합계는 이번 증분으로 초기화하며, 멤버가 0 이하가 된 센트로이드는 이어서 삭제한다.
+     */
+    private void applyDeltas(ObjectId userId, Map<FolderKey, CentroidDelta> deltas) {
+        Date now = new Date();
+        List<UpdateOneModel<Document>> updates = new ArrayList<>(deltas.size());
+        List<Document> touched = new ArrayList<>(deltas.size());
+        for (Map.Entry<FolderKey, CentroidDelta> entry : deltas.entrySet()) {
+            CentroidDelta delta = entry.getValue();
+            if (delta.sum == null || (delta.count == 0 && Arrays.stream(delta.sum).allMatch(value -> value == 0))) {
+                continue;
+            }
+            Document filter = new Document("userId", userId)
+                    .append("paraBucket", entry.getKey().paraBucket())
+                    .append("paraFolder", entry.getKey().paraFolder());
+            touched.add(filter);
+            updates.add(new UpdateOneModel<>(filter, incrementPipeline(delta, now), new UpdateOptions().upsert(true)));
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        MongoCollection<Document> collection = mongoTemplate.getCollection(
+                mongoTemplate.getCollectionName(FolderCentroidDocument.class));
+        collection.bulkWrite(updates, new BulkWriteOptions().ordered(false));
+        long removed = collection.deleteMany(new Document("$or", touched)
+                .append("memberCount", new Document("$lte", 0))).getDeletedCount();
+        log.debug("Updated {} folder centroids, removed {} for user {}", updates.size(), removed, userId);
+    }
+
+    private static List<Document> incrementPipeline(CentroidDelta delta, Date now) {
+        List<Double> deltaSum = Arrays.stream(delta.sum).boxed().toList();
+        Document currentSum = new Document("$ifNull", List.of("$embeddingSum", List.of()));
+        Document sameDimension = new Document("$eq", List.of(new Document("$size", currentSum), deltaSum.size()));
+        Document addedSum = new Document("$map", new Document("input",
+                new Document("$zip", new Document("inputs", List.of("$embeddingSum", new Document("$literal", deltaSum)))))
+                .append("in", new Document("$add", List.of(
+                        new Document("$arrayElemAt", List.of("$$this", 0)),
+                        new Document("$arrayElemAt", List.of("$$this", 1))))));
+
+        Document accumulate = new Document("$set", new Document("memberCount", new Document("$cond", List.of(sameDimension,
+                        new Document("$add", List.of(new Document("$ifNull", List.of("$memberCount", 0L)), delta.count)),
+                        delta.count)))
+                .append("embeddingSum", new Document("$cond", List.of(sameDimension,
+                        addedSum,
+                        new Document("$literal", deltaSum))))
+                .append("updatedAt", now));
+        // 두 번째 단계는 갱신된 합계/개수로 평균을 다시 계산한다
+        Document centroid = new Document("$set", new Document("embedding", new Document("$cond", List.of(
+                new Document("$gt", List.of("$memberCount", 0)),
+                new Document("$map", new Document("input", "$embeddingSum")
+                        .append("in", new Document("$divide", List.of("$$this", "$memberCount")))),
+                List.of()))));
+        return List.of(accumulate, centroid);
+    }
+
+    private FolderCentroidDocument toDocument(ObjectId id, ObjectId userId, FolderKey key,
+                                              double[] sum, long count, Instant now) {
+        List<Double> embeddingSum = new ArrayList<>(sum.length);
+        List<Double> centroid = new ArrayList<>(sum.length);
+        for (double value : sum) {
+            embeddingSum.add(value);
+            centroid.add(value / count);
+        }
+
+        return FolderCentroidDocument.builder()
+                .id(id)
+                .userId(userId)
+                .paraBucket(key.paraBucket())
+                .paraFolder(key.paraFolder())
+                .embeddingSum(embeddingSum)
+                .embedding(centroid)
+                .memberCount(count)
+                .updatedAt(now)
+                .build();
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private record FolderKey(String paraBucket, String paraFolder) {
+        FolderKey {
+            paraBucket = OrganizedFileService.canonicalizeBucket(paraBucket);
+        }
+    }
+
+    private static class CentroidDelta {
+        double[] sum;
+        long count = 0;
+
+        void add(List<Double> embedding, int sign) {
+            if (sum == null) {
+                sum = new double[embedding.size()];
+            } else if (sum.length != embedding.size()) {
+                log.warn("Skipping embedding with mismatched dimension. expected={}, actual={}", sum.length, embedding.size());
+                return;
+            }
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] += sign * embedding.get(i);
+            }
+            count += sign;
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package com.filenori.nebula.service;
+
+import com.filenori.nebula.dto.response.FolderMergePreviewDto;
+import com.filenori.nebula.entity.FolderMergeJournalDocument;
+import com.filenori.nebula.entity.FolderMergeJournalDocument.MovedFolder;
+import com.filenori.nebula.entity.OrganizedFileDocument;
+import com.filenori.nebula.event.FolderMovedEvent;
+import com.filenori.nebula.event.OrganizedFileChangedEvent;
+import com.filenori.nebula.repository.FolderMergeJournalRepository;
+import com.filenori.nebula.repository.OrganizedFileRepository;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * 폴더 통합 적용/되돌리기
+ * 소스 폴더마다 한 번의 updateMany로 옮기고, 옮긴 파일 ID를 folder_merge_journals에 남긴다.
+ * replica set/sharded 배포에서는 저널 기록과 이동을 하나의 트랜잭션으로 묶는다. standalone에서는 저널을 먼저 쓰고
+ * 저널에 기록된 ID만 옮기므로, 중간에 실패해도 되돌리기로 정확히 원래 상태를 복구할 수 있다.
+ * 버킷 이름은 통합/미리보기/되돌리기 모두 정규화된 이름으로 다루고, 대소문자가 다른 기존 문서도 함께 매칭한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FolderMergeService {
+
+    private static final int EVENT_CHUNK_SIZE = 1000;
+    private static final int PREVIEW_COLLISION_LIMIT = 20;
+    private static final int PREVIEW_COLLISION_PATH_LIMIT = 5;
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoClient mongoClient;
+    private final FolderMergeJournalRepository folderMergeJournalRepository;
+    private final OrganizedFileRepository organizedFileRepository;
+    private final ChangeSequenceService changeSequenceService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // 저널에 파일 ID로 기록할 최대 파일 수. 넘으면 ID 대신 소스 폴더별 변경 시퀀스로 되돌린다 (문서 16MB 제한)
+    @Value("${folderMerge.maxJournaledFileIds:100000}")
+    private int maxJournaledFileIds;
+
+    @Value("${folderMerge.journalRetentionDays:30}")
+    private int journalRetentionDays;
+
+    private volatile Boolean transactionsSupported;
+
+    /**
+     * 소스 폴더들을 타겟 폴더로 통합하고 저널을 남긴다.
+     * 트랜잭션은 파일 이동과 저널만 묶는다. 파생 데이터(센트로이드, 분석 캐시 버전, ETag)는 커밋 직후 FolderMovedEvent로
+     * 같은 스레드에서 갱신되고, 폴더 트리는 버킷 재집계가 필요해 백그라운드에서 갱신되므로 잠시 이동 전 상태로 보일 수 있다.
+     * 이벤트 처리 중 실패해도 이동은 되돌리지 않으며 각 파생 데이터의 rebuild API로 복구한다.
+     */
+    public FolderMergeJournalDocument merge(ObjectId userId, String requestedBucket, List<String> sourceFolders, String targetFolder) {
+        String paraBucket = OrganizedFileService.canonicalizeBucket(requestedBucket);
+        List<String> sources = mergeSources(sourceFolders, targetFolder);
+
+        // 시퀀스는 트랜잭션 밖에서 발급 (재시도 시 건너뛴 번호가 생기는 것은 무방)
+        List<Long> changeSeqs = sources.stream()
+                .map(source -> changeSequenceService.next(userId))
+                .toList();
+
+        boolean transactional = supportsTransactions();
+        FolderMergeJournalDocument journal;
+        try {
+            journal = inTransactionIfSupported(template ->
+                    applyMerge(template, userId, paraBucket, sources, changeSeqs, targetFolder, transactional));
+        } finally {
+            changeSeqs.forEach(changeSeq -> changeSequenceService.complete(userId, changeSeq));
+        }
+
+        for (MovedFolder moved : journal.getMovedFolders()) {
+            if (moved.getMovedCount() > 0) {
+                eventPublisher.publishEvent(new FolderMovedEvent(
+                        userId, paraBucket, moved.getSourceFolder(), targetFolder, moved.getMovedCount()));
+            }
+            log.info("Moved {} files from folder '{}' to '{}'", moved.getMovedCount(), moved.getSourceFolder(), targetFolder);
+        }
+        return journal;
+    }
+
+    /**
+     * 통합 미리보기 (dry-run). 소스/타겟 폴더 문서를 한 번의 $facet 집계로 요약하며 문서를 JVM으로 가져오지 않는다.
+     * 파일명 충돌은 originalRelativePath의 마지막 경로 세그먼트를 대소문자 구분 없이 비교하고, 옮겨지는 파일이 포함되면서
+     * 서로 다른 폴더(소스끼리 또는 소스와 타겟)에 걸친 경우만 센다. 한 소스 폴더 안의 같은 이름은 이미 공존하던 것이므로 제외한다.
+     */
+    public FolderMergePreviewDto preview(ObjectId userId, String requestedBucket, List<String> sourceFolders, String targetFolder) {
+        if (targetFolder == null || targetFolder.isBlank()) {
+            throw new IllegalArgumentException("통합할 폴더 이름이 필요합니다.");
+        }
+        String paraBucket = OrganizedFileService.canonicalizeBucket(requestedBucket);
+        List<String> sources = mergeSources(sourceFolders, targetFolder);
+        List<String> folders = new ArrayList<>(sources);
+        folders.add(targetFolder);
+
+        Document fileName = new Document("$toLower", new Document("$arrayElemAt", List.of(
+                new Document("$split", List.of(new Document("$ifNull", List.of("$originalRelativePath", "")), "/")), -1)));
+
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("userId", userId)
+                        .append("paraBucket", new Document("$in", OrganizedFileService.bucketVariants(paraBucket)))
+                        .append("paraFolder", new Document("$in", folders))),
+                new Document("$project", new Document("_id", 0)
+                        .append("paraFolder", 1)
+                        .append("directory", 1)
+                        .append("sizeBytes", 1)
+                        .append("originalRelativePath", 1)
+                        .append("moving", new Document("$ne", List.of("$paraFolder", targetFolder)))
+                        .append("fileName", fileName)),
+                new Document("$facet", new Document("totals", List.of(
+                        new Document("$group", new Document("_id", "$moving")
+                                .append("count", new Document("$sum", 1))
+                                .append("files", new Document("$sum", new Document("$cond", List.of("$directory", 0, 1))))
+                                .append("bytes", new Document("$sum", "$sizeBytes")))))
+                        .append("bySource", List.of(
+                                new Document("$match", new Document("moving", true)),
+                                new Document("$group", new Document("_id", "$paraFolder")
+                                        .append("count", new Document("$sum", 1)))))
+                        .append("collisions", List.of(
+                                new Document("$match", new Document("directory", false)),
+                                new Document("$group", new Document("_id", "$fileName")
+                                        .append("count", new Document("$sum", 1))
+                                        .append("moving", new Document("$max", "$moving"))
+                                        .append("folders", new Document("$addToSet", "$paraFolder"))
+                                        .append("paths", new Document("$firstN", new Document("input", "$originalRelativePath")
+                                                .append("n", PREVIEW_COLLISION_PATH_LIMIT)))),
+                                // 폴더가 둘 이상이면 count도 1보다 크다
+                                new Document("$match", new Document("folders.1", new Document("$exists", true)).append("moving", true)),
+                                new Document("$sort", new Document("count", -1).append("_id", 1)),
+                                new Document("$group", new Document("_id", null)
+                                        .append("total", new Document("$sum", 1))
+                                        .append("samples", new Document("$firstN", new Document("input",
+                                                new Document("fileName", "$_id").append("count", "$count").append("paths", "$paths"))
+                                                .append("n", PREVIEW_COLLISION_LIMIT)))))))
+        );
+
+        Document result = mongoTemplate.getCollection(mongoTemplate.getCollectionName(OrganizedFileDocument.class))
+                .aggregate(pipeline)
+                .first();
+
+        long movingCount = 0;
+        long movingFileCount = 0;
+        long movingBytes = 0;
+        long targetFileCount = 0;
+        long targetBytes = 0;
+        Map<String, Long> movingCountBySource = new LinkedHashMap<>();
+        sources.forEach(source -> movingCountBySource.put(source, 0L));
+        long collisionCount = 0;
+        List<FolderMergePreviewDto.NameCollisionDto> collisions = new ArrayList<>();
+
+        if (result != null) {
+            for (Document total : result.getList("totals", Document.class)) {
+                if (Boolean.TRUE.equals(total.getBoolean("_id"))) {
+                    movingCount = total.get("count", Number.class).longValue();
+                    movingFileCount = total.get("files", Number.class).longValue();
+                    movingBytes = total.get("bytes", Number.class).longValue();
+                } else {
+                    targetFileCount = total.get("files", Number.class).longValue();
+                    targetBytes = total.get("bytes", Number.class).longValue();
+                }
+            }
+            for (Document source : result.getList("bySource", Document.class)) {
+                movingCountBySource.put(source.getString("_id"), source.get("count", Number.class).longValue());
+            }
+            for (Document summary : result.getList("collisions", Document.class)) {
+                collisionCount = summary.get("total", Number.class).longValue();
+                for (Document sample : summary.getList("samples", Document.class)) {
+                    collisions.add(FolderMergePreviewDto.NameCollisionDto.builder()
+                            .fileName(sample.getString("fileName"))
+                            .count(sample.get("count", Number.class).longValue())
+                            .originalRelativePaths(sample.getList("paths", String.class))
+                            .build());
+                }
+            }
+        }
+
+        return FolderMergePreviewDto.builder()
+                .paraBucket(paraBucket)
+                .targetFolder(targetFolder)
+                .movingCount(movingCount)
+                .movingFileCount(movingFileCount)
+                .movingBytes(movingBytes)
+                .movingCountBySource(movingCountBySource)
+                .targetFileCount(targetFileCount)
+                .targetBytes(targetBytes)
+                .resultingFileCount(targetFileCount + movingFileCount)
+                .resultingBytes(targetBytes + movingBytes)
+                .collisionCount(collisionCount)
+                .collisions(collisions)
+                .build();
+    }
+
+    /**
+     * 통합 되돌리기. 저널의 모든 소스 폴더를 한 번의 bulkWrite로 복구한다.
+     * 통합 이후 다른 폴더로 옮겨진 파일은 건드리지 않는다.
+     *
+     * @param mergeId 되돌릴 통합 ID (null이면 해당 버킷의 가장 최근 통합)
+     * @return 복구된 파일 수
+     */
+    public long undo(ObjectId userId, String paraBucket, ObjectId mergeId) {
+        FolderMergeJournalDocument stored = (mergeId != null
+                ? folderMergeJournalRepository.findByIdAndUserId(mergeId, userId)
+                : folderMergeJournalRepository.findFirstByUserIdAndParaBucketInAndUndoneAtIsNullOrderByCreatedAtDesc(
+                        userId, OrganizedFileService.bucketVariants(paraBucket)))
+                .orElseThrow(() -> new IllegalArgumentException("되돌릴 폴더 통합 기록이 없습니다."));
+        if (stored.getUndoneAt() != null) {
+            throw new IllegalArgumentException("이미 되돌린 폴더 통합입니다: " + stored.getId());
+        }
+        // 정규화 이전에 기록된 저널도 같은 버킷 이름으로 되돌린다
+        FolderMergeJournalDocument journal = stored.toBuilder()
+                .paraBucket(OrganizedFileService.canonicalizeBucket(stored.getParaBucket()))
+                .build();
+
+        long changeSeq = changeSequenceService.next(userId);
+        long restored;
+        try {
+            restored = inTransactionIfSupported(template -> applyUndo(template, journal, changeSeq));
+        } finally {
+            changeSequenceService.complete(userId, changeSeq);
+        }
+
+        publishRestoredChanges(journal, changeSeq);
+        log.info("Undid folder merge {} for user {}: restored {} files", journal.getId(), userId, restored);
+        return restored;
+    }
+
+    private FolderMergeJournalDocument applyMerge(MongoTemplate template, ObjectId userId, String paraBucket,
+                                                  List<String> sources, List<Long> changeSeqs, String targetFolder,
+                                                  boolean transactional) {
+        // 1. 소스 폴더별 파일 ID 수집 후 저널 기록 (이동 전)
+        List<MovedFolder> movedFolders = new ArrayList<>(sources.size());
+        long journaledIds = 0;
+        for (int i = 0; i < sources.size(); i++) {
+            List<ObjectId> fileIds = findFileIds(template, userId, paraBucket, sources.get(i));
+            journaledIds += fileIds.size();
+            boolean keepIds = journaledIds <= maxJournaledFileIds;
+            movedFolders.add(new MovedFolder(sources.get(i), changeSeqs.get(i), 0L, keepIds ? fileIds : null));
+        }
+
+        Instant now = Instant.now();
+        FolderMergeJournalDocument journal = template.insert(FolderMergeJournalDocument.builder()
+                .userId(userId)
+                .paraBucket(paraBucket)
+                .targetFolder(targetFolder)
+                .movedFolders(movedFolders)
+                .transactional(transactional)
+                .createdAt(now)
+                .expiresAt(now.plus(Duration.ofDays(journalRetentionDays)))
+                .build());
+
+        // 2. 소스 폴더마다 한 번의 updateMany
+        List<MovedFolder> applied = new ArrayList<>(movedFolders.size());
+        long totalMoved = 0;
+        for (MovedFolder moved : movedFolders) {
+            Criteria criteria = folderCriteria(userId, paraBucket, moved.getSourceFolder());
+            if (moved.getFileIds() != null) {
+                criteria = criteria.and("_id").in(moved.getFileIds());
+            }
+            long movedCount = template.updateMulti(Query.query(criteria),
+                    moveUpdate(paraBucket, targetFolder, moved.getChangeSeq()),
+                    OrganizedFileDocument.class).getModifiedCount();
+            applied.add(new MovedFolder(moved.getSourceFolder(), moved.getChangeSeq(), movedCount, moved.getFileIds()));
+            totalMoved += movedCount;
+        }
+
+        template.updateFirst(Query.query(Criteria.where("_id").is(journal.getId())),
+                new Update().set("movedFolders", applied).set("movedCount", totalMoved),
+                FolderMergeJournalDocument.class);
+        return journal.toBuilder().movedFolders(applied).movedCount(totalMoved).build();
+    }
+
+    private long applyUndo(MongoTemplate template, FolderMergeJournalDocument journal, long changeSeq) {
+        // 동시에 두 번 되돌리지 않도록 undoneAt을 먼저 선점
+        FolderMergeJournalDocument claimed = template.findAndModify(
+                Query.query(Criteria.where("_id").is(journal.getId()).and("undoneAt").is(null)),
+                new Update().set("undoneAt", Instant.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                FolderMergeJournalDocument.class);
+        if (claimed == null) {
+            throw new IllegalArgumentException("이미 되돌린 폴더 통합입니다: " + journal.getId());
+        }
+
+        BulkOperations operations = template.bulkOps(BulkOperations.BulkMode.UNORDERED, OrganizedFileDocument.class);
+        int operationCount = 0;
+        // movedCount는 모든 이동이 끝난 뒤에 기록되므로 standalone에서 중간에 실패한 통합은 0으로 남아 있다.
+        // 파일 ID 또는 이 소스 전용 changeSeq로만 매칭하므로 실제로 옮겨지지 않은 소스를 대상으로 해도 바뀌는 문서가 없다.
+        for (MovedFolder moved : journal.getMovedFolders()) {
+            if (moved.getFileIds() != null && moved.getFileIds().isEmpty()) {
+                continue;
+            }
+            Criteria criteria = folderCriteria(journal.getUserId(), journal.getParaBucket(), journal.getTargetFolder());
+            criteria = moved.getFileIds() != null
+                    ? criteria.and("_id").in(moved.getFileIds())
+                    : criteria.and("changeSeq").is(moved.getChangeSeq());
+            operations.updateMulti(Query.query(criteria), moveUpdate(journal.getParaBucket(), moved.getSourceFolder(), changeSeq));
+            operationCount++;
+        }
+        return operationCount > 0 ? operations.execute().getModifiedCount() : 0L;
+    }
+
+    /**
+     * 되돌린 파일들은 새 changeSeq로 표시되어 있으므로 그 기준으로 청크 단위로 읽어 파생 데이터(센트로이드, 폴더 트리 등)를 갱신한다.
+     * 소스 폴더 일부만 되돌아가므로 FolderMovedEvent(폴더 전체 이동) 대신 파일 단위 변경 이벤트를 발행한다.
+     */
+    private void publishRestoredChanges(FolderMergeJournalDocument journal, long changeSeq) {
+        Query query = Query.query(Criteria.where("userId").is(journal.getUserId()).and("changeSeq").is(changeSeq));
+        query.fields().include("userId", "originalRelativePath", "paraBucket", "paraFolder", "paraFullPath", "folderPath",
+                "directory", "development", "sizeBytes", "modifiedAt", "keywords");
+
+        try (Stream<OrganizedFileDocument> documents = mongoTemplate.stream(query, OrganizedFileDocument.class)) {
+            Iterator<OrganizedFileDocument> iterator = documents.iterator();
+            List<OrganizedFileDocument> chunk = new ArrayList<>(EVENT_CHUNK_SIZE);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() >= EVENT_CHUNK_SIZE || !iterator.hasNext()) {
+                    List<OrganizedFileChangedEvent.FileChange> changes = organizedFileRepository.attachEmbeddings(chunk).stream()
+                            .map(restored -> new OrganizedFileChangedEvent.FileChange(
+                                    asMovedTo(restored, journal.getParaBucket(), journal.getTargetFolder()), restored))
+                            .toList();
+                    eventPublisher.publishEvent(new OrganizedFileChangedEvent(journal.getUserId(), changes));
+                    chunk = new ArrayList<>(EVENT_CHUNK_SIZE);
+                }
+            }
+        } catch (Exception e) {
+            // 원본 복구는 이미 커밋됨. 파생 데이터는 각 rebuild로 복구 가능
+            log.error("Failed to update derived data after undoing folder merge {}", journal.getId(), e);
+        }
+    }
+
+    private OrganizedFileDocument asMovedTo(OrganizedFileDocument document, String paraBucket, String folder) {
+        return document.toBuilder()
+                .paraFolder(folder)
+                .paraFullPath(paraBucket.toLowerCase() + "/" + folder.toLowerCase())
+                .folderPath(FolderPaths.normalize(folder, paraBucket))
+                .build();
+    }
+
+    private List<String> mergeSources(List<String> sourceFolders, String targetFolder) {
+        if (sourceFolders == null) {
+            return List.of();
+        }
+        return sourceFolders.stream()
+                .filter(Objects::nonNull)
+                .filter(source -> !source.equals(targetFolder))
+                .distinct()
+                .toList();
+    }
+
+    private List<ObjectId> findFileIds(MongoTemplate template, ObjectId userId, String paraBucket, String folder) {
+        Query query = Query.query(folderCriteria(userId, paraBucket, folder));
+        query.fields().include("_id");
+        return template.find(query, OrganizedFileDocument.class).stream()
+                .map(OrganizedFileDocument::getId)
+                .toList();
+    }
+
+    private Criteria folderCriteria(ObjectId userId, String paraBucket, String folder) {
+        return Criteria.where("userId").is(userId)
+                .and("paraBucket").in(OrganizedFileService.bucketVariants(paraBucket))
+                .and("paraFolder").is(folder);
+    }
+
+    private Update moveUpdate(String paraBucket, String folder, long changeSeq) {
+        return new Update()
+                .set("paraBucket", paraBucket)
+                .set("paraFolder", folder)
+                .set("paraFullPath", paraBucket.toLowerCase() + "/" + folder.toLowerCase())
+                .set("folderPath", FolderPaths.normalize(folder, paraBucket))
+                .set("changeSeq", changeSeq);
+    }
+
+    private <T> T inTransactionIfSupported(Function<MongoTemplate, T> work) {
+        if (!supportsTransactions()) {
+            return work.apply(mongoTemplate);
+        }
+        try (ClientSession session = mongoClient.startSession()) {
+            return session.withTransaction(() -> work.apply(mongoTemplate.withSession(session)));
+        }
+    }
+
+    /**
+     * 멀티 문서 트랜잭션은 replica set(hello.setName)과 sharded cluster(hello.msg == "isdbgrid")에서만 가능하다.
+     */
+    private boolean supportsTransactions() {
+        Boolean supported = transactionsSupported;
+        if (supported == null) {
+            Document hello = mongoTemplate.executeCommand(new Document("hello", 1));
+            supported = hello.containsKey("setName") || "isdbgrid".equals(hello.getString("msg"));
+            transactionsSupported = supported;
+            log.info("MongoDB multi-document transactions {}", supported ? "enabled for folder merges" : "not supported (standalone)");
+        }
+        return supported;
+    }
+}
@@ -0,0 +1,528 @@
+package com.filenori.nebula.service;
+
+import com.filenori.nebula.dto.response.ParaFolderNodeDto;
+import com.filenori.nebula.dto.response.ParaFolderTreeResponseDto;
+import com.filenori.nebula.entity.FolderNodeDocument;
+import com.filenori.nebula.entity.OrganizedFileDocument;
+import com.filenori.nebula.event.FolderMovedEvent;
+import com.filenori.nebula.event.OrganizedFileChangedEvent;
+import com.filenori.nebula.event.OrganizedFileChangedEvent.FileChange;
+import com.filenori.nebula.repository.FolderNodeRepository;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 폴더 트리(folder_nodes) 관리
+ * 파일 하나가 바뀌면 해당 폴더와 모든 상위 폴더 노드의 카운터만 $inc 하므로, 폴더 탐색은 버킷 크기와 무관하게 하위 노드 수만큼만 읽는다.
+ * 트리가 아직 없는 버킷(기존 데이터)은 첫 조회 시 한 번 집계해 만든다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FolderNodeService {
+
+    private static final int SKETCH_UPDATE_ATTEMPTS = 3;
+
+    private final FolderNodeRepository folderNodeRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ChangeSequenceService changeSequenceService;
+
+    @Value("${folderNodes.keywordSketchCapacity:32}")
+    private int keywordSketchCapacity;
+
+    private final Set<String> rebuildsInProgress = ConcurrentHashMap.newKeySet();
+    private final Set<String> rebuildsRequested = ConcurrentHashMap.newKeySet();
+    // 버킷별로 시작된 재집계 횟수. 증분 갱신 도중 재집계가 시작·완료됐는지 판단하는 데 쓴다
+    private final Map<String, Long> buildGenerations = new ConcurrentHashMap<>();
+
+    /**
+     * 폴더 트리의 한 단계 조회
+     *
+     * @param paraFolder 상위 폴더 (비어 있으면 버킷 루트)
+     */
+    public ParaFolderTreeResponseDto getFolderTree(ObjectId userId, String paraBucket, String paraFolder) {
+        String bucket = OrganizedFileService.canonicalizeBucket(paraBucket);
+        String path = FolderPaths.normalize(paraFolder, bucket);
+
+        List<ParaFolderNodeDto> folders = getChildren(userId, bucket, path).stream()
+                .map(node -> new ParaFolderNodeDto(node.getName(), node.getPath(), node.getChildCount() > 0, null))
+                .toList();
+        return new ParaFolderTreeResponseDto(bucket, path, folders);
+    }
+
+    /**
+     * 상위 폴더의 바로 아래 폴더 노드 (이름순)
+     */
+    public List<FolderNodeDocument> getChildren(ObjectId userId, String paraBucket, String parentPath) {
+        String bucket = OrganizedFileService.canonicalizeBucket(paraBucket);
+        ensureBuilt(userId, bucket);
+        return folderNodeRepository.findByUserIdAndParaBucketAndParentPathOrderByNameAsc(userId, bucket, parentPath);
+    }
+
+    /**
+     * 단일 노드 조회 (트리를 만들지 않음)
+     */
+    public Optional<FolderNodeDocument> findNode(ObjectId userId, String paraBucket, String path) {
+        return folderNodeRepository.findByUserIdAndParaBucketAndPath(
+                userId, OrganizedFileService.canonicalizeBucket(paraBucket), path);
+    }
+
+    /**
+     * 트리가 이미 만들어진 버킷이면 하위 노드를 반환하고, 아니면 응답을 막지 않도록 백그라운드에서 트리를 만든 뒤 빈 값을 반환한다.
+     */
+    public Optional<List<FolderNodeDocument>> findChildrenOrBuildAsync(ObjectId userId, String paraBucket, String parentPath) {
+        String bucket = OrganizedFileService.canonicalizeBucket(paraBucket);
+        if (isBuilt(userId, bucket)) {
+            return Optional.of(folderNodeRepository.findByUserIdAndParaBucketAndParentPathOrderByNameAsc(userId, bucket, parentPath));
+        }
+
+        if (!rebuildsInProgress.contains(rebuildKey(userId, bucket))) {
+            rebuildInBackground(userId, bucket, false);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * 노드의 키워드 중 빈도 상위 limit개
+     */
+    public static List<String> topKeywords(FolderNodeDocument node, int limit) {
+        if (node.getKeywordSketch() == null) {
+            return List.of();
+        }
+        // 스케치는 개수 내림차순으로 저장됨
+        return node.getKeywordSketch().stream()
+                .limit(limit)
+                .map(FolderNodeDocument.KeywordCount::getKeyword)
+                .toList();
+    }
+
+    @EventListener
+    @Order(OrganizedFileChangedEvent.DERIVED_DATA_LISTENER_ORDER)
+    public void onOrganizedFilesChanged(OrganizedFileChangedEvent event) {
+        Map<String, Map<String, NodeDelta>> deltasByBucket = new HashMap<>();
+        for (FileChange change : event.changes()) {
+            if (hasSameContribution(change.before(), change.after())) {
+                continue;
+            }
+            accumulate(deltasByBucket, change.before(), -1);
+            accumulate(deltasByBucket, change.after(), 1);
+        }
+
+        deltasByBucket.forEach((bucket, deltas) -> {
+            String key = rebuildKey(event.userId(), bucket);
+            try {
+                // 재집계 중에는 스냅샷에 이 변경이 빠졌을 수도, 집계의 $set이 $inc를 덮거나 두 번 셀 수도 있으므로
+                // 증분 갱신 대신 진행 중인 재집계가 끝난 뒤 한 번 더 집계하도록 요청한다 (첫 집계 중인 버킷 포함)
+                long generation = buildGenerations.getOrDefault(key, 0L);
+                if (rebuildsInProgress.contains(key)) {
+                    rebuildInBackground(event.userId(), bucket, true);
+                    return;
+                }
+                // 트리가 없는 버킷은 첫 조회 시 전체 집계로 만들어지므로 증분 갱신하지 않는다
+                if (isBuilt(event.userId(), bucket)) {
+                    applyDeltas(event.userId(), bucket, deltas);
+                    // 갱신하는 사이 재집계가 시작됐다면 $inc가 집계 결과보다 늦게 반영됐을 수 있다
+                    if (rebuildsInProgress.contains(key) || buildGenerations.getOrDefault(key, 0L) != generation) {
+                        rebuildInBackground(event.userId(), bucket, true);
+                    }
+                }
+            } catch (Exception e) {
+                // 원본 쓰기는 이미 완료됨. 트리는 rebuildBucket으로 복구 가능
+                log.error("Failed to update folder nodes for user {} bucket {}", event.userId(), bucket, e);
+            }
+        });
+    }
+
+    /**
+     * 폴더 이동 이벤트에는 파일별 키워드/수정일이 없으므로 해당 버킷 트리를 다시 집계한다.
+     * 집계는 버킷 크기에 비례하므로 요청 스레드를 막지 않도록 백그라운드에서 실행한다. (그동안 트리는 이동 전 상태)
+     * 이벤트 시점에 올라간 ETag로 이동 전 트리가 캐시될 수 있으므로 집계가 끝나면 버전을 한 번 더 올린다.
+     */
+    @EventListener
+    @Order(OrganizedFileChangedEvent.DERIVED_DATA_LISTENER_ORDER)
+    public void onFolderMoved(FolderMovedEvent event) {
+        String bucket = OrganizedFileService.canonicalizeBucket(event.paraBucket());
+        if (isBuilt(event.userId(), bucket)) {
+            // 이미 재집계 중이면 그 집계가 끝난 뒤 한 번 더 집계해 이동을 반영한다
+            rebuildInBackground(event.userId(), bucket, true);
+        }
+    }
+
+    /**
+     * organized_files를 폴더별로 $group 집계해 버킷의 폴더 트리를 다시 만든다.
+     *
+     * @return 생성된 노드 수 (루트 포함)
+     * @throws IllegalStateException 같은 버킷의 트리를 이미 다시 만드는 중인 경우
+     */
+    public int rebuildBucket(ObjectId userId, String paraBucket) {
+        String bucket = OrganizedFileService.canonicalizeBucket(paraBucket);
+        Integer nodeCount = rebuildExclusively(userId, bucket, false);
+        if (nodeCount == null) {
+            throw new IllegalStateException("이미 폴더 트리를 다시 만드는 중입니다: " + bucket);
+        }
+        return nodeCount;
+    }
+
+    /**
+     * 같은 버킷의 재집계는 rebuildsInProgress 키로 한 번에 하나만 실행한다.
+     *
+     * @param queueIfBusy 이미 실행 중일 때 실행 중인 쪽이 끝난 뒤 한 번 더 집계하도록 요청만 남길지 여부
+     * @return 생성된 노드 수. 다른 재집계가 실행 중이라 실행하지 않았으면 null
+     */
+    private Integer rebuildExclusively(ObjectId userId, String bucket, boolean queueIfBusy) {
+        String key = rebuildKey(userId, bucket);
+        if (queueIfBusy) {
+            rebuildsRequested.add(key);
+        }
+        if (!rebuildsInProgress.add(key)) {
+            return null;
+        }
+
+        Integer nodeCount = null;
+        try {
+            do {
+                rebuildsRequested.remove(key);
+                buildGenerations.merge(key, 1L, Long::sum);
+                nodeCount = buildNodes(userId, bucket);
+                // 트리가 바뀌었으므로 조회 API의 ETag를 새로 발급한다 (집계 도중 캐시된 응답 무효화)
+                changeSequenceService.bumpVersion(userId);
+            } while (rebuildsRequested.contains(key));
+        } finally {
+            rebuildsInProgress.remove(key);
+        }
+        // 반복문을 빠져나온 직후 들어온 요청이 있으면 이어서 처리한다
+        if (rebuildsRequested.contains(key)) {
+            Integer rerun = rebuildExclusively(userId, bucket, false);
+            return rerun != null ? rerun : nodeCount;
+        }
+        return nodeCount;
+    }
+
+    /**
+     * 집계 결과를 노드별 upsert로 덮어쓰고(이번 buildId 기록), 이번 집계에 없고 집계 시작 이후 갱신되지 않은 노드만 지운다.
+     * 지웠다가 다시 넣지 않으므로 재집계 중에도 조회에는 항상 완성된 트리가 보이며,
+     * 루트 노드를 마지막에 쓰므로 첫 집계 도중에는 isBuilt가 참이 되지 않는다.
+     */
+    private int buildNodes(ObjectId userId, String bucket) {
+        Instant startedAt = Instant.now();
+        Document match = new Document("userId", userId)
+                .append("paraBucket", new Document("$in", OrganizedFileService.bucketVariants(bucket)));
+
+        Map<String, NodeDelta> nodes = new HashMap<>();
+        nodes.put(FolderPaths.ROOT, new NodeDelta());
+
+        List<Document> folderPipeline = List.of(
+                new Document("$match", match),
+                new Document("$group", new Document("_id",
+                        new Document("folder", "$paraFolder").append("directory", "$directory"))
+                        .append("count", new Document("$sum", 1))
+                        .append("lastModified", new Document("$max", "$modifiedAt"))));
+        for (Document group : collection().aggregate(folderPipeline)) {
+            Document key = group.get("_id", Document.class);
+            String path = FolderPaths.normalize(key.getString("folder"), bucket);
+            boolean directory = Boolean.TRUE.equals(key.getBoolean("directory"));
+            long count = group.get("count", Number.class).longValue();
+            for (String ancestor : FolderPaths.selfAndAncestors(path)) {
+                NodeDelta node = nodes.computeIfAbsent(ancestor, k -> new NodeDelta());
+                node.entryCount += count;
+                if (!directory) {
+                    node.fileCount += count;
+                    node.directFileCount += ancestor.equals(path) ? count : 0;
+                    node.updateLastModified(group.getString("lastModified"));
+                }
+            }
+        }
+
+        List<Document> keywordPipeline = List.of(
+                new Document("$match", new Document(match).append("directory", false)),
+                new Document("$unwind", "$keywords"),
+                new Document("$group", new Document("_id",
+                        new Document("folder", "$paraFolder").append("keyword", "$keywords"))
+                        .append("count", new Document("$sum", 1))));
+        // 폴더별 스케치를 만든 뒤 깊은 노드부터 상위 노드로 합쳐 올린다 (노드당 최대 keywordSketchCapacity개만 유지)
+        Map<String, KeywordSketch> sketches = new HashMap<>();
+        for (Document group : collection().aggregate(keywordPipeline)) {
+            Document key = group.get("_id", Document.class);
+            String keyword = normalizeKeyword(key.getString("keyword"));
+            String path = FolderPaths.normalize(key.getString("folder"), bucket);
+            if (keyword != null && nodes.containsKey(path)) {
+                sketches.computeIfAbsent(path, k -> new KeywordSketch(keywordSketchCapacity))
+                        .offer(keyword, group.get("count", Number.class).longValue());
+            }
+        }
+        nodes.keySet().stream()
+                .sorted(Comparator.comparingInt(FolderPaths::depthOf).reversed())
+                .forEach(path -> {
+                    KeywordSketch sketch = sketches.computeIfAbsent(path, k -> new KeywordSketch(keywordSketchCapacity));
+                    String parent = FolderPaths.parentOf(path);
+                    if (parent != null) {
+                        sketches.computeIfAbsent(parent, k -> new KeywordSketch(keywordSketchCapacity)).merge(sketch);
+                    }
+                });
+
+        Map<String, Long> childCounts = new HashMap<>();
+        nodes.keySet().stream()
+                .map(FolderPaths::parentOf)
+                .filter(Objects::nonNull)
+                .forEach(parent -> childCounts.merge(parent, 1L, Long::sum));
+
+        ObjectId buildId = new ObjectId();
+        Instant now = Instant.now();
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, FolderNodeDocument.class);
+        nodes.keySet().stream()
+                .sorted(Comparator.comparingInt(FolderPaths::depthOf).reversed())
+                .forEach(path -> {
+                    NodeDelta node = nodes.get(path);
+                    operations.upsert(nodeQuery(userId, bucket, path), new Update()
+                            .set("parentPath", FolderPaths.parentOf(path))
+                            .set("name", path.isEmpty() ? bucket : FolderPaths.nameOf(path))
+                            .set("depth", FolderPaths.depthOf(path))
+                            .set("entryCount", node.entryCount)
+                            .set("fileCount", node.fileCount)
+                            .set("directFileCount", node.directFileCount)
+                            .set("childCount", childCounts.getOrDefault(path, 0L))
+                            .set("lastModified", node.lastModified)
+                            .set("keywordSketch", sketches.get(path).toEntries())
+                            .inc("sketchVersion", 1)
+                            .set("buildId", buildId)
+                            .set("updatedAt", now));
+                });
+        operations.execute();
+
+        long removed = mongoTemplate.remove(Query.query(Criteria.where("userId").is(userId)
+                        .and("paraBucket").is(bucket)
+                        .and("buildId").ne(buildId)
+                        .and("updatedAt").lt(startedAt)),
+                FolderNodeDocument.class).getDeletedCount();
+        log.info("Rebuilt {} folder nodes for user {} bucket {} (removed {} stale)", nodes.size(), userId, bucket, removed);
+        return nodes.size();
+    }
+
+    private void rebuildInBackground(ObjectId userId, String bucket, boolean queueIfBusy) {
+        Mono.fromRunnable(() -> rebuildExclusively(userId, bucket, queueIfBusy))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, error -> log.error("Background folder node build failed for user {} bucket {}",
+                        userId, bucket, error));
+    }
+
+    private void ensureBuilt(ObjectId userId, String bucket) {
+        if (!isBuilt(userId, bucket)) {
+            rebuildExclusively(userId, bucket, false);
+        }
+    }
+
+    private static String rebuildKey(ObjectId userId, String bucket) {
+        return userId.toHexString() + "|" + bucket;
+    }
+
+    private boolean isBuilt(ObjectId userId, String bucket) {
+        return folderNodeRepository.existsByUserIdAndParaBucketAndPath(userId, bucket, FolderPaths.ROOT);
+    }
+
+    /**
+     * 상위 노드부터 갱신한다. 새로 생긴 노드는 상위 노드의 childCount를 올리고, 비게 된 노드는 삭제 후 childCount를 내린다.
+     */
+    private void applyDeltas(ObjectId userId, String bucket, Map<String, NodeDelta> deltas) {
+        Instant now = Instant.now();
+        List<String> paths = deltas.keySet().stream()
+                .sorted(Comparator.comparingInt(FolderPaths::depthOf))
+                .toList();
+
+        for (String path : paths) {
+            NodeDelta delta = deltas.get(path);
+            Query query = nodeQuery(userId, bucket, path);
+            Update update = toUpdate(path, bucket, delta, now);
+
+            if (delta.entryCount > 0) {
+                UpdateResult result = mongoTemplate.upsert(query, update, FolderNodeDocument.class);
+                if (result.getUpsertedId() != null) {
+                    incrementChildCount(userId, bucket, FolderPaths.parentOf(path), 1);
+                }
+            } else if (delta.entryCount < 0) {
+                FolderNodeDocument node = mongoTemplate.findAndModify(query, update,
+                        FindAndModifyOptions.options().returnNew(true), FolderNodeDocument.class);
+                if (node != null && node.getEntryCount() <= 0 && !path.isEmpty()) {
+                    // 읽은 뒤 다른 쓰기가 다시 채웠으면 지우지 않고, 실제로 지운 경우에만 상위 childCount를 내린다
+                    long deleted = mongoTemplate.remove(Query.of(query).addCriteria(Criteria.where("entryCount").lte(0)),
+                            FolderNodeDocument.class).getDeletedCount();
+                    if (deleted > 0) {
+                        incrementChildCount(userId, bucket, FolderPaths.parentOf(path), -1);
+                    }
+                }
+            } else {
+                mongoTemplate.updateFirst(query, update, FolderNodeDocument.class);
+            }
+
+            if (!delta.keywordCounts.isEmpty()) {
+                updateKeywordSketch(query, delta.keywordCounts);
+            }
+        }
+    }
+
+    /**
+     * 스케치는 $inc로 갱신할 수 없으므로 읽어서 반영한 뒤 sketchVersion이 그대로일 때만 기록한다. (충돌 시 재시도)
+     */
+    private void updateKeywordSketch(Query query, Map<String, Long> keywordDeltas) {
+        for (int attempt = 0; attempt < SKETCH_UPDATE_ATTEMPTS; attempt++) {
+            Query readQuery = Query.of(query);
+            readQuery.fields().include("keywordSketch", "sketchVersion");
+            FolderNodeDocument node = mongoTemplate.findOne(readQuery, FolderNodeDocument.class);
+            if (node == null) {
+                return; // 비어서 삭제된 노드
+            }
+
+            KeywordSketch sketch = KeywordSketch.of(keywordSketchCapacity, node.getKeywordSketch());
+            keywordDeltas.forEach((keyword, count) -> {
+                if (count > 0) {
+                    sketch.offer(keyword, count);
+                } else if (count < 0) {
+                    sketch.remove(keyword, -count);
+                }
+            });
+
+            // 증분 갱신으로 새로 생긴 노드에는 sketchVersion 필드가 없다
+            Criteria versionCriteria = node.getSketchVersion() == 0
+                    ? Criteria.where("sketchVersion").in(0L, null)
+                    : Criteria.where("sketchVersion").is(node.getSketchVersion());
+            Query casQuery = Query.of(query).addCriteria(versionCriteria);
+            Update update = new Update().set("keywordSketch", sketch.toEntries()).inc("sketchVersion", 1);
+            if (mongoTemplate.updateFirst(casQuery, update, FolderNodeDocument.class).getMatchedCount() > 0) {
+                return;
+            }
+        }
+        log.warn("Gave up updating keyword sketch after {} attempts: {}", SKETCH_UPDATE_ATTEMPTS, query);
+    }
+
+    private Update toUpdate(String path, String bucket, NodeDelta delta, Instant now) {
+        Update update = new Update()
+                .set("updatedAt", now)
+                .setOnInsert("parentPath", FolderPaths.parentOf(path))
+                .setOnInsert("name", path.isEmpty() ? bucket : FolderPaths.nameOf(path))
+                .setOnInsert("depth", FolderPaths.depthOf(path));
+        if (delta.entryCount != 0) {
+            update.inc("entryCount", delta.entryCount);
+        }
+        if (delta.fileCount != 0) {
+            update.inc("fileCount", delta.fileCount);
+        }
+        if (delta.directFileCount != 0) {
+            update.inc("directFileCount", delta.directFileCount);
+        }
+        if (delta.lastModified != null) {
+            update.max("lastModified", delta.lastModified);
+        }
+        return update;
+    }
+
+    private void incrementChildCount(ObjectId userId, String bucket, String parentPath, int amount) {
+        if (parentPath == null) {
+            return;
+        }
+        mongoTemplate.updateFirst(nodeQuery(userId, bucket, parentPath),
+                new Update().inc("childCount", amount), FolderNodeDocument.class);
+    }
+
+    private Query nodeQuery(ObjectId userId, String bucket, String path) {
+        return Query.query(Criteria.where("userId").is(userId)
+                .and("paraBucket").is(bucket)
+                .and("path").is(path));
+    }
+
+    private void accumulate(Map<String, Map<String, NodeDelta>> deltasByBucket, OrganizedFileDocument document, int sign) {
+        if (document == null) {
+            return;
+        }
+        String bucket = OrganizedFileService.canonicalizeBucket(document.getParaBucket());
+        if (bucket == null || bucket.isEmpty()) {
+            return;
+        }
+
+        String path = FolderPaths.normalize(document.getParaFolder(), bucket);
+        Map<String, NodeDelta> deltas = deltasByBucket.computeIfAbsent(bucket, k -> new HashMap<>());
+        for (String ancestor : FolderPaths.selfAndAncestors(path)) {
+            NodeDelta delta = deltas.computeIfAbsent(ancestor, k -> new NodeDelta());
+            delta.entryCount += sign;
+            if (document.isDirectory()) {
+                continue;
+            }
+            delta.fileCount += sign;
+            if (ancestor.equals(path)) {
+                delta.directFileCount += sign;
+            }
+            if (sign > 0) {
+                delta.updateLastModified(document.getModifiedAt());
+            }
+            if (document.getKeywords() != null) {
+                for (String keyword : new LinkedHashSet<>(document.getKeywords())) {
+                    String key = normalizeKeyword(keyword);
+                    if (key != null) {
+                        delta.keywordCounts.merge(key, (long) sign, Long::sum);
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean hasSameContribution(OrganizedFileDocument before, OrganizedFileDocument after) {
+        return before != null && after != null
+                && Objects.equals(OrganizedFileService.canonicalizeBucket(before.getParaBucket()),
+                        OrganizedFileService.canonicalizeBucket(after.getParaBucket()))
+                && Objects.equals(FolderPaths.normalize(before.getParaFolder(), before.getParaBucket()),
+                        FolderPaths.normalize(after.getParaFolder(), after.getParaBucket()))
+                && before.isDirectory() == after.isDirectory()
+                && Objects.equals(before.getModifiedAt(), after.getModifiedAt())
+                && Objects.equals(before.getKeywords(), after.getKeywords());
+    }
+
+    private static String normalizeKeyword(String keyword) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return null;
+        }
+        return keyword.trim();
+    }
+
+    private MongoCollection<Document> collection() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(OrganizedFileDocument.class));
+    }
+
+    private static class NodeDelta {
+        long entryCount;
+        long fileCount;
+        long directFileCount;
+        String lastModified;
+        final Map<String, Long> keywordCounts = new HashMap<>(); // 이번 변경의 키워드별 증감
+
+        void updateLastModified(String modifiedAt) {
+            if (modifiedAt != null && (lastModified == null || modifiedAt.compareTo(lastModified) > 0)) {
+                lastModified = modifiedAt;
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.filenori.nebula.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * folderPath가 없는 기존 organized_files 문서에 정규화된 폴더 경로를 채운다.
+ * 정규화 규칙(FolderPaths.normalize)을 그대로 쓰기 위해 paraBucket/paraFolder만 읽어 batchSize 단위 bulkWrite로 기록한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FolderPathMigrationService {
+
+    private static final String COLLECTION_NAME = "organized_files";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${folderPaths.migration.enabled:true}")
+    private boolean migrationEnabled;
+
+    @Value("${folderPaths.migration.batchSize:1000}")
+    private int batchSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (!migrationEnabled) {
+            return;
+        }
+        try {
+            backfill();
+        } catch (Exception e) {
+            log.error("Failed to backfill {} folderPath", COLLECTION_NAME, e);
+        }
+    }
+
+    /**
+     * @return folderPath를 채운 문서 수
+     */
+    public long backfill() {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(COLLECTION_NAME);
+        long updated = 0;
+        List<WriteModel<Document>> batch = new ArrayList<>(batchSize);
+        for (Document document : collection.find(Filters.exists(FolderPaths.FIELD, false))
+                .projection(Projections.include("paraBucket", "paraFolder"))
+                .batchSize(batchSize)) {
+            String folderPath = FolderPaths.normalize(document.getString("paraFolder"), document.getString("paraBucket"));
+            batch.add(new UpdateOneModel<>(Filters.eq("_id", document.get("_id")), Updates.set(FolderPaths.FIELD, folderPath)));
+            if (batch.size() >= batchSize) {
+                updated += collection.bulkWrite(batch, new BulkWriteOptions().ordered(false)).getModifiedCount();
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            updated += collection.bulkWrite(batch, new BulkWriteOptions().ordered(false)).getModifiedCount();
+        }
+
+        if (updated > 0) {
+            log.info("Backfilled folderPath on {} organized files", updated);
+        }
+        return updated;
+    }
+}
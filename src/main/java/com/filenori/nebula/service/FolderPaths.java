@@ -0,0 +1,97 @@
+package com.filenori.nebula.service;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * PARA 폴더 경로 정규화 (폴더 탐색과 폴더 노드 갱신이 같은 규칙을 쓰도록 공유)
+ * 구분자를 '/'로 통일하고 빈 세그먼트를 제거한 뒤 소문자로 바꾸며, 맨 앞의 버킷명 세그먼트는 떼어낸다.
+ * 버킷 루트는 빈 문자열로 표현한다.
+ * 저장 시 organized_files.folderPath에 같은 규칙으로 기록하므로, 조회는 대소문자 무시 정규식 대신 인덱스 범위로 처리한다.
+ */
+public final class FolderPaths {
+
+    public static final String ROOT = "";
+    public static final String FIELD = "folderPath";
+
+    private FolderPaths() {
+    }
+
+    public static String normalize(String path, String paraBucket) {
+        if (path == null || path.trim().isEmpty()) {
+            return ROOT;
+        }
+
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.trim().replace("\\", "/").split("/")) {
+            if (!segment.trim().isEmpty()) {
+                segments.add(segment.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+
+        if (!segments.isEmpty() && paraBucket != null && !paraBucket.trim().isEmpty()
+                && segments.get(0).equals(paraBucket.trim().toLowerCase(Locale.ROOT))) {
+            segments.remove(0);
+        }
+
+        return String.join("/", segments);
+    }
+
+    /**
+     * @return 상위 폴더 경로. 루트의 상위는 null
+     */
+    public static String parentOf(String normalizedPath) {
+        if (normalizedPath == null || normalizedPath.isEmpty()) {
+            return null;
+        }
+        int slashIndex = normalizedPath.lastIndexOf('/');
+        return slashIndex < 0 ? ROOT : normalizedPath.substring(0, slashIndex);
+    }
+
+    public static String nameOf(String normalizedPath) {
+        int slashIndex = normalizedPath.lastIndexOf('/');
+        return slashIndex < 0 ? normalizedPath : normalizedPath.substring(slashIndex + 1);
+    }
+
+    public static int depthOf(String normalizedPath) {
+        if (normalizedPath.isEmpty()) {
+            return 0;
+        }
+        return (int) normalizedPath.chars().filter(c -> c == '/').count() + 1;
+    }
+
+    /**
+     * 루트부터 자기 자신까지의 경로 목록 (루트 포함)
+     */
+    public static List<String> selfAndAncestors(String normalizedPath) {
+        List<String> paths = new ArrayList<>();
+        paths.add(ROOT);
+        if (normalizedPath.isEmpty()) {
+            return paths;
+        }
+        int index = normalizedPath.indexOf('/');
+        while (index >= 0) {
+            paths.add(normalizedPath.substring(0, index));
+            index = normalizedPath.indexOf('/', index + 1);
+        }
+        paths.add(normalizedPath);
+        return paths;
+    }
+
+    /**
+     * 폴더 자신과 모든 하위 폴더의 문서 조건 (folderPath = path 또는 path/ 로 시작)
+     * 접두 일치를 [path + "/", path + "0") 범위로 바꿔 ('0'은 '/' 다음 문자) idx_user_bucket_folder_path의 범위 스캔이 되게 한다.
+     * 루트는 버킷 전체이므로 조건을 두지 않는다.
+     */
+    public static Criteria subtreeCriteria(String normalizedPath) {
+        if (normalizedPath == null || normalizedPath.isEmpty()) {
+            return new Criteria();
+        }
+        return new Criteria().orOperator(
+                Criteria.where(FIELD).is(normalizedPath),
+                Criteria.where(FIELD).gte(normalizedPath + "/").lt(normalizedPath + "0"));
+    }
+}
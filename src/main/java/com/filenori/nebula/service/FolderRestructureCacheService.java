@@ -0,0 +1,93 @@
+package com.filenori.nebula.service;
+
+import com.filenori.nebula.dto.response.FolderRestructureResponseDto;
+import com.filenori.nebula.entity.FolderRestructureAnalysisDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * 폴더 재구성 분석 캐시(folder_restructure_analyses)
+ * 버킷 내용 버전과 모델이 분석 당시와 같으면 OpenAI를 다시 호출하지 않고 저장된 제안을 돌려준다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FolderRestructureCacheService {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * 현재 버킷 내용 버전. 한 번도 변경/분석되지 않은 버킷은 0
+     */
+    public long currentVersion(ObjectId userId, String paraBucket) {
+        Query query = bucketQuery(userId, paraBucket);
+        query.fields().include("contentVersion");
+        FolderRestructureAnalysisDocument document = mongoTemplate.findOne(query, FolderRestructureAnalysisDocument.class);
+        return document != null ? document.getContentVersion() : 0L;
+    }
+
+    /**
+     * (사용자, 버킷, 내용 버전, 모델)이 일치하는 캐시된 분석
+     */
+    public Optional<FolderRestructureResponseDto> find(ObjectId userId, String paraBucket, long contentVersion, String model) {
+        FolderRestructureAnalysisDocument document = mongoTemplate.findOne(
+                bucketQuery(userId, paraBucket), FolderRestructureAnalysisDocument.class);
+        if (document == null
+                || document.getContentVersion() != contentVersion
+                || !Objects.equals(document.getAnalyzedVersion(), contentVersion)
+                || !Objects.equals(document.getModel(), model)) {
+            return Optional.empty();
+        }
+        return Optional.of(new FolderRestructureResponseDto(document.getMergeSuggestions(), document.getReason()));
+    }
+
+    /**
+     * 분석 결과 저장. analyzedVersion은 분석에 쓴 데이터를 읽기 전의 버전이므로,
+     * 분석 도중 파일이 바뀌었다면 contentVersion이 더 커져 다음 조회에서 캐시 미스가 된다.
+     */
+    public void store(ObjectId userId, String paraBucket, long analyzedVersion, String model,
+                      FolderRestructureResponseDto response) {
+        Instant now = Instant.now();
+        Update update = new Update()
+                .set("analyzedVersion", analyzedVersion)
+                .set("model", model)
+                .set("mergeSuggestions", response.getMergeSuggestions())
+                .set("reason", response.getReason())
+                .set("analyzedAt", now)
+                .set("updatedAt", now)
+                .setOnInsert("contentVersion", analyzedVersion);
+        mongoTemplate.upsert(bucketQuery(userId, paraBucket), update, FolderRestructureAnalysisDocument.class);
+    }
+
+    /**
+     * 버킷 내용 버전을 changedCount만큼 올린다.
+     *
+     * @return 갱신 후 문서
+     */
+    public FolderRestructureAnalysisDocument bumpVersion(ObjectId userId, String paraBucket, long changedCount) {
+        Update update = new Update()
+                .inc("contentVersion", Math.max(1L, changedCount))
+                .set("updatedAt", Instant.now());
+        return mongoTemplate.findAndModify(
+                bucketQuery(userId, paraBucket),
+                update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                FolderRestructureAnalysisDocument.class);
+    }
+
+    private Query bucketQuery(ObjectId userId, String paraBucket) {
+        return Query.query(Criteria.where("userId").is(userId)
+                .and("paraBucket").is(OrganizedFileService.canonicalizeBucket(paraBucket)));
+    }
+}
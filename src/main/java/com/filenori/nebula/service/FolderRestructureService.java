@@ -1,17 +1,34 @@
 package com.filenori.nebula.service;
 
 import com.filenori.nebula.dto.request.FolderRestructureRequestDto;
+import com.filenori.nebula.dto.response.BucketRestructureResponseDto;
 import com.filenori.nebula.dto.response.FolderAnalysisDto;
 import com.filenori.nebula.dto.response.FolderRestructureResponseDto;
+import com.filenori.nebula.entity.FolderCentroidDocument;
+import com.filenori.nebula.entity.FolderMergeJournalDocument;
+import com.filenori.nebula.entity.FolderRestructureAnalysisDocument;
 import com.filenori.nebula.entity.OrganizedFileDocument;
-import com.filenori.nebula.repository.OrganizedFileRepository;
+import com.filenori.nebula.event.FolderMovedEvent;
+import com.filenori.nebula.event.OrganizedFileChangedEvent;
+import com.filenori.nebula.event.OrganizedFileChangedEvent.FileChange;
+import com.filenori.nebula.repository.FolderCentroidRepository;
+import com.filenori.nebula.service.FolderCandidateClusterer.FolderFeatures;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
 import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,109 +36,428 @@ import java.util.stream.Collectors;
 @Slf4j
 public class FolderRestructureService {
 
-    private final OrganizedFileRepository organizedFileRepository;
+    private static final List<String> PARA_BUCKETS = List.of("Projects", "Areas", "Resources", "Archive");
+    private static final int SAMPLE_FILE_LIMIT = 5;
+    private static final int COMMON_KEYWORD_LIMIT = 5;
+
+    // 한 프롬프트에 담는 최대 폴더 수. 이보다 많은 버킷은 후보 그룹만 골라 나눠 보낸다
+    @Value("${folderRestructure.maxFoldersPerPrompt:40}")
+    private int maxFoldersPerPrompt;
+
+    @Value("${folderRestructure.centroidSimilarityThreshold:0.85}")
+    private double centroidSimilarityThreshold;
+
+    @Value("${folderRestructure.keywordSimilarityThreshold:0.5}")
+    private double keywordSimilarityThreshold;
+
+    @Value("${folderRestructure.promptConcurrency:4}")
+    private int promptConcurrency;
+
+    // 캐시된 분석 이후 이만큼의 파일이 바뀌면 백그라운드에서 다시 분석해 둔다
+    @Value("${folderRestructure.refreshChangeThreshold:50}")
+    private long refreshChangeThreshold;
+
+    private final MongoTemplate mongoTemplate;
+    private final FolderCentroidRepository folderCentroidRepository;
+    private final FolderRestructureCacheService folderRestructureCacheService;
     private final OpenAiService openAiService;
+    private final FolderMergeService folderMergeService;
+
+    private final Set<String> refreshesInProgress = ConcurrentHashMap.newKeySet();
 
     public Mono<FolderRestructureResponseDto> analyzeFolderStructure(FolderRestructureRequestDto requestDto) {
         log.info("=== Starting folder structure analysis ===");
         log.info("User: {}, PARA Bucket: {}", requestDto.getUserId(), requestDto.getParaBucket());
 
         ObjectId userId = new ObjectId(requestDto.getUserId());
-        String paraBucket = requestDto.getParaBucket();
+        String paraBucket = OrganizedFileService.canonicalizeBucket(requestDto.getParaBucket());
+        String model = openAiService.getModel();
+
+        // 버킷 내용과 모델이 마지막 분석 때와 같으면 저장된 제안을 그대로 반환
+        long contentVersion = folderRestructureCacheService.currentVersion(userId, paraBucket);
+        Optional<FolderRestructureResponseDto> cached = folderRestructureCacheService
+                .find(userId, paraBucket, contentVersion, model);
+        if (cached.isPresent()) {
+            log.info("Returning cached folder restructure analysis (version {}, model {})", contentVersion, model);
+            return Mono.just(cached.get());
+        }
+
+        return Mono.defer(() -> analyzeAndStore(userId, paraBucket, contentVersion, model,
+                        loadFolderAnalyses(userId, List.of(paraBucket)).getOrDefault(paraBucket, List.of()),
+                        promptConcurrency))
+                .onErrorResume(error -> {
+                    log.error("Failed to get folder restructure suggestions", error);
+                    return Mono.just(analysisFailure(error));
+                });
+    }
+
+    /**
+     * 모든 PARA 버킷 분석. 캐시가 유효한 버킷은 바로 내보내고, 나머지는 폴더 데이터를 한 번의 집계로 읽은 뒤
+     * 버킷별 LLM 분석을 동시에 실행해 끝나는 순서대로 내보낸다.
+     * 버킷 동시 실행 수 × 버킷당 청크 동시 실행 수가 promptConcurrency를 넘지 않도록 나눈다.
+     * 다른 요청·백그라운드 재분석과 합친 전체 동시 호출 수는 OpenAiService가 공유하는 OpenAiRequestLimiter가 제한한다.
+     */
+    public Flux<BucketRestructureResponseDto> analyzeAllBuckets(ObjectId userId) {
+        log.info("=== Starting folder structure analysis for all buckets === user={}", userId);
+        String model = openAiService.getModel();
+
+        List<BucketRestructureResponseDto> cachedResults = new ArrayList<>();
+        Map<String, Long> pendingVersions = new LinkedHashMap<>();
+        for (String bucket : PARA_BUCKETS) {
+            long contentVersion = folderRestructureCacheService.currentVersion(userId, bucket);
+            Optional<FolderRestructureResponseDto> cached = folderRestructureCacheService.find(userId, bucket, contentVersion, model);
+            if (cached.isPresent()) {
+                cachedResults.add(new BucketRestructureResponseDto(
+                        bucket, cached.get().getMergeSuggestions(), cached.get().getReason(), true));
+            } else {
+                pendingVersions.put(bucket, contentVersion);
+            }
+        }
+        log.info("Cached buckets: {}, buckets to analyze: {}", cachedResults.size(), pendingVersions.keySet());
+
+        int bucketConcurrency = Math.max(1, Math.min(promptConcurrency, pendingVersions.size()));
+        int chunkConcurrency = Math.max(1, promptConcurrency / bucketConcurrency);
+        Flux<BucketRestructureResponseDto> analyzed = pendingVersions.isEmpty()
+                ? Flux.empty()
+                : Mono.fromCallable(() -> loadFolderAnalyses(userId, pendingVersions.keySet()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(analysesByBucket -> Flux.fromIterable(pendingVersions.entrySet())
+                        .flatMap(entry -> Mono.defer(() -> analyzeAndStore(userId, entry.getKey(), entry.getValue(), model,
+                                        analysesByBucket.getOrDefault(entry.getKey(), List.of()), chunkConcurrency))
+                                .onErrorResume(error -> {
+                                    log.error("Failed to analyze bucket {} for user {}", entry.getKey(), userId, error);
+                                    return Mono.just(analysisFailure(error));
+                                })
+                                .map(response -> new BucketRestructureResponseDto(
+                                        entry.getKey(), response.getMergeSuggestions(), response.getReason(), false)),
+                                bucketConcurrency));
+
+        return Flux.concat(Flux.fromIterable(cachedResults), analyzed);
+    }
+
+    private FolderRestructureResponseDto analysisFailure(Throwable error) {
+        return new FolderRestructureResponseDto(
+                Collections.emptyList(),
+                "폴더 구조 분석 중 오류가 발생했습니다: " + error.getMessage());
+    }
 
-        // 1. 해당 PARA 버킷의 모든 폴더 분석 데이터 조회
-        List<FolderAnalysisDto> folderAnalyses = analyzeFoldersByBucket(userId, paraBucket);
+    /**
+     * 분석 후 모든 청크가 성공했으면 분석 전에 읽은 버전으로 캐시에 저장한다.
+     */
+    private Mono<FolderRestructureResponseDto> analyzeAndStore(ObjectId userId, String paraBucket,
+                                                               long contentVersion, String model,
+                                                               List<FolderAnalysisDto> folderAnalyses,
+                                                               int concurrency) {
+        return analyze(userId, paraBucket, folderAnalyses, concurrency)
+                .doOnNext(analysis -> {
+                    if (analysis.complete()) {
+                        folderRestructureCacheService.store(userId, paraBucket, contentVersion, model, analysis.response());
+                    }
+                })
+                .map(Analysis::response);
+    }
+
+    /**
+     * @param concurrency 동시에 보낼 청크 프롬프트 수
+     */
+    private Mono<Analysis> analyze(ObjectId userId, String paraBucket, List<FolderAnalysisDto> folderAnalyses,
+                                   int concurrency) {
+        // 1. 해당 PARA 버킷의 폴더 분석 데이터 (호출 측에서 집계로 읽음)
         log.info("Found {} folders for analysis in bucket: {}", folderAnalyses.size(), paraBucket);
 
         if (folderAnalyses.size() < 2) {
             log.info("Not enough folders to suggest merging");
-            return Mono.just(new FolderRestructureResponseDto(
+            return Mono.just(new Analysis(new FolderRestructureResponseDto(
                     Collections.emptyList(), 
-                    "폴더가 충분하지 않아 통합 제안을 할 수 없습니다."));
+                    "폴더가 충분하지 않아 통합 제안을 할 수 없습니다."), true));
         }
 
-        // 2. GPT에게 폴더 통합 제안 요청
-        return requestFolderRestructureSuggestion(folderAnalyses, paraBucket)
-                .doOnNext(response -> log.info("Received folder restructure suggestions: {}", 
-                        response.getMergeSuggestions().size()))
-                .onErrorResume(error -> {
-                    log.error("Failed to get folder restructure suggestions", error);
-                    return Mono.just(new FolderRestructureResponseDto(
-                            Collections.emptyList(),
-                            "폴더 구조 분석 중 오류가 발생했습니다: " + error.getMessage()));
-                });
+        // 2. 폴더가 많으면 임베딩/키워드 유사도로 통합 후보 그룹만 추린다
+        List<List<List<FolderAnalysisDto>>> chunks;
+        boolean candidateGroups = folderAnalyses.size() > maxFoldersPerPrompt;
+        if (candidateGroups) {
+            List<List<FolderAnalysisDto>> groups = findCandidateGroups(userId, paraBucket, folderAnalyses);
+            log.info("Pre-clustered {} folders into {} candidate groups", folderAnalyses.size(), groups.size());
+            if (groups.isEmpty()) {
+                return Mono.just(new Analysis(new FolderRestructureResponseDto(
+                        Collections.emptyList(),
+                        "유사한 폴더 후보가 없어 통합 제안을 할 수 없습니다."), true));
+            }
+            chunks = packIntoChunks(groups);
+        } else {
+            chunks = List.of(List.of(folderAnalyses));
+        }
+
+        // 3. GPT에게 폴더 통합 제안 요청 (청크 단위 병렬)
+        return Flux.fromIterable(chunks)
+                .flatMap(chunk -> requestFolderRestructureSuggestion(chunk, paraBucket, candidateGroups)
+                        .onErrorResume(error -> {
+                            if (chunks.size() == 1) {
+                                return Mono.error(error);
+                            }
+                            // 일부 청크가 실패해도 나머지 제안은 돌려준다
+                            log.error("Failed to get folder restructure suggestions for a chunk of {} groups", chunk.size(), error);
+                            return Mono.empty();
+                        }), Math.max(1, concurrency))
+                .collectList()
+                .map(responses -> new Analysis(combineResponses(responses, chunks.size()), responses.size() == chunks.size()))
+                .doOnNext(analysis -> log.info("Received folder restructure suggestions: {}", 
+                        analysis.response().getMergeSuggestions().size()));
+    }
+
+    /**
+     * 파일 쓰기마다 바뀐 버킷의 내용 버전을 올려 캐시된 분석을 무효화한다.
+     * 통계 등 파생 데이터 갱신 이후에 실행되도록 가장 낮은 우선순위로 둔다.
+     */
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onOrganizedFilesChanged(OrganizedFileChangedEvent event) {
+        Map<String, Long> changedByBucket = new HashMap<>();
+        for (FileChange change : event.changes()) {
+            Set<String> buckets = new HashSet<>(2);
+            for (OrganizedFileDocument document : Arrays.asList(change.before(), change.after())) {
+                if (document != null && document.getParaBucket() != null && !document.getParaBucket().isBlank()) {
+                    buckets.add(OrganizedFileService.canonicalizeBucket(document.getParaBucket()));
+                }
+            }
+            buckets.forEach(bucket -> changedByBucket.merge(bucket, 1L, Long::sum));
+        }
+        changedByBucket.forEach((bucket, count) -> onBucketChanged(event.userId(), bucket, count));
     }
 
-    private List<FolderAnalysisDto> analyzeFoldersByBucket(ObjectId userId, String paraBucket) {
-        // PARA 버킷의 모든 파일 데이터 조회
-        List<OrganizedFileDocument> documents = organizedFileRepository
-                .findFolderAnalysisDataByUserIdAndBucket(userId, paraBucket);
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onFolderMoved(FolderMovedEvent event) {
+        onBucketChanged(event.userId(), OrganizedFileService.canonicalizeBucket(event.paraBucket()), event.movedCount());
+    }
 
-        // 폴더별로 그룹핑
-        Map<String, List<OrganizedFileDocument>> folderGroups = documents.stream()
-                .filter(doc -> doc.getParaFolder() != null && !doc.getParaFolder().trim().isEmpty())
-                .collect(Collectors.groupingBy(OrganizedFileDocument::getParaFolder));
+    private void onBucketChanged(ObjectId userId, String paraBucket, long changedCount) {
+        try {
+            FolderRestructureAnalysisDocument state = folderRestructureCacheService.bumpVersion(userId, paraBucket, changedCount);
+            if (state == null || state.getAnalyzedVersion() == null) {
+                return;
+            }
 
-        List<FolderAnalysisDto> analyses = new ArrayList<>();
-        
-        for (Map.Entry<String, List<OrganizedFileDocument>> entry : folderGroups.entrySet()) {
-            String folderName = entry.getKey();
-            List<OrganizedFileDocument> folderFiles = entry.getValue();
+            // 마지막 분석 이후 변경량이 임계값을 넘는 순간 한 번만 다시 분석한다
+            long changedSinceAnalysis = state.getContentVersion() - state.getAnalyzedVersion();
+            long changedBefore = changedSinceAnalysis - Math.max(1L, changedCount);
+            if (changedSinceAnalysis >= refreshChangeThreshold && changedBefore < refreshChangeThreshold) {
+                refreshInBackground(userId, paraBucket, state.getContentVersion());
+            }
+        } catch (Exception e) {
+            // 버전이 안 올라가면 캐시가 남을 수 있으나 원본 쓰기는 이미 완료됨
+            log.error("Failed to bump restructure content version for user {} bucket {}", userId, paraBucket, e);
+        }
+    }
 
-            // 폴더 분석
-            FolderAnalysisDto analysis = buildFolderAnalysis(folderName, folderFiles);
-            analyses.add(analysis);
+    /**
+     * 백그라운드 재분석도 OpenAiService를 거치므로 요청 경로의 분석과 같은 동시 호출 한도를 나눠 쓴다.
+     */
+    private void refreshInBackground(ObjectId userId, String paraBucket, long contentVersion) {
+        String key = userId.toHexString() + "|" + paraBucket;
+        if (!refreshesInProgress.add(key)) {
+            return;
         }
 
-        log.info("Analyzed {} folders in bucket {}", analyses.size(), paraBucket);
-        return analyses;
+        String model = openAiService.getModel();
+        log.info("Refreshing folder restructure analysis for user {} bucket {} in background", userId, paraBucket);
+        Mono.defer(() -> analyzeAndStore(userId, paraBucket, contentVersion, model,
+                        loadFolderAnalyses(userId, List.of(paraBucket)).getOrDefault(paraBucket, List.of()),
+                        promptConcurrency))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doFinally(signal -> refreshesInProgress.remove(key))
+                .subscribe(null, error -> log.error("Background restructure analysis failed for user {} bucket {}",
+                        userId, paraBucket, error));
     }
 
-    private FolderAnalysisDto buildFolderAnalysis(String folderName, List<OrganizedFileDocument> files) {
-        int fileCount = 0;
-        int subfolderCount = 0;
-        List<String> sampleFileNames = new ArrayList<>();
-        Set<String> allKeywords = new HashSet<>();
+    private List<List<FolderAnalysisDto>> findCandidateGroups(ObjectId userId, String paraBucket,
+                                                              List<FolderAnalysisDto> folderAnalyses) {
+        Map<String, FolderAnalysisDto> analysisByFolder = folderAnalyses.stream()
+                .collect(Collectors.toMap(FolderAnalysisDto::getFolderName, analysis -> analysis, (left, right) -> left, LinkedHashMap::new));
+
+        Map<String, List<Double>> centroidByFolder = folderCentroidRepository
+                .findByUserIdAndParaFolderIn(userId, analysisByFolder.keySet()).stream()
+                // 정규화 이전 버킷 이름으로 남아 있는 센트로이드도 같은 버킷으로 본다
+                .filter(centroid -> Objects.equals(OrganizedFileService.canonicalizeBucket(centroid.getParaBucket()), paraBucket))
+                .filter(centroid -> centroid.getEmbedding() != null)
+                .collect(Collectors.toMap(FolderCentroidDocument::getParaFolder, FolderCentroidDocument::getEmbedding, (left, right) -> left));
+
+        List<FolderFeatures> features = analysisByFolder.values().stream()
+                .map(analysis -> new FolderFeatures(
+                        analysis.getFolderName(),
+                        centroidByFolder.get(analysis.getFolderName()),
+                        featureTokens(analysis)))
+                .toList();
+
+        FolderCandidateClusterer clusterer = new FolderCandidateClusterer(centroidSimilarityThreshold, keywordSimilarityThreshold);
+        return clusterer.cluster(features).stream()
+                .map(group -> group.stream().map(analysisByFolder::get).toList())
+                .toList();
+    }
 
-        for (OrganizedFileDocument file : files) {
-            if (file.isDirectory()) {
-                subfolderCount++;
-            } else {
-                fileCount++;
-                
-                // 대표 파일명 수집 (한글명 우선, 없으면 영문명)
-                if (sampleFileNames.size() < 5) {
-                    String displayName = file.getKoreanFileName() != null && !file.getKoreanFileName().trim().isEmpty()
-                            ? file.getKoreanFileName()
-                            : file.getEnglishFileName();
-                    if (displayName != null) {
-                        sampleFileNames.add(displayName);
-                    }
+    private Set<String> featureTokens(FolderAnalysisDto analysis) {
+        Set<String> tokens = new HashSet<>();
+        for (String token : analysis.getFolderName().toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isBlank()) {
+                tokens.add(token);
+            }
+        }
+        for (String keyword : analysis.getCommonKeywords()) {
+            tokens.add(keyword.trim().toLowerCase(Locale.ROOT));
+        }
+        return tokens;
+    }
+
+    /**
+     * 후보 그룹을 maxFoldersPerPrompt 이하의 청크로 묶는다. 한 그룹이 한도를 넘으면 그 그룹만 잘라서 보낸다.
+     */
+    private List<List<List<FolderAnalysisDto>>> packIntoChunks(List<List<FolderAnalysisDto>> groups) {
+        int limit = Math.max(2, maxFoldersPerPrompt);
+        List<List<List<FolderAnalysisDto>>> chunks = new ArrayList<>();
+        List<List<FolderAnalysisDto>> current = new ArrayList<>();
+        int currentSize = 0;
+
+        for (List<FolderAnalysisDto> group : groups) {
+            for (int from = 0; from < group.size(); from += limit) {
+                List<FolderAnalysisDto> piece = group.subList(from, Math.min(group.size(), from + limit));
+                if (piece.size() < 2) {
+                    continue;
                 }
-                
-                // 키워드 수집
-                if (file.getKeywords() != null) {
-                    allKeywords.addAll(file.getKeywords());
+                if (currentSize + piece.size() > limit && !current.isEmpty()) {
+                    chunks.add(current);
+                    current = new ArrayList<>();
+                    currentSize = 0;
                 }
+                current.add(piece);
+                currentSize += piece.size();
             }
         }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    private FolderRestructureResponseDto combineResponses(List<FolderRestructureResponseDto> responses, int chunkCount) {
+        if (responses.size() == 1 && chunkCount == 1) {
+            return responses.get(0);
+        }
+
+        List<FolderRestructureResponseDto.MergeSuggestion> suggestions = new ArrayList<>();
+        List<String> reasons = new ArrayList<>();
+        for (FolderRestructureResponseDto response : responses) {
+            if (response.getMergeSuggestions() != null) {
+                suggestions.addAll(response.getMergeSuggestions());
+            }
+            if (response.getReason() != null && !response.getReason().isBlank()) {
+                reasons.add(response.getReason());
+            }
+        }
+
+        String reason = responses.size() < chunkCount
+                ? String.format("후보 그룹 %d개 중 %d개를 분석했습니다. %s", chunkCount, responses.size(), String.join(" ", reasons))
+                : String.join(" ", reasons);
+        return new FolderRestructureResponseDto(suggestions, reason.trim());
+    }
+
+    /**
+     * 버킷들의 폴더별 분석 데이터를 한 번의 집계로 읽는다. (파일 문서를 JVM으로 가져오지 않음)
+     * 파일/하위폴더 수, 대표 파일명, 키워드 빈도 상위 목록을 $facet의 분기로 나눠 같은 입력에서 계산한다.
+     *
+     * @return 버킷별 폴더 분석 (폴더명 순)
+     */
+    private Map<String, List<FolderAnalysisDto>> loadFolderAnalyses(ObjectId userId, Collection<String> paraBuckets) {
+        Document folderKey = new Document("bucket", "$paraBucket").append("folder", "$paraFolder");
+        Document koreanName = new Document("$trim", new Document("input", new Document("$ifNull", List.of("$koreanFileName", ""))));
+        // 한글명 우선, 없으면 영문명
+        Document displayName = new Document("$cond", List.of(
+                new Document("$gt", List.of(new Document("$strLenCP", koreanName), 0)),
+                "$koreanFileName",
+                "$englishFileName"));
+        Document distinctKeywords = new Document("$setUnion", List.of(
+                new Document("$filter", new Document("input", new Document("$map", new Document("input", "$keywords")
+                        .append("in", new Document("$trim", new Document("input", "$$this")))))
+                        .append("cond", new Document("$ne", List.of("$$this", "")))),
+                List.of()));
+
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("userId", userId)
+                        .append("paraBucket", new Document("$in", paraBuckets.stream()
+                                .flatMap(bucket -> OrganizedFileService.bucketVariants(bucket).stream())
+                                .toList()))
+                        .append("paraFolder", new Document("$nin", Arrays.asList(null, "")))),
+                new Document("$project", new Document("_id", 0)
+                        .append("key", folderKey)
+                        .append("directory", 1)
+                        .append("displayName", displayName)
+                        .append("keywords", 1)),
+                new Document("$facet", new Document("folders", List.of(
+                        new Document("$group", new Document("_id", "$key")
+                                .append("fileCount", new Document("$sum", new Document("$cond", List.of("$directory", 0, 1))))
+                                .append("subfolderCount", new Document("$sum", new Document("$cond", List.of("$directory", 1, 0)))))))
+                        .append("samples", List.of(
+                                new Document("$match", new Document("directory", false).append("displayName", new Document("$ne", null))),
+                                new Document("$group", new Document("_id", "$key")
+                                        .append("names", new Document("$firstN", new Document("input", "$displayName")
+                                                .append("n", SAMPLE_FILE_LIMIT))))))
+                        .append("keywords", List.of(
+                                new Document("$match", new Document("directory", false)),
+                                new Document("$project", new Document("key", 1).append("keywords", distinctKeywords)),
+                                new Document("$unwind", "$keywords"),
+                                new Document("$group", new Document("_id", new Document("key", "$key").append("keyword", "$keywords"))
+                                        .append("count", new Document("$sum", 1))),
+                                new Document("$sort", new Document("count", -1).append("_id.keyword", 1)),
+                                new Document("$group", new Document("_id", "$_id.key")
+                                        .append("keywords", new Document("$push", "$_id.keyword"))),
+                                new Document("$project", new Document("keywords",
+                                        new Document("$slice", List.of("$keywords", COMMON_KEYWORD_LIMIT)))))))
+        );
+
+        Document result = mongoTemplate.getCollection(mongoTemplate.getCollectionName(OrganizedFileDocument.class))
+                .aggregate(pipeline)
+                .allowDiskUse(true)
+                .first();
+        Map<String, List<FolderAnalysisDto>> analysesByBucket = new HashMap<>();
+        if (result == null) {
+            return analysesByBucket;
+        }
+
+        Map<Document, List<String>> samplesByKey = new HashMap<>();
+        for (Document sample : result.getList("samples", Document.class)) {
+            samplesByKey.put(sample.get("_id", Document.class), sample.getList("names", String.class));
+        }
+        Map<Document, List<String>> keywordsByKey = new HashMap<>();
+        for (Document keywords : result.getList("keywords", Document.class)) {
+            keywordsByKey.put(keywords.get("_id", Document.class), keywords.getList("keywords", String.class));
+        }
 
-        // 공통 키워드 상위 5개 추출
-        List<String> commonKeywords = allKeywords.stream()
-                .limit(5)
-                .collect(Collectors.toList());
+        for (Document folder : result.getList("folders", Document.class)) {
+            Document key = folder.get("_id", Document.class);
+            String folderName = key.getString("folder");
+            if (folderName == null || folderName.trim().isEmpty()) {
+                continue;
+            }
 
-        // 폴더 용도 추론 (간단한 휴리스틱)
-        String folderPurpose = inferFolderPurpose(folderName, commonKeywords, fileCount, subfolderCount);
+            int fileCount = folder.get("fileCount", Number.class).intValue();
+            int subfolderCount = folder.get("subfolderCount", Number.class).intValue();
+            List<String> commonKeywords = keywordsByKey.getOrDefault(key, List.of());
+
+            analysesByBucket.computeIfAbsent(OrganizedFileService.canonicalizeBucket(key.getString("bucket")),
+                            bucket -> new ArrayList<>())
+                    .add(FolderAnalysisDto.builder()
+                            .folderName(folderName)
+                            .fileCount(fileCount)
+                            .subfolderCount(subfolderCount)
+                            .sampleFileNames(samplesByKey.getOrDefault(key, List.of()))
+                            .commonKeywords(commonKeywords)
+                            .folderPurpose(inferFolderPurpose(folderName, commonKeywords, fileCount, subfolderCount))
+                            .build());
+        }
 
-        return FolderAnalysisDto.builder()
-                .folderName(folderName)
-                .fileCount(fileCount)
-                .subfolderCount(subfolderCount)
-                .sampleFileNames(sampleFileNames)
-                .commonKeywords(commonKeywords)
-                .folderPurpose(folderPurpose)
-                .build();
+        analysesByBucket.values().forEach(analyses -> analyses.sort(Comparator.comparing(FolderAnalysisDto::getFolderName)));
+        log.info("Loaded folder analyses for buckets {}: {}", paraBuckets, analysesByBucket.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().size())));
+        return analysesByBucket;
     }
 
     private String inferFolderPurpose(String folderName, List<String> keywords, int fileCount, int subfolderCount) {
@@ -137,10 +473,10 @@ public class FolderRestructureService {
     }
 
     private Mono<FolderRestructureResponseDto> requestFolderRestructureSuggestion(
-            List<FolderAnalysisDto> folderAnalyses, String paraBucket) {
+            List<List<FolderAnalysisDto>> folderGroups, String paraBucket, boolean candidateGroups) {
         
         String systemPrompt = buildSystemPrompt();
-        String userPrompt = buildUserPrompt(folderAnalyses, paraBucket);
+        String userPrompt = buildUserPrompt(folderGroups, paraBucket, candidateGroups);
 
         log.info("Sending folder restructure request to OpenAI");
         log.debug("System prompt: {}", systemPrompt);
@@ -166,28 +502,23 @@ public class FolderRestructureService {
                 """;
     }
 
-    private String buildUserPrompt(List<FolderAnalysisDto> folderAnalyses, String paraBucket) {
+    private String buildUserPrompt(List<List<FolderAnalysisDto>> folderGroups, String paraBucket, boolean candidateGroups) {
         StringBuilder prompt = new StringBuilder();
         prompt.append(String.format("PARA Bucket: %s\n\n", paraBucket));
-        prompt.append("현재 폴더 구조 분석:\n\n");
-
-        for (int i = 0; i < folderAnalyses.size(); i++) {
-            FolderAnalysisDto analysis = folderAnalyses.get(i);
-            prompt.append(String.format("%d. 폴더명: %s\n", i + 1, analysis.getFolderName()));
-            prompt.append(String.format("   - 파일 수: %d개, 하위폴더 수: %d개\n", 
-                    analysis.getFileCount(), analysis.getSubfolderCount()));
-            
-            if (!analysis.getSampleFileNames().isEmpty()) {
-                prompt.append(String.format("   - 대표 파일들: %s\n", 
-                        String.join(", ", analysis.getSampleFileNames())));
+        if (candidateGroups) {
+            prompt.append("아래 폴더들은 내용 유사도로 미리 묶은 통합 후보 그룹입니다. 같은 그룹 안에서만 통합을 검토해주세요.\n\n");
+        } else {
+            prompt.append("현재 폴더 구조 분석:\n\n");
+        }
+
+        int index = 0;
+        for (int groupIndex = 0; groupIndex < folderGroups.size(); groupIndex++) {
+            if (candidateGroups) {
+                prompt.append(String.format("[후보 그룹 %d]\n", groupIndex + 1));
             }
-            
-            if (!analysis.getCommonKeywords().isEmpty()) {
-                prompt.append(String.format("   - 주요 키워드: %s\n", 
-                        String.join(", ", analysis.getCommonKeywords())));
+            for (FolderAnalysisDto analysis : folderGroups.get(groupIndex)) {
+                appendFolderAnalysis(prompt, ++index, analysis);
             }
-            
-            prompt.append(String.format("   - 용도: %s\n\n", analysis.getFolderPurpose()));
         }
 
         prompt.append("위 폴더들 중에서 유사한 용도나 중복되는 내용을 가진 폴더들을 찾아 통합 제안을 해주세요. ");
@@ -196,6 +527,24 @@ public class FolderRestructureService {
         return prompt.toString();
     }
 
+    private void appendFolderAnalysis(StringBuilder prompt, int number, FolderAnalysisDto analysis) {
+        prompt.append(String.format("%d. 폴더명: %s\n", number, analysis.getFolderName()));
+        prompt.append(String.format("   - 파일 수: %d개, 하위폴더 수: %d개\n", 
+                analysis.getFileCount(), analysis.getSubfolderCount()));
+        
+        if (!analysis.getSampleFileNames().isEmpty()) {
+            prompt.append(String.format("   - 대표 파일들: %s\n", 
+                    String.join(", ", analysis.getSampleFileNames())));
+        }
+        
+        if (!analysis.getCommonKeywords().isEmpty()) {
+            prompt.append(String.format("   - 주요 키워드: %s\n", 
+                    String.join(", ", analysis.getCommonKeywords())));
+        }
+        
+        prompt.append(String.format("   - 용도: %s\n\n", analysis.getFolderPurpose()));
+    }
+
     public Mono<String> applyFolderRestructure(String userId, String paraBucket, 
                                                FolderRestructureResponseDto.MergeSuggestion suggestion) {
         log.info("=== Applying folder restructure ===");
@@ -203,41 +552,16 @@ public class FolderRestructureService {
                 userId, paraBucket, suggestion.getSourceFolders().size(), suggestion.getTargetFolder());
 
         ObjectId userObjectId = new ObjectId(userId);
+        String targetFolder = suggestion.getSuggestedName();
 
-        // 소스 폴더들의 파일들을 타겟 폴더로 이동
-        for (String sourceFolder : suggestion.getSourceFolders()) {
-            List<OrganizedFileDocument> filesToMove = organizedFileRepository
-                    .findByUserIdAndParaBucketAndParaFolder(userObjectId, paraBucket, sourceFolder);
-
-            for (OrganizedFileDocument file : filesToMove) {
-                // 새로운 폴더 구조로 업데이트
-                OrganizedFileDocument updatedFile = OrganizedFileDocument.builder()
-                        .id(file.getId())
-                        .userId(file.getUserId())
-                        .baseDirectory(file.getBaseDirectory())
-                        .originalRelativePath(file.getOriginalRelativePath())
-                        .directory(file.isDirectory())
-                        .development(file.isDevelopment())
-                        .sizeBytes(file.getSizeBytes())
-                        .modifiedAt(file.getModifiedAt())
-                        .keywords(file.getKeywords())
-                        .koreanFileName(file.getKoreanFileName())
-                        .englishFileName(file.getEnglishFileName())
-                        .paraBucket(file.getParaBucket())
-                        .paraFolder(suggestion.getSuggestedName())  // 새 폴더명으로 변경
-                        .paraFullPath(paraBucket + "/" + suggestion.getSuggestedName())
-                        .reason(file.getReason())
-                        .createdAt(file.getCreatedAt())
-                        .build();
-
-                organizedFileRepository.save(updatedFile);
-            }
-            
-            log.info("Moved {} files from folder '{}' to '{}'", 
-                    filesToMove.size(), sourceFolder, suggestion.getSuggestedName());
-        }
+        // 소스 폴더별 updateMany + 되돌리기용 저널 (지원되는 배포에서는 하나의 트랜잭션)
+        FolderMergeJournalDocument journal = folderMergeService.merge(
+                userObjectId, paraBucket, suggestion.getSourceFolders(), targetFolder);
+
+        return Mono.just(String.format("폴더 재구성이 완료되었습니다. %d개 폴더가 '%s'로 통합되었습니다. (통합 ID: %s)",
+                suggestion.getSourceFolders().size(), suggestion.getSuggestedName(), journal.getId().toHexString()));
+    }
 
-        return Mono.just(String.format("폴더 재구성이 완료되었습니다. %d개 폴더가 '%s'로 통합되었습니다.",
-                suggestion.getSourceFolders().size(), suggestion.getSuggestedName()));
+    private record Analysis(FolderRestructureResponseDto response, boolean complete) {
     }
-}
\ No newline at end of file
+}
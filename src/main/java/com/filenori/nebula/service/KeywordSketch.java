@@ -0,0 +1,150 @@
+package com.filenori.nebula.service;
+
+import com.filenori.nebula.entity.FolderNodeDocument.KeywordCount;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 키워드 빈도 상위 목록을 위한 Space-Saving 스케치
+ * 최대 capacity개의 (키워드, 개수, 오차)만 유지하며, 가득 찬 상태에서 새 키워드가 들어오면 개수가 가장 작은 항목을 밀어내고
+ * 그 개수를 오차로 물려받는다. 빈도가 전체의 1/capacity를 넘는 키워드는 항상 남아 있으므로 상위 키워드를 상수 메모리로 구할 수 있다.
+ * 두 스케치는 mergeable Space-Saving 방식으로 합칠 수 있어(merge) 폴더 트리의 상위 노드로 올려 합산한다.
+ */
+public class KeywordSketch {
+
+    private static final Comparator<KeywordCount> BY_COUNT_DESC = Comparator
+            .comparingLong(KeywordCount::getCount).reversed()
+            .thenComparing(KeywordCount::getKeyword);
+
+    private final int capacity;
+    private final Map<String, KeywordCount> entries = new HashMap<>();
+
+    public KeywordSketch(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    public static KeywordSketch of(int capacity, List<KeywordCount> stored) {
+        KeywordSketch sketch = new KeywordSketch(capacity);
+        if (stored != null) {
+            for (KeywordCount entry : stored) {
+                sketch.offer(entry.getKeyword(), entry.getCount(), entry.getError());
+            }
+        }
+        return sketch;
+    }
+
+    public void offer(String keyword, long count) {
+        offer(keyword, count, 0);
+    }
+
+    private void offer(String keyword, long count, long error) {
+        if (keyword == null || count <= 0) {
+            return;
+        }
+
+        KeywordCount existing = entries.get(keyword);
+        if (existing != null) {
+            entries.put(keyword, new KeywordCount(keyword, existing.getCount() + count, existing.getError() + error));
+            return;
+        }
+        if (entries.size() < capacity) {
+            entries.put(keyword, new KeywordCount(keyword, count, error));
+            return;
+        }
+
+        KeywordCount minimum = entries.values().stream()
+                .min(Comparator.comparingLong(KeywordCount::getCount).thenComparing(KeywordCount::getKeyword))
+                .orElseThrow();
+        entries.remove(minimum.getKeyword());
+        entries.put(keyword, new KeywordCount(keyword, minimum.getCount() + count, minimum.getCount() + error));
+    }
+
+    /**
+     * 파일 삭제/변경으로 빠진 키워드를 차감한다. 스케치에 없는 키워드는 이미 밀려난 것이므로 무시한다.
+     * Space-Saving은 삽입만 가정한 구조라 차감 후의 값은 근사치다. 밀려났던 키워드가 다시 들어오면 밀어낸 항목의 개수를
+     * 물려받으므로 실제보다 크게 남을 수 있고, 차감으로 비게 된 자리는 밀려난 키워드로 다시 채워지지 않는다.
+     * 삭제가 많은 폴더에서 오차가 커지면 FolderNodeService.rebuildBucket으로 다시 집계한다.
+     */
+    public void remove(String keyword, long count) {
+        KeywordCount existing = entries.get(keyword);
+        if (existing == null || count <= 0) {
+            return;
+        }
+        long remaining = existing.getCount() - count;
+        if (remaining <= 0) {
+            entries.remove(keyword);
+        } else {
+            entries.put(keyword, new KeywordCount(keyword, remaining, Math.min(existing.getError(), remaining)));
+        }
+    }
+
+    /**
+     * mergeable Space-Saving 합치기
+     * 두 스케치의 키워드 합집합에 대해 개수를 더하되, 한쪽에 없는 키워드는 그쪽(가득 찬 경우)의 최소 개수를 개수와 오차에 더한다.
+     * 상위 capacity개만 남기고 (capacity+1)번째 개수를 남은 항목에서 뺀다. 결과가 입력 순서에 의존하지 않으므로
+     * 하위 노드를 어떤 순서로 합쳐도 같은 스케치가 된다.
+     */
+    public void merge(KeywordSketch other) {
+        long ownMinimum = minimumCount();
+        long otherMinimum = other.minimumCount();
+
+        Map<String, KeywordCount> combined = new HashMap<>();
+        for (KeywordCount entry : entries.values()) {
+            KeywordCount counterpart = other.entries.get(entry.getKeyword());
+            long count = entry.getCount() + (counterpart != null ? counterpart.getCount() : otherMinimum);
+            long error = entry.getError() + (counterpart != null ? counterpart.getError() : otherMinimum);
+            combined.put(entry.getKeyword(), new KeywordCount(entry.getKeyword(), count, error));
+        }
+        for (KeywordCount entry : other.entries.values()) {
+            if (!entries.containsKey(entry.getKeyword())) {
+                combined.put(entry.getKeyword(), new KeywordCount(entry.getKeyword(),
+                        entry.getCount() + ownMinimum, entry.getError() + ownMinimum));
+            }
+        }
+
+        List<KeywordCount> sorted = new ArrayList<>(combined.values());
+        sorted.sort(BY_COUNT_DESC);
+        long cutoff = sorted.size() > capacity ? sorted.get(capacity).getCount() : 0;
+
+        entries.clear();
+        for (KeywordCount entry : sorted.subList(0, Math.min(capacity, sorted.size()))) {
+            long count = entry.getCount() - cutoff;
+            if (count > 0) {
+                entries.put(entry.getKeyword(), new KeywordCount(entry.getKeyword(), count,
+                        Math.max(0, entry.getError() - cutoff)));
+            }
+        }
+    }
+
+    /**
+     * 가득 찬 스케치의 최소 개수 (스케치에 없는 키워드의 개수 상한). 여유가 있으면 없는 키워드는 실제로 0이다.
+     */
+    private long minimumCount() {
+        if (entries.size() < capacity) {
+            return 0;
+        }
+        return entries.values().stream().mapToLong(KeywordCount::getCount).min().orElse(0);
+    }
+
+    public List<String> top(int limit) {
+        return entries.values().stream()
+                .sorted(BY_COUNT_DESC)
+                .limit(limit)
+                .map(KeywordCount::getKeyword)
+                .toList();
+    }
+
+    public List<KeywordCount> toEntries() {
+        List<KeywordCount> sorted = new ArrayList<>(entries.values());
+        sorted.sort(BY_COUNT_DESC);
+        return sorted;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+}
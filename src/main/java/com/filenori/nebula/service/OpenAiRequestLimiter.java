@@ -0,0 +1,120 @@
+package com.filenori.nebula.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 모든 OpenAI 호출이 공유하는 동시 요청 한도 (요청 경로와 무관하게 레이트 리밋을 넘지 않도록)
+ * permit이 없으면 스레드를 막지 않고 대기열에 구독을 걸어 두었다가, 앞선 요청이 끝나 permit이 반환될 때 이어서 구독한다.
+ */
+@Component
+@Slf4j
+public class OpenAiRequestLimiter {
+
+    private static final int WAITING = 0;
+    private static final int GRANTED = 1;
+    private static final int CANCELLED = 2;
+
+    @Value("${openai.api.maxConcurrentRequests:4}")
+    private int maxConcurrentRequests;
+
+    private final Queue<Waiter> waiters = new ArrayDeque<>();
+    private int inUse;
+
+    /**
+     * permit을 얻은 뒤 요청을 구독하고, 완료/오류/취소 시 permit을 반환한다.
+     */
+    public <T> Mono<T> limit(Mono<T> request) {
+        return Mono.usingWhen(acquire(),
+                permit -> request,
+                Permit::release,
+                (permit, error) -> permit.release(),
+                Permit::release);
+    }
+
+    private Mono<Permit> acquire() {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink);
+            // 값이 전달되기 전에 취소된 경우에만 호출된다. 그 사이 permit을 넘겨받았다면 여기서 반환한다.
+            sink.onCancel(() -> {
+                if (waiter.state.compareAndSet(WAITING, CANCELLED)) {
+                    synchronized (this) {
+                        waiters.remove(waiter);
+                    }
+                } else {
+                    waiter.permit.release().subscribe();
+                }
+            });
+
+            boolean granted;
+            synchronized (this) {
+                granted = inUse < Math.max(1, maxConcurrentRequests);
+                if (granted) {
+                    inUse++;
+                } else {
+                    waiters.add(waiter);
+                }
+            }
+            if (!granted) {
+                log.debug("OpenAI request queued (waiting: {})", waitingCount());
+            } else if (waiter.state.compareAndSet(WAITING, GRANTED)) {
+                sink.success(waiter.permit);
+            } else {
+                // 이미 취소된 구독이 받은 permit은 바로 돌려준다
+                handOff();
+            }
+        });
+    }
+
+    /**
+     * 반환된 permit은 취소되지 않은 첫 대기자에게 바로 넘기고, 대기자가 없을 때만 사용 중 수를 줄인다.
+     */
+    private void handOff() {
+        Waiter next;
+        synchronized (this) {
+            do {
+                next = waiters.poll();
+            } while (next != null && !next.state.compareAndSet(WAITING, GRANTED));
+            if (next == null) {
+                inUse--;
+                return;
+            }
+        }
+        next.sink.success(next.permit);
+    }
+
+    private synchronized int waitingCount() {
+        return waiters.size();
+    }
+
+    private final class Waiter {
+        final MonoSink<Permit> sink;
+        final AtomicInteger state = new AtomicInteger(WAITING);
+        final Permit permit = new Permit();
+
+        Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+
+    private final class Permit {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        // 취소와 완료가 겹쳐도 한 번만 반환한다
+        Mono<Void> release() {
+            return Mono.fromRunnable(() -> {
+                if (released.compareAndSet(false, true)) {
+                    handOff();
+                }
+            });
+        }
+    }
+}
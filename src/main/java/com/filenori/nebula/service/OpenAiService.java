@@ -34,6 +34,14 @@ public class OpenAiService {
 
     private final WebClient openAiWebClient;
     private final ObjectMapper objectMapper; // JSON <-> Java 객체 변환기
+    private final OpenAiRequestLimiter openAiRequestLimiter;
+
+    /**
+     * 현재 설정된 모델명 (분석 결과 캐시 키로 사용)
+     */
+    public String getModel() {
+        return model;
+    }
 
     public Mono<FileNameResponseDto> requestFileNameToGpt(String prompt, String systemPrompt) {
         Map<String, Object> systemMessage = createSimpleMessage("system", systemPrompt);
@@ -63,6 +71,7 @@ public class OpenAiService {
                                 .then(Mono.error(new RuntimeException("OpenAI API returned error")))
                 )
                 .bodyToMono(String.class)
+                .transform(openAiRequestLimiter::limit)
                 .flatMap(this::extractOutputContent)
                 .doOnNext(this::logPrettyResponseContent)
                 .flatMap(content -> Mono.fromCallable(() -> objectMapper.readValue(content, FileNameResponseDto.class))
@@ -103,6 +112,7 @@ public class OpenAiService {
                                 .then(Mono.error(new RuntimeException("OpenAI API returned error")))
                 )
                 .bodyToMono(String.class)
+                .transform(openAiRequestLimiter::limit)
                 .doOnNext(this::logPrettyBatchResponseContent)
                 .flatMap(response -> Mono.fromCallable(() ->
                         extractBatchArrayResponse(response, prompts.size())
@@ -390,6 +400,7 @@ public class OpenAiService {
                                 .then(Mono.error(new RuntimeException("OpenAI API returned error")))
                 )
                 .bodyToMono(String.class)
+                .transform(openAiRequestLimiter::limit)
                 .doOnNext(this::logPrettyResponse)
                 .flatMap(response -> Mono.fromCallable(() ->
                         extractAndParseFolderRestructureResponse(response)
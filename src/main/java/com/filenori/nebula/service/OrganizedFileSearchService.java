@@ -1,20 +1,42 @@
 package com.filenori.nebula.service;
 
+import com.filenori.nebula.dto.request.OrganizedFileBatchSearchRequestDto;
+import com.filenori.nebula.dto.request.OrganizedFileBatchSearchRequestDto.QueryItem;
 import com.filenori.nebula.dto.request.OrganizedFileSearchRequestDto;
+import com.filenori.nebula.dto.response.FolderSearchResponseDto;
+import com.filenori.nebula.dto.response.OrganizedFileBatchSearchResponseDto;
+import com.filenori.nebula.dto.response.OrganizedFileBatchSearchResponseDto.QueryResultDto;
 import com.filenori.nebula.dto.response.OrganizedFileSearchResponseDto;
 import com.filenori.nebula.dto.response.OrganizedFileSearchResponseDto.SearchResultDto;
+import com.filenori.nebula.entity.SearchCursorDocument;
+import com.filenori.nebula.repository.SearchCursorRepository;
+import com.mongodb.client.MongoCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -23,49 +45,447 @@ import java.util.Optional;
 public class OrganizedFileSearchService {
 
     private static final String COLLECTION_NAME = "organized_files";
+    private static final String EMBEDDING_COLLECTION_NAME = "file_embeddings";
+    private static final String FOLDER_CENTROID_COLLECTION_NAME = "folder_centroids";
+    private static final int MAX_NUM_CANDIDATES = 10_000;
 
     private final MongoTemplate mongoTemplate;
     private final SageMakerEmbeddingService embeddingService;
+    private final SearchCursorRepository searchCursorRepository;
+    private final SearchMetricsRecorder searchMetricsRecorder;
 
-    @Value("${vectorSearch.indexName:organized_files_embedding_index}")
+    @Value("${vectorSearch.indexName:file_embeddings_embedding_index}")
     private String vectorIndexName;
 
     @Value("${vectorSearch.embeddingPath:embedding}")
     private String embeddingFieldPath;
 
+    @Value("${vectorSearch.folderIndexName:folder_centroids_embedding_index}")
+    private String folderVectorIndexName;
+
     @Value("${vectorSearch.defaultNumCandidates:120}")
     private int defaultNumCandidates;
 
     @Value("${vectorSearch.defaultMinScore:0.45}")
     private double defaultMinScore;
 
+    @Value("${vectorSearch.cursorTtlSeconds:600}")
+    private long cursorTtlSeconds;
+
+    @Value("${vectorSearch.maxPaginationDepth:1000}")
+    private int maxPaginationDepth;
+
+    @Value("${vectorSearch.batch.maxQueries:50}")
+    private int maxBatchQueries;
+
+    @Value("${vectorSearch.batch.concurrency:8}")
+    private int batchConcurrency;
+
     public OrganizedFileSearchResponseDto search(OrganizedFileSearchRequestDto requestDto) {
-        validateRequest(requestDto);
+        boolean cursorRequest = StringUtils.hasText(requestDto.getCursor());
+        boolean includeTimings = Boolean.TRUE.equals(requestDto.getIncludeTimings());
+        SearchTimings timings = searchMetricsRecorder.start(cursorRequest ? "cursor" : "query");
+        try {
+            timings.time(SearchTimings.VALIDATION, () -> validateRequest(requestDto));
 
-        ObjectId userId = new ObjectId(requestDto.getUserId());
+            ObjectId userId = new ObjectId(requestDto.getUserId());
+            if (cursorRequest) {
+                return continueSearch(userId, decodeCursor(requestDto.getCursor()), timings, includeTimings);
+            }
+            return searchByQuery(userId, requestDto, timings, includeTimings);
+        } finally {
+            searchMetricsRecorder.record(timings);
+        }
+    }
+
+    private OrganizedFileSearchResponseDto searchByQuery(ObjectId userId,
+                                                         OrganizedFileSearchRequestDto requestDto,
+                                                         SearchTimings timings,
+                                                         boolean includeTimings) {
         String query = requestDto.getQuery().trim();
-        int limit = Optional.ofNullable(requestDto.getLimit()).filter(l -> l > 0 && l <= 200).orElse(20);
-        int numCandidates = Optional.ofNullable(requestDto.getNumCandidates())
-                .filter(value -> value >= limit)
-                .orElse(Math.max(defaultNumCandidates, limit * 4));
-        double minScore = Optional.ofNullable(requestDto.getMinScore())
-                .filter(score -> score >= 0 && score <= 1)
-                .orElse(defaultMinScore);
+        int limit = resolveLimit(requestDto.getLimit());
+        int numCandidates = resolveNumCandidates(requestDto.getNumCandidates(), limit + 1);
+        double minScore = resolveMinScore(requestDto.getMinScore());
 
-        List<Double> queryVector = embeddingService.embedText(query)
+        List<Double> queryVector = timings.time(SearchTimings.EMBED, () -> embeddingService.embedText(query))
                 .orElseThrow(() -> new IllegalStateException("임베딩을 생성할 수 없습니다. SageMaker 설정을 확인해주세요."));
 
         long started = System.currentTimeMillis();
-        List<SearchResultDto> results = runVectorSearch(userId, queryVector, limit, numCandidates, minScore);
+        // 다음 페이지 존재 여부 확인을 위해 1건 더 조회
+        List<SearchResultDto> results = runVectorSearch(userId, queryVector, limit + 1, numCandidates, minScore,
+                null, limit + 1, timings);
         long tookMs = System.currentTimeMillis() - started;
 
+        String nextCursor = null;
+        if (results.size() > limit) {
+            results = new ArrayList<>(results.subList(0, limit));
+            SearchCursorDocument cursor = openCursor(userId, queryVector, limit, numCandidates, minScore);
+            nextCursor = encodeCursor(cursor.getId(), results.get(results.size() - 1), limit);
+        }
+
         return OrganizedFileSearchResponseDto.builder()
                 .results(results)
                 .total(results.size())
                 .tookMs(tookMs)
+                .nextCursor(nextCursor)
+                .timings(includeTimings ? timings.toMillis() : null)
+                .build();
+    }
+
+    /**
+     * 커서의 다음 페이지. 첫 이어보기에서 최대 조회 깊이까지 한 번만 벡터 검색해 순위를 커서에 저장하고,
+     * 이후 페이지는 저장된 순위에서 (lastScore, lastId) 다음 항목만 잘라 메타데이터를 조회한다.
+     * 페이지마다 numCandidates가 달라지며 순위가 흔들리거나 같은 탐색을 반복하지 않는다.
+     */
+    private OrganizedFileSearchResponseDto continueSearch(ObjectId userId,
+                                                          CursorToken token,
+                                                          SearchTimings timings,
+                                                          boolean includeTimings) {
+        SearchCursorDocument cursor = searchCursorRepository.findByIdAndUserId(token.cursorId(), userId)
+                .filter(found -> found.getExpiresAt() == null || found.getExpiresAt().isAfter(Instant.now()))
+                .orElseThrow(() -> new IllegalArgumentException("검색 커서가 만료되었거나 존재하지 않습니다."));
+
+        int pageSize = cursor.getPageSize();
+        if (token.offset() + pageSize + 1 > maxPaginationDepth) {
+            throw new IllegalArgumentException("검색 결과는 최대 " + maxPaginationDepth + "건까지 조회할 수 있습니다.");
+        }
+
+        long started = System.currentTimeMillis();
+        List<SearchCursorDocument.RankedResult> ranked = cursor.getRankedResults();
+        if (ranked == null) {
+            ranked = rankForPagination(userId, cursor, timings);
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(cursor.getId())),
+                    new Update().set("rankedResults", ranked), SearchCursorDocument.class);
+        }
+        timings.parameter("ranked", ranked.size());
+
+        // 직전 페이지 마지막 결과 (similarity 내림차순, _id 오름차순) 이후만
+        List<SearchCursorDocument.RankedResult> page = ranked.stream()
+                .filter(result -> result.getSimilarity() < token.lastScore()
+                        || (result.getSimilarity() == token.lastScore() && result.getFileId().compareTo(token.lastId()) > 0))
+                .limit(pageSize + 1L)
+                .toList();
+        boolean hasMore = page.size() > pageSize;
+        if (hasMore) {
+            page = page.subList(0, pageSize);
+        }
+
+        List<SearchResultDto> results = fetchRankedResults(userId, page, timings);
+        long tookMs = System.currentTimeMillis() - started;
+
+        String nextCursor = null;
+        if (hasMore && !page.isEmpty()) {
+            SearchCursorDocument.RankedResult last = page.get(page.size() - 1);
+            nextCursor = encodeCursor(cursor.getId(), last.getSimilarity(), last.getFileId(), token.offset() + pageSize);
+        }
+
+        return OrganizedFileSearchResponseDto.builder()
+                .results(results)
+                .total(results.size())
+                .tookMs(tookMs)
+                .nextCursor(nextCursor)
+                .timings(includeTimings ? timings.toMillis() : null)
+                .build();
+    }
+
+    /**
+     * 최대 조회 깊이까지의 (파일 ID, 점수) 순위. 메타데이터 조인 없이 file_embeddings만 읽는다.
+     */
+    private List<SearchCursorDocument.RankedResult> rankForPagination(ObjectId userId, SearchCursorDocument cursor,
+                                                                      SearchTimings timings) {
+        int numCandidates = Math.min(MAX_NUM_CANDIDATES, Math.max(cursor.getNumCandidates(), maxPaginationDepth * 4));
+        int limit = Math.min(maxPaginationDepth, numCandidates);
+        List<Document> pipeline = List.of(
+                new Document("$vectorSearch", new Document("index", vectorIndexName)
+                        .append("path", embeddingFieldPath)
+                        .append("queryVector", cursor.getQueryVector())
+                        .append("numCandidates", numCandidates)
+                        .append("limit", limit)
+                        .append("filter", new Document("userId", userId))),
+                new Document("$project", new Document("similarity", new Document("$meta", "vectorSearchScore"))),
+                new Document("$match", new Document("similarity", new Document("$gte", cursor.getMinScore()))),
+                new Document("$sort", new Document("similarity", -1).append("_id", 1)));
+
+        timings.parameter("index", vectorIndexName);
+        timings.parameter("limit", limit);
+        timings.parameter("numCandidates", numCandidates);
+        timings.parameter("minScore", cursor.getMinScore());
+
+        List<Document> documents = new ArrayList<>();
+        MongoCursor<Document> ranked = timings.time(SearchTimings.VECTOR_QUERY,
+                () -> mongoTemplate.getCollection(EMBEDDING_COLLECTION_NAME).aggregate(pipeline).cursor());
+        try (ranked) {
+            timings.time(SearchTimings.CURSOR_ITERATION, () -> ranked.forEachRemaining(documents::add));
+        }
+        return documents.stream()
+                .map(document -> new SearchCursorDocument.RankedResult(
+                        document.getObjectId("_id"), document.get("similarity", Number.class).doubleValue()))
+                .toList();
+    }
+
+    /**
+     * 순위 목록 한 페이지의 파일 메타데이터를 _id로 조회해 순위 순서대로 돌려준다. (그 사이 삭제된 파일은 빠진다)
+     */
+    private List<SearchResultDto> fetchRankedResults(ObjectId userId, List<SearchCursorDocument.RankedResult> page,
+                                                     SearchTimings timings) {
+        if (page.isEmpty()) {
+            return List.of();
+        }
+        List<ObjectId> ids = page.stream().map(SearchCursorDocument.RankedResult::getFileId).toList();
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("_id", new Document("$in", ids)).append("userId", userId)),
+                new Document("$project", resultProjection("$")));
+
+        Map<ObjectId, Document> documentById = new HashMap<>();
+        timings.time(SearchTimings.FETCH, () -> mongoTemplate.getCollection(COLLECTION_NAME).aggregate(pipeline)
+                .forEach(document -> documentById.put(document.getObjectId("_id"), document)));
+
+        return timings.time(SearchTimings.MAPPING, () -> page.stream()
+                .filter(result -> documentById.containsKey(result.getFileId()))
+                .map(result -> mapToDto(documentById.get(result.getFileId()).append("similarity", result.getSimilarity())))
+                .toList());
+    }
+
+    /**
+     * 폴더 검색 모드: 파일 대신 폴더 센트로이드(folder_centroids)를 대상으로 벡터 검색한다.
+     */
+    public FolderSearchResponseDto searchFolders(OrganizedFileSearchRequestDto requestDto) {
+        SearchTimings timings = searchMetricsRecorder.start("folders");
+        try {
+            timings.time(SearchTimings.VALIDATION, () -> {
+                validateRequest(requestDto);
+                if (!StringUtils.hasText(requestDto.getQuery())) {
+                    throw new IllegalArgumentException("폴더 검색은 cursor를 지원하지 않습니다. query가 필요합니다.");
+                }
+            });
+
+            ObjectId userId = new ObjectId(requestDto.getUserId());
+            String query = requestDto.getQuery().trim();
+            int limit = resolveLimit(requestDto.getLimit());
+            int numCandidates = resolveNumCandidates(requestDto.getNumCandidates(), limit);
+            double minScore = resolveMinScore(requestDto.getMinScore());
+
+            List<Double> queryVector = timings.time(SearchTimings.EMBED, () -> embeddingService.embedText(query))
+                    .orElseThrow(() -> new IllegalStateException("임베딩을 생성할 수 없습니다. SageMaker 설정을 확인해주세요."));
+
+            long started = System.currentTimeMillis();
+            List<FolderSearchResponseDto.FolderResultDto> results =
+                    runFolderVectorSearch(userId, queryVector, limit, numCandidates, minScore, timings);
+            long tookMs = System.currentTimeMillis() - started;
+
+            return FolderSearchResponseDto.builder()
+                    .results(results)
+                    .total(results.size())
+                    .tookMs(tookMs)
+                    .timings(Boolean.TRUE.equals(requestDto.getIncludeTimings()) ? timings.toMillis() : null)
+                    .build();
+        } finally {
+            searchMetricsRecorder.record(timings);
+        }
+    }
+
+    /**
+     * 저장된 파일 임베딩을 질의 벡터로 사용해 유사한 파일을 찾는다. (임베딩 호출 없음)
+     *
+     * @return 기준 파일이 없으면 Optional.empty()
+     */
+    public Optional<OrganizedFileSearchResponseDto> findSimilarFiles(String userId, String fileId,
+                                                                     Integer limit, Double minScore) {
+        SearchTimings timings = searchMetricsRecorder.start("similar");
+        try {
+            return findSimilarFiles(userId, fileId, limit, minScore, timings);
+        } finally {
+            searchMetricsRecorder.record(timings);
+        }
+    }
+
+    private Optional<OrganizedFileSearchResponseDto> findSimilarFiles(String userId, String fileId,
+                                                                      Integer limit, Double minScore,
+                                                                      SearchTimings timings) {
+        timings.time(SearchTimings.VALIDATION, () -> {
+            if (!ObjectId.isValid(userId) || !ObjectId.isValid(fileId)) {
+                throw new IllegalArgumentException("userId 또는 fileId 형식이 올바르지 않습니다.");
+            }
+        });
+
+        ObjectId userObjectId = new ObjectId(userId);
+        ObjectId fileObjectId = new ObjectId(fileId);
+        int resolvedLimit = resolveLimit(limit);
+        double resolvedMinScore = resolveMinScore(minScore);
+
+        // file_embeddings에도 userId가 있으므로 소유 확인과 임베딩 조회를 _id 조회 한 번으로 처리한다
+        Query sourceQuery = Query.query(Criteria.where("_id").is(fileObjectId).and("userId").is(userObjectId));
+        sourceQuery.fields().include(embeddingFieldPath);
+        Document source = timings.time(SearchTimings.FETCH,
+                () -> mongoTemplate.findOne(sourceQuery, Document.class, EMBEDDING_COLLECTION_NAME));
+        if (source == null) {
+            // 임베딩 문서가 없을 때만 파일 자체의 존재(소유)를 확인해 404와 빈 결과를 구분한다
+            Query ownerQuery = Query.query(Criteria.where("_id").is(fileObjectId).and("userId").is(userObjectId));
+            if (!timings.time(SearchTimings.FETCH, () -> mongoTemplate.exists(ownerQuery, COLLECTION_NAME))) {
+                return Optional.empty();
+            }
+        }
+
+        List<Double> sourceVector = source != null ? source.getList(embeddingFieldPath, Double.class) : null;
+        if (CollectionUtils.isEmpty(sourceVector)) {
+            log.info("File {} has no stored embedding. Returning empty similar-files result", fileId);
+            return Optional.of(OrganizedFileSearchResponseDto.builder()
+                    .results(List.of())
+                    .total(0)
+                    .tookMs(0)
+                    .build());
+        }
+
+        long started = System.currentTimeMillis();
+        // 기준 파일 자신이 최상위로 검색되므로 1건 더 조회한 뒤 제외
+        List<SearchResultDto> results = runVectorSearch(userObjectId, sourceVector, resolvedLimit + 1,
+                resolveNumCandidates(null, resolvedLimit + 1), resolvedMinScore,
+                new Document("_id", new Document("$ne", fileObjectId)), resolvedLimit, timings);
+        long tookMs = System.currentTimeMillis() - started;
+
+        return Optional.of(OrganizedFileSearchResponseDto.builder()
+                .results(results)
+                .total(results.size())
+                .tookMs(tookMs)
+                .build());
+    }
+
+    /**
+     * 여러 질의를 한 번에 검색한다.
+     * 임베딩은 단일 SageMaker 호출로 생성하고, 벡터 질의는 동시에 실행한 뒤 질의별로 묶어 반환한다.
+     */
+    public OrganizedFileBatchSearchResponseDto searchBatch(OrganizedFileBatchSearchRequestDto requestDto) {
+        SearchTimings timings = searchMetricsRecorder.start("batch");
+        try {
+            return searchBatch(requestDto, timings);
+        } finally {
+            searchMetricsRecorder.record(timings);
+        }
+    }
+
+    private OrganizedFileBatchSearchResponseDto searchBatch(OrganizedFileBatchSearchRequestDto requestDto,
+                                                            SearchTimings timings) {
+        timings.time(SearchTimings.VALIDATION, () -> validateBatchRequest(requestDto));
+
+        ObjectId userId = new ObjectId(requestDto.getUserId());
+        List<QueryItem> items = requestDto.getQueries();
+        timings.parameter("queries", items.size());
+
+        long started = System.currentTimeMillis();
+        List<Optional<List<Double>>> queryVectors = timings.time(SearchTimings.EMBED,
+                () -> embeddingService.embedTexts(items.stream()
+                        .map(item -> item.getQuery().trim())
+                        .toList()));
+        if (queryVectors.stream().noneMatch(Optional::isPresent)) {
+            throw new IllegalStateException("임베딩을 생성할 수 없습니다. SageMaker 설정을 확인해주세요.");
+        }
+
+        boolean includeTimings = Boolean.TRUE.equals(requestDto.getIncludeTimings());
+        // 항목 타이밍은 실행 시점에 만들어 항목별 total에 대기 시간이 섞이지 않게 한다
+        List<SearchTimings> itemTimings = Collections.synchronizedList(new ArrayList<>());
+
+        List<QueryResultDto> results = Flux.range(0, items.size())
+                .flatMapSequential(index -> Mono.fromCallable(() -> {
+                            SearchTimings itemTiming = timings.child("batch_item");
+                            itemTiming.parameter("query", index);
+                            itemTimings.add(itemTiming);
+                            return searchBatchItem(userId, items.get(index), queryVectors.get(index),
+                                    itemTiming, includeTimings);
+                        })
+                        .subscribeOn(Schedulers.boundedElastic()), Math.max(1, batchConcurrency))
+                .collectList()
+                .block();
+        long tookMs = System.currentTimeMillis() - started;
+        // 느린 검색 로그에서 질의별 numCandidates/limit을 구분할 수 있도록 항목 파라미터를 요청 순서대로 남긴다
+        synchronized (itemTimings) {
+            timings.parameter("items", itemTimings.stream()
+                    .map(SearchTimings::getParameters)
+                    .sorted(Comparator.comparingInt(parameters -> (Integer) parameters.get("query")))
+                    .toList());
+        }
+
+        return OrganizedFileBatchSearchResponseDto.builder()
+                .queries(results)
+                .tookMs(tookMs)
+                .timings(includeTimings ? timings.toMillis() : null)
                 .build();
     }
 
+    private QueryResultDto searchBatchItem(ObjectId userId,
+                                           QueryItem item,
+                                           Optional<List<Double>> queryVector,
+                                           SearchTimings timings,
+                                           boolean includeTimings) {
+        String query = item.getQuery().trim();
+        if (queryVector.isEmpty()) {
+            return QueryResultDto.builder()
+                    .query(query)
+                    .results(List.of())
+                    .total(0)
+                    .error("임베딩을 생성할 수 없습니다.")
+                    .build();
+        }
+
+        int limit = resolveLimit(item.getLimit());
+        int numCandidates = resolveNumCandidates(item.getNumCandidates(), limit);
+        double minScore = resolveMinScore(item.getMinScore());
+
+        try {
+            List<SearchResultDto> results = runVectorSearch(userId, queryVector.get(), limit, numCandidates, minScore,
+                    null, limit, timings);
+            return QueryResultDto.builder()
+                    .query(query)
+                    .results(results)
+                    .total(results.size())
+                    .timings(includeTimings ? timings.toMillis() : null)
+                    .build();
+        } catch (Exception e) {
+            log.error("Batch search query failed: '{}'", query, e);
+            return QueryResultDto.builder()
+                    .query(query)
+                    .results(List.of())
+                    .total(0)
+                    .error("검색 중 오류가 발생했습니다: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    private void validateBatchRequest(OrganizedFileBatchSearchRequestDto requestDto) {
+        if (!StringUtils.hasText(requestDto.getUserId())) {
+            throw new IllegalArgumentException("userId는 필수입니다.");
+        }
+        if (!ObjectId.isValid(requestDto.getUserId())) {
+            throw new IllegalArgumentException("userId 형식이 올바르지 않습니다.");
+        }
+        if (CollectionUtils.isEmpty(requestDto.getQueries())) {
+            throw new IllegalArgumentException("queries는 비어 있을 수 없습니다.");
+        }
+        if (requestDto.getQueries().size() > maxBatchQueries) {
+            throw new IllegalArgumentException("한 번에 최대 " + maxBatchQueries + "개의 질의만 검색할 수 있습니다.");
+        }
+        for (QueryItem item : requestDto.getQueries()) {
+            if (item == null || !StringUtils.hasText(item.getQuery())) {
+                throw new IllegalArgumentException("query는 비어 있을 수 없습니다.");
+            }
+        }
+    }
+
+    private int resolveLimit(Integer limit) {
+        return Optional.ofNullable(limit).filter(l -> l > 0 && l <= 200).orElse(20);
+    }
+
+    private int resolveNumCandidates(Integer numCandidates, int searchLimit) {
+        return Optional.ofNullable(numCandidates)
+                .filter(value -> value >= searchLimit)
+                .orElse(Math.max(defaultNumCandidates, searchLimit * 4));
+    }
+
+    private double resolveMinScore(Double minScore) {
+        return Optional.ofNullable(minScore)
+                .filter(score -> score >= 0 && score <= 1)
+                .orElse(defaultMinScore);
+    }
+
     private void validateRequest(OrganizedFileSearchRequestDto requestDto) {
         if (!StringUtils.hasText(requestDto.getUserId())) {
             throw new IllegalArgumentException("userId는 필수입니다.");
@@ -73,16 +493,65 @@ public class OrganizedFileSearchService {
         if (!ObjectId.isValid(requestDto.getUserId())) {
             throw new IllegalArgumentException("userId 형식이 올바르지 않습니다.");
         }
-        if (!StringUtils.hasText(requestDto.getQuery())) {
+        if (!StringUtils.hasText(requestDto.getQuery()) && !StringUtils.hasText(requestDto.getCursor())) {
             throw new IllegalArgumentException("query는 비어 있을 수 없습니다.");
         }
     }
 
+    private SearchCursorDocument openCursor(ObjectId userId,
+                                            List<Double> queryVector,
+                                            int pageSize,
+                                            int numCandidates,
+                                            double minScore) {
+        Instant now = Instant.now();
+        return searchCursorRepository.save(SearchCursorDocument.builder()
+                .userId(userId)
+                .queryVector(queryVector)
+                .pageSize(pageSize)
+                .numCandidates(numCandidates)
+                .minScore(minScore)
+                .createdAt(now)
+                .expiresAt(now.plus(Duration.ofSeconds(cursorTtlSeconds)))
+                .build());
+    }
+
+    private String encodeCursor(ObjectId cursorId, SearchResultDto last, int offset) {
+        return encodeCursor(cursorId, last.getSimilarity(), new ObjectId(last.getId()), offset);
+    }
+
+    private String encodeCursor(ObjectId cursorId, double lastScore, ObjectId lastId, int offset) {
+        String raw = cursorId.toHexString() + "|" + lastScore + "|" + lastId.toHexString() + "|" + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private CursorToken decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("cursor 형식이 올바르지 않습니다.");
+            }
+            return new CursorToken(
+                    new ObjectId(parts[0]),
+                    Double.parseDouble(parts[1]),
+                    new ObjectId(parts[2]),
+                    Integer.parseInt(parts[3]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("cursor 형식이 올바르지 않습니다.", e);
+        }
+    }
+
+    private record CursorToken(ObjectId cursorId, double lastScore, ObjectId lastId, int offset) {
+    }
+
     private List<SearchResultDto> runVectorSearch(ObjectId userId,
                                                   List<Double> queryVector,
-                                                  int limit,
+                                                  int searchLimit,
                                                   int numCandidates,
-                                                  double minScore) {
+                                                  double minScore,
+                                                  Document extraMatch,
+                                                  int pageLimit,
+                                                  SearchTimings timings) {
         List<Document> pipeline = new ArrayList<>();
 
         Document filter = new Document("userId", userId);
@@ -92,34 +561,106 @@ public class OrganizedFileSearchService {
                         .append("path", embeddingFieldPath)
                         .append("queryVector", queryVector)
                         .append("numCandidates", numCandidates)
-                        .append("limit", limit)
+                        .append("limit", searchLimit)
                         .append("filter", filter)
         );
 
+        Document match = new Document("similarity", new Document("$gte", minScore));
+        if (extraMatch != null) {
+            match = new Document("$and", List.of(match, extraMatch));
+        }
+
         pipeline.add(vectorSearchStage);
         pipeline.add(new Document("$addFields", new Document("similarity",
                 new Document("$meta", "vectorSearchScore"))));
-        pipeline.add(new Document("$match", new Document("similarity",
-                new Document("$gte", minScore))));
-        pipeline.add(new Document("$project",
-                new Document("koreanFileName", 1)
-                        .append("englishFileName", 1)
-                        .append("originalRelativePath", 1)
-                        .append("paraBucket", 1)
+        pipeline.add(new Document("$match", match));
+        // 동점 점수의 순서를 고정해야 커서 기반 이어보기가 결과를 건너뛰지 않는다
+        pipeline.add(new Document("$sort", new Document("similarity", -1).append("_id", 1)));
+        pipeline.add(new Document("$limit", pageLimit));
+        // 벡터는 file_embeddings에만 있으므로 최종 페이지 항목에 대해서만 파일 메타데이터를 조인한다
+        pipeline.add(new Document("$lookup", new Document("from", COLLECTION_NAME)
+                .append("localField", "_id")
+                .append("foreignField", "_id")
+                .append("as", "file")));
+        pipeline.add(new Document("$unwind", "$file"));
+        pipeline.add(new Document("$project", resultProjection("$file.").append("similarity", 1)));
+
+        timings.parameter("index", vectorIndexName);
+        timings.parameter("limit", searchLimit);
+        timings.parameter("numCandidates", numCandidates);
+        timings.parameter("minScore", minScore);
+        timings.parameter("continuation", extraMatch != null);
+
+        List<Document> documents = new ArrayList<>();
+        MongoCursor<Document> cursor = timings.time(SearchTimings.VECTOR_QUERY,
+                () -> mongoTemplate.getCollection(EMBEDDING_COLLECTION_NAME).aggregate(pipeline).cursor());
+        try (cursor) {
+            timings.time(SearchTimings.CURSOR_ITERATION, () -> cursor.forEachRemaining(documents::add));
+        }
+
+        return timings.time(SearchTimings.MAPPING, () -> documents.stream()
+                .map(this::mapToDto)
+                .toList());
+    }
+
+    private List<FolderSearchResponseDto.FolderResultDto> runFolderVectorSearch(ObjectId userId,
+                                                                               List<Double> queryVector,
+                                                                               int limit,
+                                                                               int numCandidates,
+                                                                               double minScore,
+                                                                               SearchTimings timings) {
+        List<Document> pipeline = List.of(
+                new Document("$vectorSearch",
+                        new Document("index", folderVectorIndexName)
+                                .append("path", "embedding")
+                                .append("queryVector", queryVector)
+                                .append("numCandidates", numCandidates)
+                                .append("limit", limit)
+                                .append("filter", new Document("userId", userId))),
+                new Document("$addFields", new Document("similarity", new Document("$meta", "vectorSearchScore"))),
+                new Document("$match", new Document("similarity", new Document("$gte", minScore))),
+                new Document("$project", new Document("paraBucket", 1)
                         .append("paraFolder", 1)
-                        .append("keywords", 1)
-                        .append("reason", 1)
-                        .append("sizeBytes", 1)
-                        .append("modifiedAt", 1)
-                        .append("similarity", 1)
-        ));
+                        .append("memberCount", 1)
+                        .append("similarity", 1))
+        );
+
+        timings.parameter("index", folderVectorIndexName);
+        timings.parameter("limit", limit);
+        timings.parameter("numCandidates", numCandidates);
+        timings.parameter("minScore", minScore);
+
+        List<Document> documents = new ArrayList<>();
+        MongoCursor<Document> cursor = timings.time(SearchTimings.VECTOR_QUERY,
+                () -> mongoTemplate.getCollection(FOLDER_CENTROID_COLLECTION_NAME).aggregate(pipeline).cursor());
+        try (cursor) {
+            timings.time(SearchTimings.CURSOR_ITERATION, () -> cursor.forEachRemaining(documents::add));
+        }
 
-        List<SearchResultDto> results = new ArrayList<>();
-        mongoTemplate.getCollection(COLLECTION_NAME)
-                .aggregate(pipeline)
-                .forEach(document -> results.add(mapToDto(document)));
+        return timings.time(SearchTimings.MAPPING, () -> documents.stream()
+                .map(document -> {
+                    Number memberCount = document.get("memberCount", Number.class);
+                    Double similarity = document.getDouble("similarity");
+                    return FolderSearchResponseDto.FolderResultDto.builder()
+                            .paraBucket(document.getString("paraBucket"))
+                            .paraFolder(document.getString("paraFolder"))
+                            .fileCount(memberCount != null ? memberCount.longValue() : 0L)
+                            .similarity(similarity != null ? similarity : 0.0)
+                            .build();
+                })
+                .toList());
+    }
 
-        return results;
+    /**
+     * 검색 결과에 담는 파일 메타데이터 필드 ($lookup 결과는 "$file.", organized_files 직접 조회는 "$")
+     */
+    private static Document resultProjection(String fieldPrefix) {
+        Document projection = new Document();
+        for (String field : List.of("koreanFileName", "englishFileName", "originalRelativePath", "paraBucket",
+                "paraFolder", "keywords", "reason", "sizeBytes", "modifiedAt")) {
+            projection.append(field, fieldPrefix + field);
+        }
+        return projection;
     }
 
     private SearchResultDto mapToDto(Document document) {
@@ -141,4 +682,3 @@ public class OrganizedFileSearchService {
                 .build();
     }
 }
-
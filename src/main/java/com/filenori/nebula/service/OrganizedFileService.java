@@ -1,26 +1,48 @@
 package com.filenori.nebula.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.filenori.nebula.dto.request.KeywordRequestDto;
 import com.filenori.nebula.dto.request.OrganizedFileSaveRequestDto;
 import com.filenori.nebula.dto.request.OrganizedFileSaveWithGenerationRequestDto;
 import com.filenori.nebula.dto.response.FileNameGenerationResultDto;
+import com.filenori.nebula.dto.response.OrganizedFilePageResponseDto;
 import com.filenori.nebula.dto.response.OrganizedFileSaveResponseDto;
+import com.filenori.nebula.dto.response.OrganizedFileSummaryDto;
 import com.filenori.nebula.entity.OrganizedFileDocument;
+import com.filenori.nebula.entity.OrganizedFileTombstoneDocument;
+import com.filenori.nebula.event.OrganizedFileChangedEvent;
+import com.filenori.nebula.repository.BulkUpsertResult;
+import com.filenori.nebula.repository.FileEmbeddingRepository;
 import com.filenori.nebula.repository.OrganizedFileRepository;
+import com.filenori.nebula.repository.OrganizedFileTombstoneRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.bson.types.ObjectId;
-import org.springframework.dao.DuplicateKeyException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -30,6 +52,29 @@ public class OrganizedFileService {
     private final OrganizedFileRepository organizedFileRepository;
     private final PromptService promptService;
     private final SageMakerEmbeddingService embeddingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MongoTemplate mongoTemplate;
+    private final ChangeSequenceService changeSequenceService;
+    private final OrganizedFileTombstoneRepository tombstoneRepository;
+    private final FileEmbeddingRepository fileEmbeddingRepository;
+    private final ObjectMapper objectMapper;
+
+    private static final String[] PARA_BUCKETS = {"Projects", "Areas", "Resources", "Archive"};
+
+    @Value("${organizedFiles.bulk.chunkSize:500}")
+    private int bulkChunkSize;
+
+    @Value("${organizedFiles.list.defaultPageSize:100}")
+    private int defaultPageSize;
+
+    @Value("${organizedFiles.list.maxPageSize:1000}")
+    private int maxPageSize;
+
+    @Value("${organizedFiles.delete.chunkSize:5000}")
+    private int deleteChunkSize;
+
+    @Value("${organizedFiles.delete.maxIds:10000}")
+    private int maxDeleteIds;
 
     /**
      * 키워드를 기반으로 파일명을 자동 생성한 후 저장
@@ -60,7 +105,8 @@ public class OrganizedFileService {
             KeywordRequestDto keywordRequest = convertToKeywordRequest(requestDto);
             log.info("Generating file names for {} files using OpenAI", keywordRequest.getEntries().size());
 
-            List<FileNameGenerationResultDto> generatedResults = promptService.generateFileNameFromKeywords(keywordRequest);
+            // 생성 결과는 여기서 저장하지 않고 임베딩과 함께 아래에서 한 번에 저장
+            List<FileNameGenerationResultDto> generatedResults = promptService.generateFileNameFromKeywords(keywordRequest, false);
             log.info("Generated {} file name results", generatedResults.size());
 
             // 2. 생성된 결과를 OrganizedFileSaveRequestDto로 변환
@@ -114,9 +160,11 @@ public class OrganizedFileService {
         // 기존 파일들 조회 (업데이트 vs 신규 생성 판단용)
         Map<String, OrganizedFileDocument> existingFileMap = getExistingFiles(userId, files);
 
-        // 배치 처리
+        // 문서 변환 (변환 실패 항목은 벌크 쓰기 대상에서 제외)
         List<OrganizedFileSaveResponseDto.SavedFileDto> savedFiles = new ArrayList<>();
         List<String> errorMessages = new ArrayList<>();
+        List<OrganizedFileSaveRequestDto.OrganizedFileEntryDto> convertedEntries = new ArrayList<>();
+        List<OrganizedFileDocument.OrganizedFileDocumentBuilder> builders = new ArrayList<>();
         int savedCount = 0;
         int updatedCount = 0;
         int failedCount = 0;
@@ -124,44 +172,65 @@ public class OrganizedFileService {
         for (OrganizedFileSaveRequestDto.OrganizedFileEntryDto fileDto : files) {
             try {
                 OrganizedFileDocument existing = existingFileMap.get(fileDto.getOriginalRelativePath());
-                OrganizedFileDocument document = convertToDocument(requestDto, fileDto, existing, userId);
-                
-                OrganizedFileDocument saved = organizedFileRepository.save(document);
-                
-                boolean isUpdate = existing != null;
-                if (isUpdate) {
-                    updatedCount++;
-                } else {
-                    savedCount++;
-                }
-
-                savedFiles.add(OrganizedFileSaveResponseDto.SavedFileDto.builder()
-                        .id(saved.getId().toString())
-                        .originalRelativePath(saved.getOriginalRelativePath())
-                        .koreanFileName(saved.getKoreanFileName())
-                        .englishFileName(saved.getEnglishFileName())
-                        .paraBucket(saved.getParaBucket())
-                        .paraFolder(saved.getParaFolder())
-                        .operation(isUpdate ? "UPDATED" : "CREATED")
-                        .build());
-
-                log.debug("Successfully {} file: {}", isUpdate ? "updated" : "saved", 
-                         fileDto.getOriginalRelativePath());
-
-            } catch (DuplicateKeyException e) {
+                builders.add(toDocumentBuilder(requestDto, fileDto, existing, userId));
+                convertedEntries.add(fileDto);
+            } catch (Exception e) {
                 failedCount++;
-                String errorMsg = String.format("Duplicate key error for file '%s': %s", 
+                String errorMsg = String.format("Error processing file '%s': %s",
                                                fileDto.getOriginalRelativePath(), e.getMessage());
                 errorMessages.add(errorMsg);
                 log.error(errorMsg, e);
-                
-            } catch (Exception e) {
+            }
+        }
+
+        // 임베딩은 파일별 호출 대신 배치 호출로 한 번에 생성
+        List<Optional<List<Double>>> embeddings = embeddingService.embedTexts(convertedEntries.stream()
+                .map(this::buildEmbeddingText)
+                .toList());
+        List<OrganizedFileDocument> documents = new ArrayList<>(builders.size());
+        for (int i = 0; i < builders.size(); i++) {
+            OrganizedFileDocument.OrganizedFileDocumentBuilder builder = builders.get(i);
+            applyEmbedding(builder, embeddings.get(i),
+                    existingFileMap.get(convertedEntries.get(i).getOriginalRelativePath()));
+            documents.add(builder.build());
+        }
+
+        BulkUpsertResult bulkResult = persistDocuments(userId, documents, existingFileMap);
+
+        for (int i = 0; i < documents.size(); i++) {
+            OrganizedFileDocument document = documents.get(i);
+            BulkUpsertResult.ItemResult item = bulkResult.items().get(i);
+            String path = document.getOriginalRelativePath();
+
+            if (!item.isSuccess()) {
                 failedCount++;
-                String errorMsg = String.format("Error processing file '%s': %s", 
-                                               fileDto.getOriginalRelativePath(), e.getMessage());
+                String errorMsg = item.status() == BulkUpsertResult.Status.DUPLICATE_KEY
+                        ? String.format("Duplicate key error for file '%s': %s", path, item.errorMessage())
+                        : String.format("Error processing file '%s': %s", path, item.errorMessage());
                 errorMessages.add(errorMsg);
-                log.error(errorMsg, e);
+                log.error(errorMsg);
+                continue;
             }
+
+            ObjectId id = item.id();
+            boolean isUpdate = item.status() == BulkUpsertResult.Status.UPDATED;
+            if (isUpdate) {
+                updatedCount++;
+            } else {
+                savedCount++;
+            }
+
+            savedFiles.add(OrganizedFileSaveResponseDto.SavedFileDto.builder()
+                    .id(id != null ? id.toString() : null)
+                    .originalRelativePath(document.getOriginalRelativePath())
+                    .koreanFileName(document.getKoreanFileName())
+                    .englishFileName(document.getEnglishFileName())
+                    .paraBucket(document.getParaBucket())
+                    .paraFolder(document.getParaFolder())
+                    .operation(isUpdate ? "UPDATED" : "CREATED")
+                    .build());
+
+            log.debug("Successfully {} file: {}", isUpdate ? "updated" : "saved", path);
         }
 
         log.info("=== saveOrganizedFiles completed ===");
@@ -179,6 +248,40 @@ public class OrganizedFileService {
                 .build();
     }
 
+    /**
+     * (userId, originalRelativePath) 기준 unordered 벌크 upsert 후 성공한 항목의 변경 이벤트를 발행한다.
+     *
+     * @param existingByPath originalRelativePath별 현재 저장된 문서 (변경 필드 계산과 이벤트의 before로 사용)
+     * @return 입력 순서와 동일한 항목별 결과
+     */
+    public BulkUpsertResult persistDocuments(ObjectId userId,
+                                             List<OrganizedFileDocument> documents,
+                                             Map<String, OrganizedFileDocument> existingByPath) {
+        long changeSeq = changeSequenceService.next(userId);
+        BulkUpsertResult bulkResult;
+        try {
+            bulkResult = organizedFileRepository.bulkUpsert(documents, existingByPath, changeSeq, bulkChunkSize);
+        } finally {
+            changeSequenceService.complete(userId, changeSeq);
+        }
+
+        List<OrganizedFileChangedEvent.FileChange> changes = new ArrayList<>();
+        for (int i = 0; i < documents.size(); i++) {
+            BulkUpsertResult.ItemResult item = bulkResult.items().get(i);
+            if (item.isSuccess()) {
+                OrganizedFileDocument document = documents.get(i);
+                changes.add(new OrganizedFileChangedEvent.FileChange(
+                        existingByPath.get(document.getOriginalRelativePath()),
+                        document.toBuilder().id(item.id()).changeSeq(changeSeq).build()));
+            }
+        }
+
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new OrganizedFileChangedEvent(userId, changes));
+        }
+        return bulkResult;
+    }
+
     private ValidationResult validateGenerationRequest(OrganizedFileSaveWithGenerationRequestDto requestDto) {
         List<String> errors = new ArrayList<>();
 
@@ -256,7 +359,8 @@ public class OrganizedFileService {
             return Map.of();
         }
 
-        return organizedFileRepository.findByUserIdAndOriginalRelativePathIn(userId, relativePaths)
+        return organizedFileRepository.attachEmbeddings(
+                        organizedFileRepository.findByUserIdAndOriginalRelativePathIn(userId, relativePaths))
                 .stream()
                 .collect(Collectors.toMap(
                         OrganizedFileDocument::getOriginalRelativePath,
@@ -265,14 +369,15 @@ public class OrganizedFileService {
                 ));
     }
 
-    private OrganizedFileDocument convertToDocument(OrganizedFileSaveRequestDto requestDto,
-                                                     OrganizedFileSaveRequestDto.OrganizedFileEntryDto fileDto,
-                                                     OrganizedFileDocument existing,
-                                                     ObjectId userId) {
+    private OrganizedFileDocument.OrganizedFileDocumentBuilder toDocumentBuilder(OrganizedFileSaveRequestDto requestDto,
+                                                                                  OrganizedFileSaveRequestDto.OrganizedFileEntryDto fileDto,
+                                                                                  OrganizedFileDocument existing,
+                                                                                  ObjectId userId) {
         
-        String paraFullPath = buildParaFullPath(fileDto.getParaBucket(), fileDto.getParaFolder());
+        String paraBucket = canonicalizeBucket(fileDto.getParaBucket());
+        String paraFullPath = buildParaFullPath(paraBucket, fileDto.getParaFolder());
 
-        OrganizedFileDocument.OrganizedFileDocumentBuilder builder = OrganizedFileDocument.builder()
+        return OrganizedFileDocument.builder()
                 .id(existing != null ? existing.getId() : null)
                 .userId(userId)
                 .baseDirectory(requestDto.getBaseDirectory())
@@ -284,25 +389,24 @@ public class OrganizedFileService {
                 .keywords(fileDto.getKeywords() != null ? List.copyOf(fileDto.getKeywords()) : null)
                 .koreanFileName(fileDto.getKoreanFileName())
                 .englishFileName(fileDto.getEnglishFileName())
-                .paraBucket(fileDto.getParaBucket())
+                .paraBucket(paraBucket)
                 .paraFolder(fileDto.getParaFolder())
                 .paraFullPath(paraFullPath)
+                .folderPath(FolderPaths.normalize(fileDto.getParaFolder(), paraBucket))
                 .reason(fileDto.getReason())
                 .createdAt(existing != null && existing.getCreatedAt() != null
                         ? existing.getCreatedAt()
                         : Instant.now());
-
-        enrichWithEmbedding(builder, fileDto, existing);
-
-        return builder.build();
     }
 
-    private void enrichWithEmbedding(OrganizedFileDocument.OrganizedFileDocumentBuilder builder,
-                                     OrganizedFileSaveRequestDto.OrganizedFileEntryDto fileDto,
-                                     OrganizedFileDocument existing) {
-        String embeddingInput = buildEmbeddingText(fileDto);
-        embeddingService.embedText(embeddingInput).ifPresentOrElse(embedding -> builder
-                        .embedding(embedding)
+    /**
+     * 임베딩 생성에 실패한 경우 기존 문서의 임베딩을 유지한다.
+     */
+    private void applyEmbedding(OrganizedFileDocument.OrganizedFileDocumentBuilder builder,
+                                Optional<List<Double>> embedding,
+                                OrganizedFileDocument existing) {
+        embedding.ifPresentOrElse(vector -> builder
+                        .embedding(vector)
                         .embeddingUpdatedAt(Instant.now()),
                 () -> {
                     if (existing != null && existing.getEmbedding() != null) {
@@ -366,6 +470,23 @@ public class OrganizedFileService {
         }
     }
 
+    /**
+     * 변경분 동기화 클라이언트가 삭제를 알 수 있도록 툼스톤을 남긴다.
+     */
+    private void recordTombstones(List<OrganizedFileDocument> deleted, long changeSeq) {
+        Instant now = Instant.now();
+        List<OrganizedFileTombstoneDocument> tombstones = deleted.stream()
+                .map(document -> OrganizedFileTombstoneDocument.builder()
+                        .userId(document.getUserId())
+                        .fileId(document.getId())
+                        .originalRelativePath(document.getOriginalRelativePath())
+                        .changeSeq(changeSeq)
+                        .deletedAt(now)
+                        .build())
+                .toList();
+        tombstoneRepository.insert(tombstones);
+    }
+
     public boolean deleteOrganizedFile(String userId, String fileId) {
         log.info("=== Deleting organized file ===");
         log.info("User: {}, File ID: {}", userId, fileId);
@@ -374,13 +495,25 @@ public class OrganizedFileService {
             ObjectId userObjectId = new ObjectId(userId);
             ObjectId fileObjectId = new ObjectId(fileId);
 
-            boolean exists = organizedFileRepository.existsByIdAndUserId(fileObjectId, userObjectId);
-            if (!exists) {
+            // 조회와 삭제를 한 번에 (삭제 전 문서는 파생 데이터 갱신에 사용)
+            OrganizedFileDocument existing = mongoTemplate.findAndRemove(
+                    Query.query(Criteria.where("_id").is(fileObjectId).and("userId").is(userObjectId)),
+                    OrganizedFileDocument.class);
+            if (existing == null) {
                 log.warn("File not found or not owned by user: {}, {}", userId, fileId);
                 return false;
             }
+            existing = organizedFileRepository.attachEmbeddings(List.of(existing)).get(0);
+            fileEmbeddingRepository.deleteById(fileObjectId);
 
-            organizedFileRepository.deleteById(fileObjectId);
+            long changeSeq = changeSequenceService.next(userObjectId);
+            try {
+                recordTombstones(List.of(existing), changeSeq);
+            } finally {
+                changeSequenceService.complete(userObjectId, changeSeq);
+            }
+            eventPublisher.publishEvent(new OrganizedFileChangedEvent(userObjectId,
+                    List.of(new OrganizedFileChangedEvent.FileChange(existing, null))));
             log.info("Successfully deleted file: {}", fileId);
             return true;
 
@@ -393,16 +526,241 @@ public class OrganizedFileService {
         }
     }
 
-    public List<OrganizedFileDocument> getAllOrganizedFiles(String userId) {
-        log.info("=== Getting all organized files for user: {} ===", userId);
+    /**
+     * ID 목록으로 일괄 삭제 (사용자 소유 문서만)
+     *
+     * @return 삭제된 문서 수
+     */
+    public long deleteOrganizedFiles(String userId, List<String> fileIds) {
+        ObjectId userObjectId = parseObjectId(userId, "userId");
+        if (fileIds == null || fileIds.isEmpty()) {
+            throw new IllegalArgumentException("ids must not be empty");
+        }
+        if (fileIds.size() > maxDeleteIds) {
+            throw new IllegalArgumentException("ids must not exceed " + maxDeleteIds);
+        }
+
+        List<ObjectId> ids = fileIds.stream()
+                .map(fileId -> parseObjectId(fileId, "fileId"))
+                .distinct()
+                .toList();
+        return deleteMatching(userObjectId, Criteria.where("_id").in(ids));
+    }
+
+    /**
+     * 폴더(하위 폴더 포함) 또는 버킷 전체 삭제
+     *
+     * @param paraFolder null 또는 빈 값이면 버킷 전체
+     * @return 삭제된 문서 수
+     */
+    public long deleteFolder(String userId, String paraBucket, String paraFolder) {
+        ObjectId userObjectId = parseObjectId(userId, "userId");
+        if (paraBucket == null || paraBucket.isBlank()) {
+            throw new IllegalArgumentException("paraBucket is required");
+        }
 
-        try {
-            ObjectId userObjectId = new ObjectId(userId);
-            return organizedFileRepository.findByUserId(userObjectId);
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid userId format: {}", userId, e);
+        Criteria criteria = bucketCriteria(paraBucket);
+        String folderPath = FolderPaths.normalize(paraFolder, paraBucket);
+        if (!folderPath.isEmpty()) {
+            criteria = criteria.andOperator(FolderPaths.subtreeCriteria(folderPath));
+        }
+        return deleteMatching(userObjectId, criteria);
+    }
+
+    /**
+     * 조건에 맞는 사용자 문서를 청크 단위로 읽어 _id 기준 deleteMany로 삭제한다.
+     * 삭제 전 문서(통계/센트로이드 계산에 필요한 필드만)를 이벤트로 넘겨 파생 데이터를 같은 흐름에서 갱신하고 툼스톤을 남긴다.
+     * 조건 그대로 한 번에 deleteMany하지 않는 이유: 읽기와 삭제 사이에 새로 저장된 문서까지 지워지면
+     * 그 문서는 이벤트와 툼스톤 없이 사라진다. _id로 지우면 읽은 문서만 삭제되어 둘이 항상 일치한다.
+     */
+    private long deleteMatching(ObjectId userId, Criteria criteria) {
+        Query query = Query.query(Criteria.where("userId").is(userId).andOperator(criteria));
+        query.fields().include("userId", "originalRelativePath", "paraBucket", "paraFolder",
+                "directory", "development", "sizeBytes", "keywords");
+
+        long changeSeq = 0;
+        long deletedCount = 0;
+        List<OrganizedFileDocument> chunk = new ArrayList<>(deleteChunkSize);
+        try (Stream<OrganizedFileDocument> documents = mongoTemplate.stream(query, OrganizedFileDocument.class)) {
+            Iterator<OrganizedFileDocument> iterator = documents.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() >= deleteChunkSize || !iterator.hasNext()) {
+                    if (changeSeq == 0) {
+                        changeSeq = changeSequenceService.next(userId);
+                    }
+                    deletedCount += deleteChunk(userId, chunk, changeSeq);
+                    chunk = new ArrayList<>(deleteChunkSize);
+                }
+            }
+        } finally {
+            if (changeSeq != 0) {
+                changeSequenceService.complete(userId, changeSeq);
+            }
+        }
+
+        log.info("Deleted {} organized files for user {}", deletedCount, userId);
+        return deletedCount;
+    }
+
+    private long deleteChunk(ObjectId userId, List<OrganizedFileDocument> chunk, long changeSeq) {
+        List<ObjectId> ids = chunk.stream().map(OrganizedFileDocument::getId).toList();
+        // 센트로이드 차감에 필요한 임베딩은 삭제 전에 읽어 둔다
+        List<OrganizedFileDocument> removed = organizedFileRepository.attachEmbeddings(chunk);
+        long deleted = mongoTemplate.remove(
+                Query.query(Criteria.where("userId").is(userId).and("_id").in(ids)),
+                OrganizedFileDocument.class).getDeletedCount();
+        fileEmbeddingRepository.deleteAllById(ids);
+
+        recordTombstones(chunk, changeSeq);
+        eventPublisher.publishEvent(new OrganizedFileChangedEvent(userId, removed.stream()
+                .map(document -> new OrganizedFileChangedEvent.FileChange(document, null))
+                .toList()));
+        return deleted;
+    }
+
+    /**
+     * ID로 단건 조회 (_id 인덱스 사용)
+     */
+    public Optional<OrganizedFileDocument> getOrganizedFile(String userId, String fileId) {
+        return organizedFileRepository.findByIdAndUserId(parseObjectId(fileId, "fileId"), parseObjectId(userId, "userId"));
+    }
+
+    /**
+     * _id 기준 키셋 페이지네이션 목록 조회 (임베딩 제외)
+     *
+     * @param paraBucket null이면 전체 버킷
+     * @param after      이전 페이지의 nextCursor (첫 페이지는 null)
+     */
+    public OrganizedFilePageResponseDto listOrganizedFiles(String userId, String paraBucket, String after, Integer limit) {
+        Criteria criteria = ownerCriteria(parseObjectId(userId, "userId"), paraBucket);
+        if (after != null && !after.isBlank()) {
+            criteria = criteria.and("_id").gt(parseObjectId(after, "cursor"));
+        }
+
+        int pageSize = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+        Query query = summaryQuery(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(pageSize + 1);
+
+        List<OrganizedFileDocument> documents = mongoTemplate.find(query, OrganizedFileDocument.class);
+        boolean hasMore = documents.size() > pageSize;
+        List<OrganizedFileSummaryDto> items = documents.stream()
+                .limit(pageSize)
+                .map(this::toSummary)
+                .toList();
+
+        return OrganizedFilePageResponseDto.builder()
+                .items(items)
+                .size(items.size())
+                .nextCursor(hasMore ? items.get(items.size() - 1).getId() : null)
+                .build();
+    }
+
+    /**
+     * 전체 목록을 Mongo 커서에서 읽는 즉시 JSON 배열로 출력 (전체를 메모리에 올리지 않음)
+     *
+     * @param paraBucket null이면 전체 버킷
+     */
+    public void streamOrganizedFiles(ObjectId userId, String paraBucket, OutputStream outputStream) throws IOException {
+        Query query = summaryQuery(ownerCriteria(userId, paraBucket));
+        if (paraBucket != null) {
+            query.withHint("idx_user_bucket_folder");
+        }
+
+        long count = 0;
+        try (Stream<OrganizedFileDocument> documents = mongoTemplate.stream(query, OrganizedFileDocument.class);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.writeStartArray();
+            Iterator<OrganizedFileDocument> iterator = documents.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(toSummary(iterator.next()));
+                count++;
+            }
+            generator.writeEndArray();
+        }
+        log.info("Streamed {} organized files for user: {}, bucket: {}", count, userId, paraBucket);
+    }
+
+    /**
+     * PARA 버킷명을 저장 형식(Projects/Areas/Resources/Archive)으로 맞춘다. 인덱스 조회는 대소문자를 구분하기 때문.
+     */
+    public static String canonicalizeBucket(String paraBucket) {
+        if (paraBucket == null) {
+            return null;
+        }
+        String trimmed = paraBucket.trim();
+        for (String bucket : PARA_BUCKETS) {
+            if (bucket.equalsIgnoreCase(trimmed)) {
+                return bucket;
+            }
+        }
+        return trimmed;
+    }
+
+    /**
+     * 버킷 값의 대소문자 변형 (정규화 값, 소문자, 대문자, 입력값)
+     * 쓰기 시 정규화하기 전에 저장된 문서("projects" 등)도 조회/삭제 대상에 포함하기 위해 $in 조건으로 사용한다.
+     */
+    public static List<String> bucketVariants(String paraBucket) {
+        String bucket = canonicalizeBucket(paraBucket);
+        if (bucket == null) {
             return List.of();
         }
+        Set<String> variants = new LinkedHashSet<>();
+        variants.add(bucket);
+        variants.add(bucket.toLowerCase(Locale.ROOT));
+        variants.add(bucket.toUpperCase(Locale.ROOT));
+        variants.add(paraBucket.trim());
+        return List.copyOf(variants);
+    }
+
+    /**
+     * paraBucket 조건 (대소문자 변형 포함, (userId, paraBucket, ...) 인덱스의 $in 범위로 처리됨)
+     */
+    public static Criteria bucketCriteria(String paraBucket) {
+        return Criteria.where("paraBucket").in(bucketVariants(paraBucket));
+    }
+
+    private Criteria ownerCriteria(ObjectId userId, String paraBucket) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (paraBucket != null && !paraBucket.isBlank()) {
+            criteria = criteria.and("paraBucket").in(bucketVariants(paraBucket));
+        }
+        return criteria;
+    }
+
+    Query summaryQuery(Criteria criteria) {
+        Query query = Query.query(criteria);
+        query.fields().include("originalRelativePath", "koreanFileName", "englishFileName",
+                "paraBucket", "paraFolder", "directory", "development", "sizeBytes", "modifiedAt",
+                "keywords", "createdAt", "changeSeq");
+        return query;
+    }
+
+    OrganizedFileSummaryDto toSummary(OrganizedFileDocument document) {
+        return OrganizedFileSummaryDto.builder()
+                .id(document.getId().toHexString())
+                .originalRelativePath(document.getOriginalRelativePath())
+                .koreanFileName(document.getKoreanFileName())
+                .englishFileName(document.getEnglishFileName())
+                .paraBucket(document.getParaBucket())
+                .paraFolder(document.getParaFolder())
+                .directory(document.isDirectory())
+                .development(document.isDevelopment())
+                .sizeBytes(document.getSizeBytes())
+                .modifiedAt(document.getModifiedAt())
+                .keywords(document.getKeywords())
+                .createdAt(document.getCreatedAt())
+                .changeSeq(document.getChangeSeq())
+                .build();
+    }
+
+    private ObjectId parseObjectId(String value, String fieldName) {
+        if (value == null || !ObjectId.isValid(value)) {
+            throw new IllegalArgumentException("Invalid " + fieldName + " format: " + value);
+        }
+        return new ObjectId(value);
     }
 
     // ========== 변환 메서드들 ==========
@@ -460,7 +818,7 @@ public class OrganizedFileService {
                             generated.getKoreanFileName(),
                             generated.getEnglishFileName(),
                             generated.getParaBucket(),
-                            generated.getParaPath(), // paraFolder로 사용
+                            extractParaFolder(generated.getParaBucket(), generated.getParaPath()),
                             generated.getReason()
                     );
                 })
@@ -474,6 +832,26 @@ public class OrganizedFileService {
         );
     }
 
+    /**
+     * 생성 결과의 paraPath("bucket/folder")에서 버킷 접두어를 제외한 폴더명만 추출
+     */
+    private String extractParaFolder(String paraBucket, String paraPath) {
+        if (paraPath == null || paraPath.isBlank()) {
+            return null;
+        }
+        if (paraBucket == null || paraBucket.isBlank()) {
+            return paraPath;
+        }
+
+        String bucketPrefix = paraBucket.toLowerCase() + "/";
+        if (paraPath.equalsIgnoreCase(paraBucket)) {
+            return null;
+        }
+        return paraPath.toLowerCase().startsWith(bucketPrefix)
+                ? paraPath.substring(bucketPrefix.length())
+                : paraPath;
+    }
+
     private void setFieldValue(Object target, String fieldName, Object value) {
         try {
             java.lang.reflect.Field field = target.getClass().getDeclaredField(fieldName);
@@ -0,0 +1,147 @@
+package com.filenori.nebula.service;
+
+import com.filenori.nebula.dto.response.OrganizedFileChangesResponseDto;
+import com.filenori.nebula.dto.response.OrganizedFileSummaryDto;
+import com.filenori.nebula.entity.OrganizedFileDocument;
+import com.filenori.nebula.entity.OrganizedFileTombstoneDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 데스크톱 클라이언트용 변경분 동기화
+ * organized_files.changeSeq와 툼스톤을 (userId, changeSeq) 인덱스로 조회해 since 이후 변경만 돌려준다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrganizedFileSyncService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ChangeSequenceService changeSequenceService;
+    private final OrganizedFileService organizedFileService;
+
+    @Value("${organizedFiles.sync.defaultLimit:1000}")
+    private int defaultLimit;
+
+    @Value("${organizedFiles.sync.maxLimit:5000}")
+    private int maxLimit;
+
+    /**
+     * since 이후의 변경분 조회
+     * 같은 시퀀스의 변경(한 번의 벌크 저장/폴더 이동)은 페이지 사이에 나누지 않는다.
+     * 발급됐지만 쓰기가 끝나지 않은 시퀀스가 있으면 그 직전(highWaterMark)까지만 돌려주므로,
+     * 늦게 끝난 쓰기의 변경이 nextSince 뒤에 묻히지 않는다.
+     *
+     * @param since 마지막으로 반영한 시퀀스. null이면 변경 목록 없이 기준점(highWaterMark)만 반환 (전체 목록을 받기 직전 기준점)
+     */
+    public OrganizedFileChangesResponseDto getChangesSince(ObjectId userId, Long since, Integer limit) {
+        // 기준점을 먼저 읽는다. 이후 조회에서 본 변경이 기준점보다 새로우면 잘라낸다.
+        ChangeSequenceService.SyncWindow window =
+                changeSequenceService.syncWindow(userId, OrganizedFileTombstoneDocument.RETENTION);
+        long highWaterMark = window.highWaterMark();
+
+        if (since == null) {
+            return OrganizedFileChangesResponseDto.builder()
+                    .upserts(List.of())
+                    .deletions(List.of())
+                    .nextSince(highWaterMark)
+                    .hasMore(false)
+                    .resyncRequired(false)
+                    .build();
+        }
+        if (since < 0) {
+            throw new IllegalArgumentException("since must be >= 0");
+        }
+        if (since + 1 < window.retainedFrom()) {
+            // since 이후 일부 툼스톤이 보존 기간을 넘겨 삭제됐을 수 있다. 클라이언트는 since 없이 다시 시작한다.
+            log.info("Tombstones after since={} may have expired for user {} (retainedFrom={})",
+                    since, userId, window.retainedFrom());
+            return OrganizedFileChangesResponseDto.builder()
+                    .upserts(List.of())
+                    .deletions(List.of())
+                    .nextSince(since)
+                    .hasMore(false)
+                    .resyncRequired(true)
+                    .build();
+        }
+
+        int pageSize = limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxLimit);
+        Criteria pendingRange = Criteria.where("changeSeq").gt(since).lte(highWaterMark);
+        List<OrganizedFileDocument> upserts = findUpserts(userId, pendingRange, pageSize + 1);
+        List<OrganizedFileTombstoneDocument> deletions = findDeletions(userId, pendingRange, pageSize + 1);
+
+        // 두 목록을 시퀀스 순으로 합쳤을 때 pageSize + 1번째 항목의 시퀀스가 이번 페이지의 경계
+        List<Long> sequences = Stream.concat(
+                        upserts.stream().map(OrganizedFileDocument::getChangeSeq),
+                        deletions.stream().map(OrganizedFileTombstoneDocument::getChangeSeq))
+                .sorted()
+                .toList();
+
+        boolean hasMore = sequences.size() > pageSize;
+        long upTo;
+        if (!hasMore) {
+            // (since, highWaterMark]의 변경을 모두 담았으므로 기준점까지 건너뛸 수 있다
+            upTo = Math.max(since, highWaterMark);
+        } else {
+            long boundary = sequences.get(pageSize);
+            long lastComplete = sequences.stream().filter(seq -> seq < boundary).reduce((left, right) -> right).orElse(since);
+            if (lastComplete > since) {
+                upTo = lastComplete;
+            } else {
+                // 한 시퀀스의 변경이 pageSize보다 많으면 그 시퀀스 전체를 한 페이지로 보낸다
+                upTo = boundary;
+                upserts = findUpserts(userId, Criteria.where("changeSeq").is(boundary), 0);
+                deletions = findDeletions(userId, Criteria.where("changeSeq").is(boundary), 0);
+            }
+        }
+
+        long pageEnd = upTo;
+        List<OrganizedFileSummaryDto> upsertDtos = upserts.stream()
+                .filter(document -> document.getChangeSeq() <= pageEnd)
+                .map(organizedFileService::toSummary)
+                .toList();
+        List<OrganizedFileChangesResponseDto.DeletedFileDto> deletionDtos = deletions.stream()
+                .filter(tombstone -> tombstone.getChangeSeq() <= pageEnd)
+                .map(tombstone -> OrganizedFileChangesResponseDto.DeletedFileDto.builder()
+                        .id(tombstone.getFileId() != null ? tombstone.getFileId().toHexString() : null)
+                        .originalRelativePath(tombstone.getOriginalRelativePath())
+                        .changeSeq(tombstone.getChangeSeq())
+                        .build())
+                .toList();
+
+        log.debug("Changes since {} for user {}: upserts={}, deletions={}, nextSince={}, hasMore={}",
+                since, userId, upsertDtos.size(), deletionDtos.size(), upTo, hasMore);
+
+        return OrganizedFileChangesResponseDto.builder()
+                .upserts(upsertDtos)
+                .deletions(deletionDtos)
+                .nextSince(upTo)
+                .hasMore(hasMore)
+                .resyncRequired(false)
+                .build();
+    }
+
+    private List<OrganizedFileDocument> findUpserts(ObjectId userId, Criteria seqCriteria, int limit) {
+        Query query = organizedFileService.summaryQuery(Criteria.where("userId").is(userId).andOperator(seqCriteria))
+                .with(Sort.by(Sort.Direction.ASC, "changeSeq"))
+                .limit(limit);
+        return mongoTemplate.find(query, OrganizedFileDocument.class);
+    }
+
+    private List<OrganizedFileTombstoneDocument> findDeletions(ObjectId userId, Criteria seqCriteria, int limit) {
+        Query query = Query.query(Criteria.where("userId").is(userId).andOperator(seqCriteria))
+                .with(Sort.by(Sort.Direction.ASC, "changeSeq"))
+                .limit(limit);
+        return mongoTemplate.find(query, OrganizedFileTombstoneDocument.class);
+    }
+}
@@ -0,0 +1,241 @@
+package com.filenori.nebula.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.filenori.nebula.dto.response.OrganizedFileExportDto;
+import com.filenori.nebula.dto.response.OrganizedFileImportResponseDto;
+import com.filenori.nebula.entity.OrganizedFileDocument;
+import com.filenori.nebula.repository.BulkUpsertResult;
+import com.filenori.nebula.repository.OrganizedFileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 사용자 라이브러리 내보내기/가져오기 (NDJSON, 선택적 gzip)
+ * 내보내기는 Mongo 커서에서 읽는 즉시 쓰고, 가져오기는 청크 단위 벌크 upsert로 처리해 라이브러리 크기와 무관하게 메모리 사용량을 일정하게 유지한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrganizedFileTransferService {
+
+    private final MongoTemplate mongoTemplate;
+    private final OrganizedFileRepository organizedFileRepository;
+    private final OrganizedFileService organizedFileService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${organizedFiles.bulk.chunkSize:500}")
+    private int chunkSize;
+
+    @Value("${organizedFiles.export.cursorBatchSize:500}")
+    private int cursorBatchSize;
+
+    @Value("${organizedFiles.import.maxErrorMessages:100}")
+    private int maxErrorMessages;
+
+    /**
+     * 사용자의 모든 파일을 한 줄에 한 문서씩 출력한다.
+     * 출력 스트림에 쓰는 속도만큼만 커서에서 다음 배치를 가져오므로 느린 클라이언트에도 버퍼가 쌓이지 않는다.
+     */
+    public long exportLibrary(ObjectId userId, boolean includeEmbeddings, boolean gzip, OutputStream outputStream)
+            throws IOException {
+        Query query = Query.query(Criteria.where("userId").is(userId)).cursorBatchSize(cursorBatchSize);
+
+        long count = 0;
+        OutputStream target = gzip ? new GZIPOutputStream(outputStream) : outputStream;
+        try (Stream<OrganizedFileDocument> documents = mongoTemplate.stream(query, OrganizedFileDocument.class);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8))) {
+            Iterator<OrganizedFileDocument> iterator = documents.iterator();
+            List<OrganizedFileDocument> batch = new ArrayList<>(cursorBatchSize);
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() >= cursorBatchSize || !iterator.hasNext()) {
+                    // 임베딩은 file_embeddings에 있으므로 커서 배치 단위로 한 번에 조회해 붙인다
+                    List<OrganizedFileDocument> exported = includeEmbeddings
+                            ? organizedFileRepository.attachEmbeddings(batch)
+                            : batch;
+                    for (OrganizedFileDocument document : exported) {
+                        writer.write(objectMapper.writeValueAsString(toExportDto(document)));
+                        writer.write('\n');
+                    }
+                    count += batch.size();
+                    batch = new ArrayList<>(cursorBatchSize);
+                }
+            }
+        }
+
+        log.info("Exported {} organized files for user {} (gzip={}, embeddings={})", count, userId, gzip, includeEmbeddings);
+        return count;
+    }
+
+    /**
+     * NDJSON을 한 줄씩 읽어 chunkSize 단위로 벌크 upsert 한다.
+     * 문서 ID와 사용자 ID는 파일 내용과 무관하게 대상 사용자 기준으로 다시 매칭된다.
+     */
+    public OrganizedFileImportResponseDto importLibrary(ObjectId userId, boolean gzip, InputStream inputStream)
+            throws IOException {
+        ImportProgress progress = new ImportProgress();
+        InputStream source = gzip ? new GZIPInputStream(inputStream) : inputStream;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(source, StandardCharsets.UTF_8))) {
+            List<OrganizedFileExportDto> chunk = new ArrayList<>(chunkSize);
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                progress.totalProcessed++;
+                try {
+                    OrganizedFileExportDto entry = objectMapper.readValue(line, OrganizedFileExportDto.class);
+                    if (entry.getOriginalRelativePath() == null || entry.getOriginalRelativePath().isBlank()) {
+                        progress.fail(String.format("Line %d: originalRelativePath is required", lineNumber));
+                        continue;
+                    }
+                    chunk.add(entry);
+                } catch (IOException e) {
+                    progress.fail(String.format("Line %d: invalid JSON (%s)", lineNumber, e.getOriginalMessage()));
+                    continue;
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    importChunk(userId, chunk, progress);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(userId, chunk, progress);
+            }
+        }
+
+        log.info("Imported organized files for user {}: total={}, saved={}, updated={}, failed={}",
+                userId, progress.totalProcessed, progress.savedCount, progress.updatedCount, progress.failedCount);
+
+        return OrganizedFileImportResponseDto.builder()
+                .totalProcessed(progress.totalProcessed)
+                .savedCount(progress.savedCount)
+                .updatedCount(progress.updatedCount)
+                .failedCount(progress.failedCount)
+                .errorMessages(progress.errorMessages)
+                .processedAt(Instant.now())
+                .build();
+    }
+
+    private void importChunk(ObjectId userId, List<OrganizedFileExportDto> chunk, ImportProgress progress) {
+        List<String> paths = chunk.stream().map(OrganizedFileExportDto::getOriginalRelativePath).toList();
+        Map<String, OrganizedFileDocument> existingByPath = organizedFileRepository
+                .attachEmbeddings(organizedFileRepository.findByUserIdAndOriginalRelativePathIn(userId, paths)).stream()
+                .collect(Collectors.toMap(OrganizedFileDocument::getOriginalRelativePath, Function.identity(), (left, right) -> left));
+
+        List<OrganizedFileDocument> documents = chunk.stream()
+                .map(entry -> toDocument(userId, entry, existingByPath.get(entry.getOriginalRelativePath())))
+                .toList();
+
+        BulkUpsertResult result = organizedFileService.persistDocuments(userId, documents, existingByPath);
+        for (int i = 0; i < documents.size(); i++) {
+            BulkUpsertResult.ItemResult item = result.items().get(i);
+            switch (item.status()) {
+                case INSERTED -> progress.savedCount++;
+                case UPDATED -> progress.updatedCount++;
+                default -> progress.fail(String.format("Error importing file '%s': %s",
+                        documents.get(i).getOriginalRelativePath(), item.errorMessage()));
+            }
+        }
+    }
+
+    private OrganizedFileExportDto toExportDto(OrganizedFileDocument document) {
+        return OrganizedFileExportDto.builder()
+                .baseDirectory(document.getBaseDirectory())
+                .originalRelativePath(document.getOriginalRelativePath())
+                .directory(document.isDirectory())
+                .development(document.isDevelopment())
+                .sizeBytes(document.getSizeBytes())
+                .modifiedAt(document.getModifiedAt())
+                .keywords(document.getKeywords())
+                .koreanFileName(document.getKoreanFileName())
+                .englishFileName(document.getEnglishFileName())
+                .paraBucket(document.getParaBucket())
+                .paraFolder(document.getParaFolder())
+                .paraFullPath(document.getParaFullPath())
+                .reason(document.getReason())
+                .createdAt(document.getCreatedAt())
+                .embedding(document.getEmbedding())
+                .embeddingUpdatedAt(document.getEmbeddingUpdatedAt())
+                .build();
+    }
+
+    /**
+     * 임베딩 없이 내보낸 파일을 가져오는 경우 기존 문서의 임베딩을 유지한다.
+     */
+    private OrganizedFileDocument toDocument(ObjectId userId, OrganizedFileExportDto entry, OrganizedFileDocument existing) {
+        boolean hasEmbedding = entry.getEmbedding() != null && !entry.getEmbedding().isEmpty();
+        OrganizedFileDocument.OrganizedFileDocumentBuilder builder = OrganizedFileDocument.builder()
+                .userId(userId)
+                .baseDirectory(entry.getBaseDirectory())
+                .originalRelativePath(entry.getOriginalRelativePath())
+                .directory(entry.isDirectory())
+                .development(entry.isDevelopment())
+                .sizeBytes(entry.getSizeBytes())
+                .modifiedAt(entry.getModifiedAt())
+                .keywords(entry.getKeywords())
+                .koreanFileName(entry.getKoreanFileName())
+                .englishFileName(entry.getEnglishFileName())
+                .paraBucket(OrganizedFileService.canonicalizeBucket(entry.getParaBucket()))
+                .paraFolder(entry.getParaFolder())
+                .paraFullPath(entry.getParaFullPath())
+                .folderPath(FolderPaths.normalize(entry.getParaFolder(), entry.getParaBucket()))
+                .reason(entry.getReason())
+                .createdAt(entry.getCreatedAt() != null ? entry.getCreatedAt() : Instant.now())
+                .embedding(hasEmbedding ? entry.getEmbedding() : null)
+                .embeddingUpdatedAt(hasEmbedding ? entry.getEmbeddingUpdatedAt() : null);
+
+        if (!hasEmbedding && existing != null && existing.getEmbedding() != null) {
+            builder.embedding(existing.getEmbedding())
+                    .embeddingUpdatedAt(existing.getEmbeddingUpdatedAt());
+        }
+        return builder.build();
+    }
+
+    private class ImportProgress {
+        long totalProcessed;
+        long savedCount;
+        long updatedCount;
+        long failedCount;
+        final List<String> errorMessages = new ArrayList<>();
+
+        void fail(String message) {
+            failedCount++;
+            if (errorMessages.size() < maxErrorMessages) {
+                errorMessages.add(message);
+            }
+            log.warn(message);
+        }
+    }
+}
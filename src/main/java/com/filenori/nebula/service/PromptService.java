@@ -2,12 +2,16 @@ package com.filenori.nebula.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.filenori.nebula.entity.OrganizedFileDocument;
+import com.filenori.nebula.event.OrganizedFileChangedEvent;
 import com.filenori.nebula.dto.request.KeywordRequestDto;
 import com.filenori.nebula.dto.response.FileNameGenerationResultDto;
 import com.filenori.nebula.dto.response.FileNameResponseDto;
+import com.filenori.nebula.repository.BulkUpsertResult;
 import com.filenori.nebula.repository.OrganizedFileRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import org.bson.types.ObjectId;
@@ -33,11 +37,23 @@ public class PromptService {
     private final OpenAiService openAiService;
     private final ObjectMapper objectMapper;
     private final OrganizedFileRepository organizedFileRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChangeSequenceService changeSequenceService;
     // private final FielNameHistoryRepository repository; // MongoDB 저장용
 
     private static final int BATCH_SIZE = 50;
 
+    @Value("${organizedFiles.bulk.chunkSize:500}")
+    private int bulkChunkSize;
+
     public List<FileNameGenerationResultDto> generateFileNameFromKeywords(KeywordRequestDto requestDto) {
+        return generateFileNameFromKeywords(requestDto, true);
+    }
+
+    /**
+     * @param persist false이면 생성 결과를 저장하지 않고 반환만 한다 (호출 측에서 임베딩과 함께 일괄 저장하는 경우)
+     */
+    public List<FileNameGenerationResultDto> generateFileNameFromKeywords(KeywordRequestDto requestDto, boolean persist) {
         log.info("=== Starting generateFileNameFromKeywords ===");
         List<KeywordRequestDto.Entry> entries = requestDto.getEntries();
 
@@ -81,7 +97,9 @@ public class PromptService {
 
         log.info("All batches completed. Total results: {}", results.size());
 
-        persistResults(requestDto, results);
+        if (persist) {
+            persistResults(requestDto, results);
+        }
         return results;
     }
 
@@ -253,7 +271,8 @@ public class PromptService {
 
         Map<String, OrganizedFileDocument> existingByPath = relativePaths.isEmpty()
                 ? Map.of()
-                : organizedFileRepository.findByUserIdAndOriginalRelativePathIn(userId, relativePaths).stream()
+                : organizedFileRepository.attachEmbeddings(
+                                organizedFileRepository.findByUserIdAndOriginalRelativePathIn(userId, relativePaths)).stream()
                         .collect(Collectors.toMap(OrganizedFileDocument::getOriginalRelativePath, Function.identity(), (left, right) -> left));
 
         List<OrganizedFileDocument> documents = results.stream()
@@ -269,7 +288,29 @@ public class PromptService {
             return;
         }
 
-        organizedFileRepository.saveAll(documents);
+        long changeSeq = changeSequenceService.next(userId);
+        BulkUpsertResult bulkResult;
+        try {
+            bulkResult = organizedFileRepository.bulkUpsert(documents, existingByPath, changeSeq, bulkChunkSize);
+        } finally {
+            changeSequenceService.complete(userId, changeSeq);
+        }
+        List<OrganizedFileChangedEvent.FileChange> changes = new ArrayList<>();
+        for (int i = 0; i < documents.size(); i++) {
+            BulkUpsertResult.ItemResult item = bulkResult.items().get(i);
+            OrganizedFileDocument document = documents.get(i);
+            if (!item.isSuccess()) {
+                log.warn("Failed to persist result for path {}: {}", document.getOriginalRelativePath(), item.errorMessage());
+                continue;
+            }
+            changes.add(new OrganizedFileChangedEvent.FileChange(
+                    existingByPath.get(document.getOriginalRelativePath()),
+                    document.toBuilder().id(item.id()).changeSeq(changeSeq).build()));
+        }
+
+        if (!changes.isEmpty()) {
+            eventPublisher.publishEvent(new OrganizedFileChangedEvent(userId, changes));
+        }
     }
 
     private OrganizedFileDocument toDocument(ObjectId userId,
@@ -299,7 +340,11 @@ public class PromptService {
                 .paraBucket(pathInfo.bucket())
                 .paraFolder(pathInfo.folder())
                 .paraFullPath(pathInfo.fullPath())
+                .folderPath(FolderPaths.normalize(pathInfo.folder(), pathInfo.bucket()))
                 .reason(result.getReason())
+                // 임베딩은 이 경로에서 새로 만들지 않으므로 기존 값을 유지
+                .embedding(existing != null ? existing.getEmbedding() : null)
+                .embeddingUpdatedAt(existing != null ? existing.getEmbeddingUpdatedAt() : null)
                 .createdAt(existing != null && existing.getCreatedAt() != null ? existing.getCreatedAt() : Instant.now())
                 .build();
     }
@@ -309,7 +354,7 @@ public class PromptService {
             return new PathInfo(null, null, null);
         }
 
-        String normalizedBucket = bucket.trim();
+        String normalizedBucket = OrganizedFileService.canonicalizeBucket(bucket);
         if (rawPath == null || rawPath.isBlank()) {
             return new PathInfo(normalizedBucket, null, normalizedBucket.toLowerCase());
         }
@@ -29,6 +29,9 @@ public class SageMakerEmbeddingService {
     @Value("${sagemaker.endpointName:}")
     private String endpointName;
 
+    @Value("${sagemaker.maxBatchSize:32}")
+    private int maxBatchSize;
+
     /**
      * 텍스트를 임베딩 벡터로 변환합니다.
      *
@@ -46,18 +49,7 @@ public class SageMakerEmbeddingService {
         }
 
         try {
-            Map<String, Object> payload = Map.of("inputs", Collections.singletonList(text));
-            byte[] body = objectMapper.writeValueAsBytes(payload);
-
-            InvokeEndpointRequest request = InvokeEndpointRequest.builder()
-                    .endpointName(endpointName)
-                    .contentType("application/json")
-                    .body(SdkBytes.fromByteArray(body))
-                    .build();
-
-            InvokeEndpointResponse response = runtimeClient.invokeEndpoint(request);
-            byte[] responseBytes = response.body().asByteArray();
-
+            byte[] responseBytes = invoke(Collections.singletonList(text));
             return extractEmbedding(responseBytes);
         } catch (Exception e) {
             log.error("Failed to retrieve embedding from SageMaker endpoint {}", endpointName, e);
@@ -65,33 +57,114 @@ public class SageMakerEmbeddingService {
         }
     }
 
-    private Optional<List<Double>> extractEmbedding(byte[] responseBytes) {
+    /**
+     * 여러 텍스트를 한 번의 SageMaker 호출로 임베딩합니다. (maxBatchSize 단위로 분할 호출)
+     *
+     * @param texts 질의 또는 문서 텍스트 목록
+     * @return 입력 순서와 동일한 임베딩 목록 (실패한 항목은 Optional.empty())
+     */
+    public List<Optional<List<Double>>> embedTexts(List<String> texts) {
+        if (texts == null || texts.isEmpty()) {
+            return List.of();
+        }
+
+        int batchSize = Math.max(1, maxBatchSize);
+        List<Optional<List<Double>>> embeddings = new ArrayList<>(texts.size());
+        for (int from = 0; from < texts.size(); from += batchSize) {
+            List<String> chunk = texts.subList(from, Math.min(from + batchSize, texts.size()));
+            embeddings.addAll(embedChunk(chunk));
+        }
+        return embeddings;
+    }
+
+    private List<Optional<List<Double>>> embedChunk(List<String> texts) {
+        List<Optional<List<Double>>> empty = Collections.nCopies(texts.size(), Optional.empty());
+        if (!StringUtils.hasText(endpointName)) {
+            log.debug("SageMaker endpoint name is not configured. Skipping embedding request.");
+            return empty;
+        }
+
+        // 빈 텍스트는 요청에서 제외하고 원래 위치를 기억
+        List<Integer> positions = new ArrayList<>();
+        List<String> inputs = new ArrayList<>();
+        for (int i = 0; i < texts.size(); i++) {
+            if (StringUtils.hasText(texts.get(i))) {
+                positions.add(i);
+                inputs.add(texts.get(i));
+            }
+        }
+        if (inputs.isEmpty()) {
+            return empty;
+        }
+        if (inputs.size() == 1) {
+            List<Optional<List<Double>>> single = new ArrayList<>(empty);
+            single.set(positions.get(0), embedText(inputs.get(0)));
+            return single;
+        }
+
         try {
+            byte[] responseBytes = invoke(inputs);
             JsonNode root = objectMapper.readTree(responseBytes);
-            JsonNode tokenVectorsNode = findFirstArrayOfVectors(root);
-            if (tokenVectorsNode == null) {
-                log.warn("Unable to locate token vectors from SageMaker response");
-                return Optional.empty();
+            if (root == null || !root.isArray() || root.size() != inputs.size()) {
+                log.warn("Unexpected SageMaker batch response shape. expected {} items", inputs.size());
+                return empty;
             }
 
-            List<List<Double>> tokenVectors = toVectorList(tokenVectorsNode);
-            if (tokenVectors.isEmpty()) {
-                log.warn("Token vectors were empty in SageMaker response");
-                return Optional.empty();
+            List<Optional<List<Double>>> embeddings = new ArrayList<>(empty);
+            for (int i = 0; i < inputs.size(); i++) {
+                embeddings.set(positions.get(i), extractEmbedding(root.get(i)));
             }
+            return embeddings;
+        } catch (Exception e) {
+            log.error("Failed to retrieve batch embeddings from SageMaker endpoint {}", endpointName, e);
+            return empty;
+        }
+    }
 
-            List<Double> averaged = averageTokenVectors(tokenVectors);
-            if (averaged.isEmpty()) {
-                log.warn("Averaged embedding is empty after processing SageMaker response");
-                return Optional.empty();
-            }
-            return Optional.of(averaged);
+    private byte[] invoke(List<String> inputs) throws Exception {
+        Map<String, Object> payload = Map.of("inputs", inputs);
+        byte[] body = objectMapper.writeValueAsBytes(payload);
+
+        InvokeEndpointRequest request = InvokeEndpointRequest.builder()
+                .endpointName(endpointName)
+                .contentType("application/json")
+                .body(SdkBytes.fromByteArray(body))
+                .build();
+
+        InvokeEndpointResponse response = runtimeClient.invokeEndpoint(request);
+        return response.body().asByteArray();
+    }
+
+    private Optional<List<Double>> extractEmbedding(byte[] responseBytes) {
+        try {
+            return extractEmbedding(objectMapper.readTree(responseBytes));
         } catch (Exception e) {
             log.error("Failed to parse SageMaker embedding response", e);
             return Optional.empty();
         }
     }
 
+    private Optional<List<Double>> extractEmbedding(JsonNode root) {
+        JsonNode tokenVectorsNode = findFirstArrayOfVectors(root);
+        if (tokenVectorsNode == null) {
+            log.warn("Unable to locate token vectors from SageMaker response");
+            return Optional.empty();
+        }
+
+        List<List<Double>> tokenVectors = toVectorList(tokenVectorsNode);
+        if (tokenVectors.isEmpty()) {
+            log.warn("Token vectors were empty in SageMaker response");
+            return Optional.empty();
+        }
+
+        List<Double> averaged = averageTokenVectors(tokenVectors);
+        if (averaged.isEmpty()) {
+            log.warn("Averaged embedding is empty after processing SageMaker response");
+            return Optional.empty();
+        }
+        return Optional.of(averaged);
+    }
+
     private JsonNode findFirstArrayOfVectors(JsonNode node) {
         if (node == null || !node.isArray() || node.isEmpty()) {
             return null;
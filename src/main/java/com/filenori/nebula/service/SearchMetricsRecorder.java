@@ -0,0 +1,60 @@
+package com.filenori.nebula.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 검색 단계별 소요 시간을 Micrometer 히스토그램으로 기록하고, 느린 검색을 샘플링해 로그로 남긴다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchMetricsRecorder {
+
+    private static final String PHASE_TIMER = "nebula.search.phase";
+    private static final String TOTAL_TIMER = "nebula.search.total";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${search.slowQuery.thresholdMs:1000}")
+    private long slowQueryThresholdMs;
+
+    @Value("${search.slowQuery.sampleRate:1.0}")
+    private double slowQuerySampleRate;
+
+    public SearchTimings start(String strategy) {
+        return new SearchTimings(strategy);
+    }
+
+    public void record(SearchTimings timings) {
+        String strategy = timings.getStrategy();
+        timings.getPhaseNanos().forEach((phase, nanos) -> Timer.builder(PHASE_TIMER)
+                .description("Search latency per phase")
+                .tag("phase", phase)
+                .tag("strategy", strategy)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS));
+
+        long totalNanos = timings.elapsedNanos();
+        Timer.builder(TOTAL_TIMER)
+                .description("Total search latency")
+                .tag("strategy", strategy)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(totalNanos, TimeUnit.NANOSECONDS);
+
+        long totalMs = TimeUnit.NANOSECONDS.toMillis(totalNanos);
+        if (totalMs >= slowQueryThresholdMs && ThreadLocalRandom.current().nextDouble() < slowQuerySampleRate) {
+            log.warn("Slow search: strategy={}, totalMs={}, phases={}, parameters={}",
+                    strategy, totalMs, timings.toMillis(), timings.getParameters());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.filenori.nebula.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 검색 요청 한 건의 단계별 소요 시간과 파이프라인 파라미터
+ * 배치 검색처럼 단계가 여러 스레드에서 실행되면 단계별 시간은 합산된다.
+ * 배치 항목은 {@link #child(String)}로 만든 자식 타이밍을 쓰므로 항목별 파라미터가 서로 덮어쓰지 않는다.
+ */
+public class SearchTimings {
+
+    public static final String VALIDATION = "validation";
+    public static final String EMBED = "embed";
+    public static final String VECTOR_QUERY = "vector_query";
+    public static final String CURSOR_ITERATION = "cursor_iteration";
+    public static final String FETCH = "fetch";
+    public static final String MAPPING = "mapping";
+
+    private final String strategy;
+    private final SearchTimings parent;
+    private final long startedNanos = System.nanoTime();
+    private final Map<String, Long> phaseNanos = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, Object> parameters = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    SearchTimings(String strategy) {
+        this(strategy, null);
+    }
+
+    private SearchTimings(String strategy, SearchTimings parent) {
+        this.strategy = strategy;
+        this.parent = parent;
+    }
+
+    /**
+     * 하위 작업용 타이밍. 단계별 시간은 부모에도 합산되고, 파라미터는 자식에만 기록된다.
+     */
+    public SearchTimings child(String strategy) {
+        return new SearchTimings(strategy, this);
+    }
+
+    public <T> T time(String phase, Supplier<T> action) {
+        long started = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            addPhase(phase, System.nanoTime() - started);
+        }
+    }
+
+    private void addPhase(String phase, long nanos) {
+        phaseNanos.merge(phase, nanos, Long::sum);
+        if (parent != null) {
+            parent.addPhase(phase, nanos);
+        }
+    }
+
+    public void time(String phase, Runnable action) {
+        time(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public void parameter(String name, Object value) {
+        parameters.put(name, value);
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public Map<String, Long> getPhaseNanos() {
+        synchronized (phaseNanos) {
+            return new LinkedHashMap<>(phaseNanos);
+        }
+    }
+
+    public Map<String, Object> getParameters() {
+        synchronized (parameters) {
+            return new LinkedHashMap<>(parameters);
+        }
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startedNanos;
+    }
+
+    /**
+     * 응답에 포함할 단계별 소요 시간(ms). total은 요청 시작부터의 경과 시간이다.
+     */
+    public Map<String, Long> toMillis() {
+        Map<String, Long> millis = new LinkedHashMap<>();
+        getPhaseNanos().forEach((phase, nanos) -> millis.put(phase, TimeUnit.NANOSECONDS.toMillis(nanos)));
+        millis.put("total", TimeUnit.NANOSECONDS.toMillis(elapsedNanos()));
+        return millis;
+    }
+}
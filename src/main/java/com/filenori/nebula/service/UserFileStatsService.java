@@ -0,0 +1,172 @@
+package com.filenori.nebula.service;
+
+import com.filenori.nebula.entity.OrganizedFileDocument;
+import com.filenori.nebula.entity.UserFileStatsDocument;
+import com.filenori.nebula.event.FolderMovedEvent;
+import com.filenori.nebula.event.OrganizedFileChangedEvent;
+import com.filenori.nebula.event.OrganizedFileChangedEvent.FileChange;
+import com.filenori.nebula.repository.UserFileStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 사용자별 파일 통계(user_file_stats) 관리
+ * organized_files 변경 이벤트로 카운터를 증분 갱신하고, 필요하면 $group 집계로 재계산한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserFileStatsService {
+
+    private final UserFileStatsRepository userFileStatsRepository;
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * 통계 조회. 아직 통계 문서가 없는 사용자(기존 데이터)는 한 번 집계해 생성한다.
+     */
+    public UserFileStatsDocument getStats(ObjectId userId) {
+        return userFileStatsRepository.findById(userId)
+                .orElseGet(() -> rebuildStats(userId));
+    }
+
+    @EventListener
+    @Order(OrganizedFileChangedEvent.DERIVED_DATA_LISTENER_ORDER)
+    public void onOrganizedFilesChanged(OrganizedFileChangedEvent event) {
+        StatsDelta delta = new StatsDelta();
+        for (FileChange change : event.changes()) {
+            delta.add(change.before(), -1);
+            delta.add(change.after(), 1);
+        }
+
+        try {
+            applyDelta(event.userId(), delta);
+        } catch (Exception e) {
+            // 원본 쓰기는 이미 완료됨. 통계는 rebuildStats로 복구 가능
+            log.error("Failed to update file stats for user {}", event.userId(), e);
+        }
+    }
+
+    /**
+     * 폴더 이동은 버킷을 바꾸지 않으므로 카운터 변화 없이 마지막 변경 시각만 갱신한다.
+     */
+    @EventListener
+    @Order(OrganizedFileChangedEvent.DERIVED_DATA_LISTENER_ORDER)
+    public void onFolderMoved(FolderMovedEvent event) {
+        try {
+            applyDelta(event.userId(), new StatsDelta());
+        } catch (Exception e) {
+            log.error("Failed to update file stats for user {}", event.userId(), e);
+        }
+    }
+
+    /**
+     * organized_files를 버킷별로 $group 집계해 통계 문서를 다시 만든다.
+     */
+    public UserFileStatsDocument rebuildStats(ObjectId userId) {
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("userId", userId)),
+                new Document("$group", new Document("_id", "$paraBucket")
+                        .append("count", new Document("$sum", 1))
+                        .append("development", new Document("$sum",
+                                new Document("$cond", List.of("$development", 1, 0))))
+                        .append("bytes", new Document("$sum", "$sizeBytes")))
+        );
+
+        long total = 0;
+        long development = 0;
+        long bytes = 0;
+        Map<String, Long> bucketCounts = new HashMap<>();
+        for (Document group : mongoTemplate.getCollection(mongoTemplate.getCollectionName(OrganizedFileDocument.class))
+                .aggregate(pipeline)) {
+            long count = group.get("count", Number.class).longValue();
+            total += count;
+            development += group.get("development", Number.class).longValue();
+            bytes += group.get("bytes", Number.class).longValue();
+
+            String bucket = bucketKey(group.getString("_id"));
+            if (bucket != null) {
+                bucketCounts.merge(bucket, count, Long::sum);
+            }
+        }
+
+        UserFileStatsDocument stats = UserFileStatsDocument.builder()
+                .userId(userId)
+                .totalFiles(total)
+                .bucketCounts(bucketCounts)
+                .developmentCount(development)
+                .totalBytes(bytes)
+                .lastModifiedAt(Instant.now())
+                .build();
+        userFileStatsRepository.save(stats);
+        log.info("Rebuilt file stats for user {}: total={}, buckets={}", userId, total, bucketCounts);
+        return stats;
+    }
+
+    private void applyDelta(ObjectId userId, StatsDelta delta) {
+        Update update = new Update().set("lastModifiedAt", Instant.now());
+        if (delta.total != 0) {
+            update.inc("totalFiles", delta.total);
+        }
+        if (delta.development != 0) {
+            update.inc("developmentCount", delta.development);
+        }
+        if (delta.bytes != 0) {
+            update.inc("totalBytes", delta.bytes);
+        }
+        delta.bucketCounts.forEach((bucket, count) -> {
+            if (count != 0) {
+                update.inc("bucketCounts." + bucket, count);
+            }
+        });
+
+        // 통계 문서가 없는 사용자는 증분 대신 첫 조회 시 전체 집계로 생성되도록 upsert하지 않는다
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(userId)), update, UserFileStatsDocument.class);
+    }
+
+    /**
+     * 버킷명을 통계 키로 변환. 필드 경로에 쓸 수 없는 이름은 집계하지 않는다.
+     */
+    private static String bucketKey(String paraBucket) {
+        String bucket = OrganizedFileService.canonicalizeBucket(paraBucket);
+        if (bucket == null || bucket.isEmpty() || bucket.contains(".") || bucket.startsWith("$")) {
+            return null;
+        }
+        return bucket;
+    }
+
+    private static class StatsDelta {
+        long total;
+        long development;
+        long bytes;
+        final Map<String, Long> bucketCounts = new HashMap<>();
+
+        void add(OrganizedFileDocument document, int sign) {
+            if (document == null) {
+                return;
+            }
+            total += sign;
+            bytes += sign * document.getSizeBytes();
+            if (document.isDevelopment()) {
+                development += sign;
+            }
+            String bucket = bucketKey(document.getParaBucket());
+            if (bucket != null) {
+                bucketCounts.merge(bucket, (long) sign, Long::sum);
+            }
+        }
+    }
+}
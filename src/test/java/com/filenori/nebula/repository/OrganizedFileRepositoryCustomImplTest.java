@@ -0,0 +1,114 @@
+package com.filenori.nebula.repository;
+
+import com.filenori.nebula.entity.OrganizedFileDocument;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrganizedFileRepositoryCustomImplTest {
+
+    private static final String PATH = "docs/spec.md";
+
+    /**
+     * 바뀐 필드만 $set, 사라진 필드만 $unset 하고, 바뀐 것이 없으면 changeSeq를 올리지 않는지 확인한다.
+     * 조회 이후 문서가 삭제된 경우에도 $setOnInsert로 완전한 문서가 다시 삽입되어야 한다.
+     * MONGODB_TEST_URI가 설정된 환경에서만 실행되며, 임시 데이터베이스를 만들고 끝나면 삭제한다.
+     */
+    @Test
+    @EnabledIfEnvironmentVariable(named = "MONGODB_TEST_URI", matches = ".+")
+    void bulkUpsert_shouldWriteOnlyChangedFields() {
+        try (MongoClient client = MongoClients.create(System.getenv("MONGODB_TEST_URI"))) {
+            String databaseName = "nebula_bulk_upsert_test_" + new ObjectId().toHexString();
+            MongoTemplate mongoTemplate = new MongoTemplate(client, databaseName);
+            try {
+                OrganizedFileRepositoryCustomImpl repository = new OrganizedFileRepositoryCustomImpl(mongoTemplate);
+                ObjectId userId = new ObjectId();
+                OrganizedFileDocument original = document(userId, "스펙 문서.md", "specs");
+
+                // 1. 신규 삽입
+                BulkUpsertResult inserted = repository.bulkUpsert(List.of(original), Map.of(), 1L, 500);
+                assertThat(inserted.items()).singleElement()
+                        .satisfies(item -> assertThat(item.status()).isEqualTo(BulkUpsertResult.Status.INSERTED));
+                OrganizedFileDocument stored = find(mongoTemplate, userId);
+                ObjectId id = inserted.items().get(0).id();
+                assertThat(stored.getId()).isEqualTo(id);
+                assertThat(stored.getChangeSeq()).isEqualTo(1L);
+                assertThat(stored.getCreatedAt()).isNotNull();
+
+                // 2. 한 필드만 변경: 그 필드와 changeSeq만 바뀌고 ID가 채워진다
+                OrganizedFileDocument renamed = original.toBuilder().koreanFileName("요구사항 명세.md").build();
+                BulkUpsertResult updated = repository.bulkUpsert(List.of(renamed), Map.of(PATH, stored), 2L, 500);
+                assertThat(updated.items().get(0).status()).isEqualTo(BulkUpsertResult.Status.UPDATED);
+                assertThat(updated.items().get(0).id()).isEqualTo(id);
+                OrganizedFileDocument afterRename = find(mongoTemplate, userId);
+                assertThat(afterRename.getKoreanFileName()).isEqualTo("요구사항 명세.md");
+                assertThat(afterRename.getEnglishFileName()).isEqualTo(original.getEnglishFileName());
+                assertThat(afterRename.getChangeSeq()).isEqualTo(2L);
+                assertThat(afterRename.getCreatedAt()).isEqualTo(stored.getCreatedAt());
+
+                // 3. 같은 내용 재저장: changeSeq 유지
+                repository.bulkUpsert(List.of(renamed), Map.of(PATH, afterRename), 3L, 500);
+                assertThat(find(mongoTemplate, userId).getChangeSeq()).isEqualTo(2L);
+
+                // 4. 필드 제거: $unset 후 changeSeq 갱신
+                OrganizedFileDocument withoutFolder = renamed.toBuilder().paraFolder(null).build();
+                repository.bulkUpsert(List.of(withoutFolder), Map.of(PATH, afterRename), 4L, 500);
+                Document raw = mongoTemplate.getCollection(mongoTemplate.getCollectionName(OrganizedFileDocument.class))
+                        .find(new Document("_id", id))
+                        .first();
+                assertThat(raw).doesNotContainKey("paraFolder");
+                assertThat(raw.get("changeSeq")).isEqualTo(4L);
+
+                // 5. 조회 이후 삭제된 문서: 바뀌지 않은 필드도 $setOnInsert로 채워져 완전한 문서가 삽입된다
+                OrganizedFileDocument beforeDelete = find(mongoTemplate, userId);
+                mongoTemplate.remove(Query.query(Criteria.where("_id").is(id)), OrganizedFileDocument.class);
+                BulkUpsertResult reinserted = repository.bulkUpsert(
+                        List.of(withoutFolder.toBuilder().reason("다시 저장").build()), Map.of(PATH, beforeDelete), 5L, 500);
+                assertThat(reinserted.items().get(0).status()).isEqualTo(BulkUpsertResult.Status.INSERTED);
+                OrganizedFileDocument restored = find(mongoTemplate, userId);
+                assertThat(restored.getKoreanFileName()).isEqualTo("요구사항 명세.md");
+                assertThat(restored.getParaBucket()).isEqualTo("Projects");
+                assertThat(restored.getKeywords()).containsExactly("spec", "requirements");
+                assertThat(restored.getReason()).isEqualTo("다시 저장");
+                assertThat(restored.getCreatedAt()).isNotNull();
+                assertThat(restored.getChangeSeq()).isEqualTo(5L);
+            } finally {
+                mongoTemplate.getDb().drop();
+            }
+        }
+    }
+
+    private OrganizedFileDocument document(ObjectId userId, String koreanFileName, String paraFolder) {
+        return OrganizedFileDocument.builder()
+                .userId(userId)
+                .baseDirectory("/Users/test")
+                .originalRelativePath(PATH)
+                .sizeBytes(1024)
+                .modifiedAt("2025-01-01T00:00:00Z")
+                .keywords(List.of("spec", "requirements"))
+                .koreanFileName(koreanFileName)
+                .englishFileName("Spec.md")
+                .paraBucket("Projects")
+                .paraFolder(paraFolder)
+                .reason("진행 중인 프로젝트 문서")
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    private OrganizedFileDocument find(MongoTemplate mongoTemplate, ObjectId userId) {
+        return mongoTemplate.findOne(Query.query(Criteria.where("userId").is(userId).and("originalRelativePath").is(PATH)),
+                OrganizedFileDocument.class);
+    }
+}
@@ -0,0 +1,57 @@
+package com.filenori.nebula.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangeSequenceServiceTest {
+
+    /**
+     * 발급 후 끝나지 않은 시퀀스가 있으면 highWaterMark가 그 직전에 머물고, 끝나면 최신 시퀀스까지 올라가는지 확인한다.
+     * MONGODB_TEST_URI가 설정된 환경에서만 실행되며, 임시 데이터베이스를 만들고 끝나면 삭제한다.
+     */
+    @Test
+    @EnabledIfEnvironmentVariable(named = "MONGODB_TEST_URI", matches = ".+")
+    void syncWindow_shouldStopBeforeUnfinishedSequence() {
+        try (MongoClient client = MongoClients.create(System.getenv("MONGODB_TEST_URI"))) {
+            String databaseName = "nebula_change_sequence_test_" + new ObjectId().toHexString();
+            MongoTemplate mongoTemplate = new MongoTemplate(client, databaseName);
+            try {
+                ChangeSequenceService service = new ChangeSequenceService(mongoTemplate);
+                ReflectionTestUtils.setField(service, "pendingLeaseSeconds", 600L);
+                ObjectId userId = new ObjectId();
+
+                assertThat(service.syncWindow(userId, Duration.ofDays(90)))
+                        .isEqualTo(new ChangeSequenceService.SyncWindow(0L, 1L));
+
+                long first = service.next(userId);
+                long second = service.next(userId);
+                long third = service.next(userId);
+                assertThat(first).isEqualTo(1L);
+                assertThat(third).isEqualTo(3L);
+
+                service.complete(userId, first);
+                service.complete(userId, third);
+                ChangeSequenceService.SyncWindow window = service.syncWindow(userId, Duration.ofDays(90));
+                assertThat(window.highWaterMark()).isEqualTo(1L);
+                // 첫 발급 때 체크포인트가 남는다
+                assertThat(window.retainedFrom()).isEqualTo(1L);
+
+                service.complete(userId, second);
+                assertThat(service.syncWindow(userId, Duration.ofDays(90)).highWaterMark()).isEqualTo(3L);
+                assertThat(service.current(userId)).isEqualTo(3L);
+
+            } finally {
+                mongoTemplate.getDb().drop();
+            }
+        }
+    }
+}
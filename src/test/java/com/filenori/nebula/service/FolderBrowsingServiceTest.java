@@ -0,0 +1,141 @@
+package com.filenori.nebula.service;
+
+import com.filenori.nebula.dto.response.FolderContentsDto;
+import com.filenori.nebula.entity.OrganizedFileDocument;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+class FolderBrowsingServiceTest {
+
+    private static final String BUCKET = "Projects";
+    private static final String FOLDER = "docs";
+
+    /**
+     * 정렬 필드 값이 같은 파일과 값이 없는(null/필드 없음) 파일이 섞여 있을 때,
+     * 모든 정렬/방향 조합에서 키셋 페이지를 이어 붙인 결과가 MongoDB의 (정렬 필드, _id) 정렬 결과와 같은지 확인한다.
+     * MONGODB_TEST_URI가 설정된 환경에서만 실행되며, 임시 데이터베이스를 만들고 끝나면 삭제한다.
+     */
+    @Test
+    @EnabledIfEnvironmentVariable(named = "MONGODB_TEST_URI", matches = ".+")
+    void getFolderContents_shouldPageInBothDirectionsWithNullSortValues() {
+        try (MongoClient client = MongoClients.create(System.getenv("MONGODB_TEST_URI"))) {
+            String databaseName = "nebula_folder_browse_test_" + new ObjectId().toHexString();
+            MongoTemplate mongoTemplate = new MongoTemplate(client, databaseName);
+            try {
+                ObjectId userId = new ObjectId();
+                String folderPath = FolderPaths.normalize(FOLDER, BUCKET);
+                insert(mongoTemplate, userId, BUCKET, folderPath, "가 문서", "2025-01-03");
+                insert(mongoTemplate, userId, BUCKET, folderPath, "나 문서", null);
+                insert(mongoTemplate, userId, "projects", folderPath, "나 문서", "2025-01-01");
+                insert(mongoTemplate, userId, BUCKET, folderPath, null, "2025-01-01");
+                insert(mongoTemplate, userId, BUCKET, folderPath, null, null);
+                insert(mongoTemplate, userId, BUCKET, folderPath, "다 문서", "2025-01-02");
+                // 필드가 없는 문서와 명시적 null은 정렬에서 같은 값으로 취급된다
+                mongoTemplate.getCollection(mongoTemplate.getCollectionName(OrganizedFileDocument.class))
+                        .insertOne(new Document("userId", userId)
+                                .append("paraBucket", BUCKET)
+                                .append(FolderPaths.FIELD, folderPath)
+                                .append("directory", false)
+                                .append("originalRelativePath", "docs/explicit-null.md")
+                                .append("koreanFileName", null)
+                                .append("modifiedAt", null)
+                                .append("sizeBytes", 0L));
+                // 다른 폴더와 디렉토리 문서는 제외된다
+                insert(mongoTemplate, userId, BUCKET, FolderPaths.normalize("other", BUCKET), "라 문서", "2025-01-04");
+                mongoTemplate.insert(OrganizedFileDocument.builder()
+                        .userId(userId)
+                        .paraBucket(BUCKET)
+                        .folderPath(folderPath)
+                        .originalRelativePath("docs/drafts")
+                        .directory(true)
+                        .build());
+
+                FolderBrowsingService service = newService(mongoTemplate);
+
+                for (String sort : List.of("name", "size", "modifiedAt")) {
+                    String field = switch (sort) {
+                        case "name" -> "koreanFileName";
+                        case "size" -> "sizeBytes";
+                        default -> "modifiedAt";
+                    };
+                    for (Sort.Direction direction : Sort.Direction.values()) {
+                        List<String> expected = mongoTemplate.find(
+                                        Query.query(Criteria.where("userId").is(userId)
+                                                        .and(FolderPaths.FIELD).is(folderPath)
+                                                        .and("directory").is(false))
+                                                .with(Sort.by(direction, field, "_id")),
+                                        OrganizedFileDocument.class).stream()
+                                .map(document -> document.getId().toString())
+                                .toList();
+
+                        assertThat(pageThrough(service, userId, sort, direction))
+                                .as("sort=%s direction=%s", sort, direction)
+                                .hasSize(7)
+                                .containsExactlyElementsOf(expected);
+                    }
+                }
+            } finally {
+                mongoTemplate.getDb().drop();
+            }
+        }
+    }
+
+    private List<String> pageThrough(FolderBrowsingService service, ObjectId userId, String sort, Sort.Direction direction) {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            FolderContentsDto contents = service.getFolderContents(userId.toHexString(), BUCKET, FOLDER,
+                    sort, direction.name().toLowerCase(), 2, cursor);
+            contents.getFiles().forEach(file -> ids.add(file.getId()));
+            cursor = contents.getNextCursor();
+            assertThat(++pages).isLessThanOrEqualTo(10);
+        } while (cursor != null);
+        return ids;
+    }
+
+    private FolderBrowsingService newService(MongoTemplate mongoTemplate) {
+        FolderNodeService folderNodeService = Mockito.mock(FolderNodeService.class);
+        when(folderNodeService.findChildrenOrBuildAsync(any(ObjectId.class), anyString(), anyString()))
+                .thenReturn(Optional.of(List.of()));
+        when(folderNodeService.findNode(any(ObjectId.class), anyString(), anyString())).thenReturn(Optional.empty());
+
+        FolderBrowsingService service = new FolderBrowsingService(folderNodeService, mongoTemplate);
+        ReflectionTestUtils.setField(service, "defaultPageSize", 100);
+        ReflectionTestUtils.setField(service, "maxPageSize", 1000);
+        return service;
+    }
+
+    private void insert(MongoTemplate mongoTemplate, ObjectId userId, String paraBucket, String folderPath,
+                        String koreanFileName, String modifiedAt) {
+        mongoTemplate.insert(OrganizedFileDocument.builder()
+                .userId(userId)
+                .paraBucket(paraBucket)
+                .folderPath(folderPath)
+                .originalRelativePath(folderPath + "/" + new ObjectId().toHexString() + ".md")
+                .koreanFileName(koreanFileName)
+                .englishFileName("Document.md")
+                .sizeBytes(koreanFileName != null ? 100L : 0L)
+                .modifiedAt(modifiedAt)
+                .build());
+    }
+}
@@ -0,0 +1,28 @@
+package com.filenori.nebula.service;
+
+import com.filenori.nebula.service.FolderCandidateClusterer.FolderFeatures;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FolderCandidateClustererTest {
+
+    @Test
+    void cluster_shouldGroupFoldersByCentroidOrKeywordsAndDropSingletons() {
+        FolderCandidateClusterer clusterer = new FolderCandidateClusterer(0.9, 0.5);
+
+        List<List<String>> groups = clusterer.cluster(List.of(
+                new FolderFeatures("회의록", List.of(1.0, 0.0, 0.0), Set.of("회의록")),
+                new FolderFeatures("미팅노트", List.of(0.98, 0.05, 0.0), Set.of("미팅노트")),
+                new FolderFeatures("invoices", null, Set.of("invoice", "tax", "2024", "receipt")),
+                new FolderFeatures("receipts", null, Set.of("invoice", "tax", "2024", "receipts")),
+                new FolderFeatures("photos", List.of(0.0, 0.0, 1.0), Set.of("photo", "travel"))));
+
+        assertThat(groups).containsExactlyInAnyOrder(
+                List.of("회의록", "미팅노트"),
+                List.of("invoices", "receipts"));
+    }
+}
@@ -0,0 +1,175 @@
+package com.filenori.nebula.service;
+
+import com.filenori.nebula.entity.FolderMergeJournalDocument;
+import com.filenori.nebula.entity.OrganizedFileDocument;
+import com.filenori.nebula.event.FolderMovedEvent;
+import com.filenori.nebula.event.OrganizedFileChangedEvent;
+import com.filenori.nebula.repository.FolderMergeJournalRepository;
+import com.filenori.nebula.repository.OrganizedFileRepository;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.mockito.Mockito;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+class FolderMergeServiceTest {
+
+    /**
+     * 통합 후 되돌리기로 원래 폴더가 복구되는지 확인한다.
+     * 저널의 파일 ID 한도를 넘은 소스 폴더는 changeSeq로 되돌리고, 통합 이후 다른 폴더로 옮겨진 파일은 건드리지 않아야 한다.
+     * 정규화 이전 버킷 이름("projects")으로 저장된 파일도 함께 옮겨진다.
+     * MONGODB_TEST_URI가 설정된 환경에서만 실행되며, 임시 데이터베이스를 만들고 끝나면 삭제한다.
+     */
+    @Test
+    @EnabledIfEnvironmentVariable(named = "MONGODB_TEST_URI", matches = ".+")
+    void mergeAndUndo_shouldRestoreSourcesWithJournalFallback() {
+        try (MongoClient client = MongoClients.create(System.getenv("MONGODB_TEST_URI"))) {
+            String databaseName = "nebula_folder_merge_test_" + new ObjectId().toHexString();
+            MongoTemplate mongoTemplate = new MongoTemplate(client, databaseName);
+            try {
+                List<Object> events = new ArrayList<>();
+                FolderMergeService service = newService(client, mongoTemplate, events);
+                ObjectId userId = new ObjectId();
+
+                ObjectId alpha1 = insert(mongoTemplate, userId, "Projects", "alpha", "alpha/one.md");
+                ObjectId alpha2 = insert(mongoTemplate, userId, "projects", "alpha", "alpha/two.md");
+                ObjectId beta1 = insert(mongoTemplate, userId, "Projects", "beta", "beta/one.md");
+                ObjectId target1 = insert(mongoTemplate, userId, "Projects", "target", "target/one.md");
+
+                FolderMergeJournalDocument journal = service.merge(userId, "projects", List.of("alpha", "beta"), "target");
+
+                assertThat(journal.getParaBucket()).isEqualTo("Projects");
+                assertThat(journal.getMovedCount()).isEqualTo(3L);
+                // alpha(2개)는 한도 안이라 ID로, beta는 한도를 넘어 changeSeq로 기록된다
+                assertThat(journal.getMovedFolders().get(0).getFileIds()).containsExactlyInAnyOrder(alpha1, alpha2);
+                assertThat(journal.getMovedFolders().get(1).getFileIds()).isNull();
+                for (ObjectId id : List.of(alpha1, alpha2, beta1, target1)) {
+                    OrganizedFileDocument moved = mongoTemplate.findById(id, OrganizedFileDocument.class);
+                    assertThat(moved.getParaFolder()).isEqualTo("target");
+                    assertThat(moved.getParaBucket()).isEqualTo("Projects");
+                }
+                assertThat(events).filteredOn(FolderMovedEvent.class::isInstance).hasSize(2);
+
+                // 통합 이후 사용자가 다른 폴더로 옮긴 파일
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(alpha2)),
+                        new Update().set("paraFolder", "elsewhere"), OrganizedFileDocument.class);
+
+                long restored = service.undo(userId, "PROJECTS", null);
+
+                assertThat(restored).isEqualTo(2L);
+                assertThat(folderOf(mongoTemplate, alpha1)).isEqualTo("alpha");
+                assertThat(folderOf(mongoTemplate, alpha2)).isEqualTo("elsewhere");
+                assertThat(folderOf(mongoTemplate, beta1)).isEqualTo("beta");
+                assertThat(folderOf(mongoTemplate, target1)).isEqualTo("target");
+                assertThat(events).filteredOn(OrganizedFileChangedEvent.class::isInstance).isNotEmpty();
+
+                assertThatThrownBy(() -> service.undo(userId, "Projects", journal.getId()))
+                        .isInstanceOf(IllegalArgumentException.class);
+            } finally {
+                mongoTemplate.getDb().drop();
+            }
+        }
+    }
+
+    /**
+     * standalone 배포에서 두 번째 소스를 옮기다 실패해도, 이미 옮겨진 첫 번째 소스가 되돌리기로 복구되는지 확인한다.
+     * 저널의 movedCount는 모든 이동이 끝난 뒤 기록되므로 이 경우 0으로 남아 있다.
+     * MONGODB_TEST_URI가 설정된 환경에서만 실행되며, 임시 데이터베이스를 만들고 끝나면 삭제한다.
+     */
+    @Test
+    @EnabledIfEnvironmentVariable(named = "MONGODB_TEST_URI", matches = ".+")
+    void undo_shouldRestoreSourcesMovedBeforeMergeFailed() {
+        try (MongoClient client = MongoClients.create(System.getenv("MONGODB_TEST_URI"))) {
+            String databaseName = "nebula_folder_merge_test_" + new ObjectId().toHexString();
+            MongoTemplate mongoTemplate = new MongoTemplate(client, databaseName);
+            try {
+                // 두 번째 소스 폴더의 이동에서 실패시킨다
+                MongoTemplate failingTemplate = Mockito.spy(mongoTemplate);
+                AtomicInteger moves = new AtomicInteger();
+                doAnswer(invocation -> {
+                    if (moves.incrementAndGet() == 2) {
+                        throw new DataAccessResourceFailureException("connection lost");
+                    }
+                    return invocation.callRealMethod();
+                }).when(failingTemplate).updateMulti(any(Query.class), any(Update.class), eq(OrganizedFileDocument.class));
+
+                FolderMergeService service = newService(client, failingTemplate, new ArrayList<>());
+                ReflectionTestUtils.setField(service, "transactionsSupported", false);
+                ObjectId userId = new ObjectId();
+
+                ObjectId alpha1 = insert(mongoTemplate, userId, "Projects", "alpha", "alpha/one.md");
+                ObjectId alpha2 = insert(mongoTemplate, userId, "Projects", "alpha", "alpha/two.md");
+                ObjectId beta1 = insert(mongoTemplate, userId, "Projects", "beta", "beta/one.md");
+
+                assertThatThrownBy(() -> service.merge(userId, "Projects", List.of("alpha", "beta"), "target"))
+                        .isInstanceOf(DataAccessResourceFailureException.class);
+                assertThat(folderOf(mongoTemplate, alpha1)).isEqualTo("target");
+                assertThat(folderOf(mongoTemplate, beta1)).isEqualTo("beta");
+
+                long restored = service.undo(userId, "Projects", null);
+
+                assertThat(restored).isEqualTo(2L);
+                assertThat(folderOf(mongoTemplate, alpha1)).isEqualTo("alpha");
+                assertThat(folderOf(mongoTemplate, alpha2)).isEqualTo("alpha");
+                assertThat(folderOf(mongoTemplate, beta1)).isEqualTo("beta");
+            } finally {
+                mongoTemplate.getDb().drop();
+            }
+        }
+    }
+
+    private FolderMergeService newService(MongoClient client, MongoTemplate mongoTemplate, List<Object> events) {
+        ChangeSequenceService changeSequenceService = new ChangeSequenceService(mongoTemplate);
+        ReflectionTestUtils.setField(changeSequenceService, "pendingLeaseSeconds", 600L);
+
+        OrganizedFileRepository organizedFileRepository = Mockito.mock(OrganizedFileRepository.class);
+        when(organizedFileRepository.attachEmbeddings(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        FolderMergeService service = new FolderMergeService(
+                mongoTemplate,
+                client,
+                new MongoRepositoryFactory(mongoTemplate).getRepository(FolderMergeJournalRepository.class),
+                organizedFileRepository,
+                changeSequenceService,
+                events::add);
+        ReflectionTestUtils.setField(service, "maxJournaledFileIds", 2);
+        ReflectionTestUtils.setField(service, "journalRetentionDays", 30);
+        return service;
+    }
+
+    private ObjectId insert(MongoTemplate mongoTemplate, ObjectId userId, String paraBucket, String paraFolder, String path) {
+        return mongoTemplate.insert(OrganizedFileDocument.builder()
+                .userId(userId)
+                .originalRelativePath(path)
+                .paraBucket(paraBucket)
+                .paraFolder(paraFolder)
+                .paraFullPath(paraBucket.toLowerCase() + "/" + paraFolder)
+                .folderPath(FolderPaths.normalize(paraFolder, paraBucket))
+                .changeSeq(0L)
+                .build()).getId();
+    }
+
+    private String folderOf(MongoTemplate mongoTemplate, ObjectId id) {
+        return mongoTemplate.findById(id, OrganizedFileDocument.class).getParaFolder();
+    }
+}
@@ -0,0 +1,69 @@
+package com.filenori.nebula.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexOptions;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FolderPathsTest {
+
+    @Test
+    void normalize_shouldLowercaseAndStripBucketPrefix() {
+        assertThat(FolderPaths.normalize(" Projects\\Docs//Specs/ ", "Projects")).isEqualTo("docs/specs");
+        assertThat(FolderPaths.normalize("Docs/Specs", "projects")).isEqualTo("docs/specs");
+        assertThat(FolderPaths.normalize("  ", "Projects")).isEmpty();
+        assertThat(FolderPaths.selfAndAncestors("docs/specs")).containsExactly("", "docs", "docs/specs");
+    }
+
+    /**
+     * 실제 MongoDB에서 하위 폴더 조건의 실행 계획이 idx_user_bucket_folder_path 인덱스 범위 스캔인지 확인한다.
+     * MONGODB_TEST_URI가 설정된 환경에서만 실행되며, 임시 데이터베이스를 만들고 끝나면 삭제한다.
+     */
+    @Test
+    @EnabledIfEnvironmentVariable(named = "MONGODB_TEST_URI", matches = ".+")
+    void subtreeCriteria_shouldUseFolderPathIndexBounds() {
+        try (MongoClient client = MongoClients.create(System.getenv("MONGODB_TEST_URI"))) {
+            MongoDatabase database = client.getDatabase("nebula_folder_paths_test_" + new ObjectId().toHexString());
+            try {
+                MongoCollection<Document> collection = database.getCollection("organized_files");
+                collection.createIndex(new Document("userId", 1).append("paraBucket", 1).append("folderPath", 1),
+                        new IndexOptions().name("idx_user_bucket_folder_path"));
+
+                ObjectId userId = new ObjectId();
+                List<Document> documents = new ArrayList<>();
+                for (String folderPath : List.of("docs", "docs/specs", "docs/specs/api", "docs-old", "music")) {
+                    for (int i = 0; i < 50; i++) {
+                        documents.add(new Document("userId", userId)
+                                .append("paraBucket", "Projects")
+                                .append("folderPath", folderPath)
+                                .append("originalRelativePath", folderPath + "/file-" + i));
+                    }
+                }
+                collection.insertMany(documents);
+
+                Document filter = Criteria.where("userId").is(userId)
+                        .and("paraBucket").is("Projects")
+                        .andOperator(FolderPaths.subtreeCriteria("docs"))
+                        .getCriteriaObject();
+
+                assertThat(collection.countDocuments(filter)).isEqualTo(150);
+
+                String plan = collection.find(filter).explain().toJson();
+                assertThat(plan).contains("IXSCAN").contains("idx_user_bucket_folder_path").doesNotContain("COLLSCAN");
+            } finally {
+                database.drop();
+            }
+        }
+    }
+}
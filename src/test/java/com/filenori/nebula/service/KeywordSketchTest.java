@@ -0,0 +1,81 @@
+package com.filenori.nebula.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeywordSketchTest {
+
+    @Test
+    void offer_shouldKeepHeavyHittersWithinCapacity() {
+        KeywordSketch sketch = new KeywordSketch(4);
+        for (int i = 0; i < 200; i++) {
+            sketch.offer("report", 1);
+            if (i % 3 != 0) {
+                sketch.offer("invoice", 1);
+            }
+            sketch.offer("noise-" + i, 1);
+        }
+
+        assertThat(sketch.size()).isEqualTo(4);
+        assertThat(sketch.top(2)).containsExactly("report", "invoice");
+    }
+
+    @Test
+    void merge_shouldCombineChildSketchesAndRemoveShouldDecrement() {
+        KeywordSketch left = new KeywordSketch(8);
+        left.offer("design", 5);
+        left.offer("spec", 2);
+        KeywordSketch right = new KeywordSketch(8);
+        right.offer("spec", 6);
+        right.offer("draft", 1);
+
+        KeywordSketch parent = new KeywordSketch(8);
+        parent.merge(left);
+        parent.merge(right);
+        assertThat(parent.top(3)).containsExactly("spec", "design", "draft");
+
+        parent.remove("spec", 8);
+        parent.remove("unknown", 3);
+        assertThat(parent.top(3)).containsExactly("design", "draft");
+
+        KeywordSketch restored = KeywordSketch.of(8, parent.toEntries());
+        assertThat(restored.top(3)).containsExactly("design", "draft");
+    }
+
+    @Test
+    void merge_shouldNotDependOnMergeOrder() {
+        List<KeywordSketch> children = List.of(
+                child("design", 9, "spec", 4, "noise-a", 1, "noise-b", 1),
+                child("spec", 7, "draft", 3, "noise-c", 2, "noise-d", 1),
+                child("design", 2, "review", 5, "draft", 2, "noise-e", 1));
+
+        KeywordSketch forward = new KeywordSketch(4);
+        children.forEach(forward::merge);
+        KeywordSketch backward = new KeywordSketch(4);
+        for (int i = children.size() - 1; i >= 0; i--) {
+            backward.merge(children.get(i));
+        }
+        KeywordSketch paired = new KeywordSketch(4);
+        KeywordSketch lastTwo = new KeywordSketch(4);
+        lastTwo.merge(children.get(1));
+        lastTwo.merge(children.get(2));
+        paired.merge(children.get(0));
+        paired.merge(lastTwo);
+
+        // 개수 추정치는 합친 순서에 따라 (capacity+1)번째 개수만큼 달라질 수 있지만 상위 키워드와 순서는 같아야 한다
+        assertThat(backward.top(4)).containsExactlyElementsOf(forward.top(4));
+        assertThat(paired.top(4)).containsExactlyElementsOf(forward.top(4));
+        assertThat(forward.top(4)).containsExactly("design", "spec", "review", "draft");
+    }
+
+    private static KeywordSketch child(Object... keywordCounts) {
+        KeywordSketch sketch = new KeywordSketch(4);
+        for (int i = 0; i < keywordCounts.length; i += 2) {
+            sketch.offer((String) keywordCounts[i], ((Integer) keywordCounts[i + 1]).longValue());
+        }
+        return sketch;
+    }
+}
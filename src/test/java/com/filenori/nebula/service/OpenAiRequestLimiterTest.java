@@ -0,0 +1,66 @@
+package com.filenori.nebula.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OpenAiRequestLimiterTest {
+
+    /**
+     * 한도를 넘는 요청은 대기했다가 앞선 요청이 끝나거나 실패하면 이어서 구독되고,
+     * 대기 중에 취소된 요청은 permit을 차지하지 않는지 확인한다.
+     */
+    @Test
+    void limit_shouldQueueRequestsBeyondLimitWithoutLeakingPermits() {
+        OpenAiRequestLimiter limiter = new OpenAiRequestLimiter();
+        ReflectionTestUtils.setField(limiter, "maxConcurrentRequests", 2);
+
+        AtomicInteger subscribed = new AtomicInteger();
+        List<Sinks.One<String>> responses = new ArrayList<>();
+        List<AtomicReference<String>> results = new ArrayList<>();
+        List<Disposable> subscriptions = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Sinks.One<String> response = Sinks.one();
+            AtomicReference<String> result = new AtomicReference<>();
+            responses.add(response);
+            results.add(result);
+            subscriptions.add(limiter.limit(response.asMono().doOnSubscribe(s -> subscribed.incrementAndGet()))
+                    .onErrorReturn("failed")
+                    .subscribe(result::set));
+        }
+        assertThat(subscribed.get()).isEqualTo(2);
+
+        // 대기 중인 세 번째 요청 취소: 다음 대기자가 permit을 받는다
+        subscriptions.get(2).dispose();
+        responses.get(0).tryEmitValue("first");
+        assertThat(results.get(0).get()).isEqualTo("first");
+        assertThat(subscribed.get()).isEqualTo(3);
+
+        responses.get(1).tryEmitError(new IllegalStateException("rate limited"));
+        assertThat(results.get(1).get()).isEqualTo("failed");
+        assertThat(subscribed.get()).isEqualTo(4);
+
+        // 실행 중인 요청 취소도 permit을 반환한다
+        subscriptions.get(3).dispose();
+        responses.get(4).tryEmitValue("fifth");
+        assertThat(results.get(4).get()).isEqualTo("fifth");
+
+        Sinks.One<String> last = Sinks.one();
+        AtomicReference<String> lastResult = new AtomicReference<>();
+        limiter.limit(last.asMono().doOnSubscribe(s -> subscribed.incrementAndGet())).subscribe(lastResult::set);
+        Sinks.One<String> another = Sinks.one();
+        limiter.limit(another.asMono().doOnSubscribe(s -> subscribed.incrementAndGet())).subscribe();
+        assertThat(subscribed.get()).isEqualTo(6);
+        last.tryEmitValue("last");
+        assertThat(lastResult.get()).isEqualTo("last");
+    }
+}
@@ -0,0 +1,231 @@
+package com.filenori.nebula.service;
+
+import com.filenori.nebula.dto.request.OrganizedFileSearchRequestDto;
+import com.filenori.nebula.dto.response.OrganizedFileSearchResponseDto;
+import com.filenori.nebula.dto.response.OrganizedFileSearchResponseDto.SearchResultDto;
+import com.filenori.nebula.entity.SearchCursorDocument;
+import com.filenori.nebula.repository.SearchCursorRepository;
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+class OrganizedFileSearchServiceTest {
+
+    private final ObjectId userId = new ObjectId();
+    // 점수 내림차순, 동점은 _id 오름차순이 기대 순서
+    private final Map<ObjectId, Double> scores = new LinkedHashMap<>();
+    private final Map<ObjectId, Document> files = new LinkedHashMap<>();
+    private final AtomicReference<SearchCursorDocument> savedCursor = new AtomicReference<>();
+    private final AtomicInteger rankingQueries = new AtomicInteger();
+
+    private OrganizedFileSearchService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        double[] similarities = {0.9, 0.8, 0.8, 0.8, 0.7, 0.6, 0.5};
+        for (double similarity : similarities) {
+            ObjectId id = new ObjectId();
+            scores.put(id, similarity);
+            files.put(id, new Document("_id", id).append("koreanFileName", "파일 " + id.toHexString()));
+        }
+
+        MongoTemplate mongoTemplate = Mockito.mock(MongoTemplate.class);
+        MongoCollection<Document> embeddings = Mockito.mock(MongoCollection.class);
+        MongoCollection<Document> organizedFiles = Mockito.mock(MongoCollection.class);
+        when(mongoTemplate.getCollection("file_embeddings")).thenReturn(embeddings);
+        when(mongoTemplate.getCollection("organized_files")).thenReturn(organizedFiles);
+        when(embeddings.aggregate(anyList())).thenAnswer(invocation -> vectorSearch(invocation.getArgument(0)));
+        when(organizedFiles.aggregate(anyList())).thenAnswer(invocation -> fetchByIds(invocation.getArgument(0)));
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(SearchCursorDocument.class)))
+                .thenAnswer(invocation -> {
+                    Update update = invocation.getArgument(1);
+                    Object ranked = ((Document) update.getUpdateObject().get("$set")).get("rankedResults");
+                    ReflectionTestUtils.setField(savedCursor.get(), "rankedResults", ranked);
+                    return null;
+                });
+
+        SageMakerEmbeddingService embeddingService = Mockito.mock(SageMakerEmbeddingService.class);
+        when(embeddingService.embedText(anyString())).thenReturn(Optional.of(List.of(0.1, 0.2, 0.3)));
+
+        SearchCursorRepository searchCursorRepository = Mockito.mock(SearchCursorRepository.class);
+        when(searchCursorRepository.save(any(SearchCursorDocument.class))).thenAnswer(invocation -> {
+            SearchCursorDocument cursor = invocation.getArgument(0);
+            ReflectionTestUtils.setField(cursor, "id", new ObjectId());
+            savedCursor.set(cursor);
+            return cursor;
+        });
+        when(searchCursorRepository.findByIdAndUserId(any(ObjectId.class), any(ObjectId.class)))
+                .thenAnswer(invocation -> Optional.ofNullable(savedCursor.get())
+                        .filter(cursor -> cursor.getId().equals(invocation.getArgument(0))
+                                && cursor.getUserId().equals(invocation.getArgument(1))));
+
+        SearchMetricsRecorder searchMetricsRecorder = Mockito.mock(SearchMetricsRecorder.class);
+        when(searchMetricsRecorder.start(anyString())).thenAnswer(invocation -> new SearchTimings(invocation.getArgument(0)));
+
+        service = new OrganizedFileSearchService(mongoTemplate, embeddingService, searchCursorRepository, searchMetricsRecorder);
+        ReflectionTestUtils.setField(service, "vectorIndexName", "file_embeddings_embedding_index");
+        ReflectionTestUtils.setField(service, "embeddingFieldPath", "embedding");
+        ReflectionTestUtils.setField(service, "defaultNumCandidates", 120);
+        ReflectionTestUtils.setField(service, "defaultMinScore", 0.45);
+        ReflectionTestUtils.setField(service, "cursorTtlSeconds", 600L);
+        ReflectionTestUtils.setField(service, "maxPaginationDepth", 1000);
+    }
+
+    @Test
+    void search_shouldPageThroughRankingOnceWithoutGapsOrDuplicates() {
+        List<String> seen = new ArrayList<>();
+        OrganizedFileSearchResponseDto page = service.search(request("스펙", null));
+        seen.addAll(ids(page.getResults()));
+        int pages = 1;
+        while (page.getNextCursor() != null) {
+            page = service.search(request(null, page.getNextCursor()));
+            assertThat(page.getResults()).hasSizeLessThanOrEqualTo(2);
+            seen.addAll(ids(page.getResults()));
+            pages++;
+        }
+
+        assertThat(seen).containsExactlyElementsOf(expectedOrder());
+        assertThat(pages).isEqualTo(4);
+        // 순위는 첫 이어보기에서 한 번만 계산해 커서에 저장한다
+        assertThat(rankingQueries.get()).isEqualTo(1);
+    }
+
+    @Test
+    void search_shouldSkipFilesDeletedAfterRanking() {
+        OrganizedFileSearchResponseDto first = service.search(request("스펙", null));
+        OrganizedFileSearchResponseDto second = service.search(request(null, first.getNextCursor()));
+
+        List<String> expected = expectedOrder();
+        files.remove(new ObjectId(expected.get(4)));
+
+        OrganizedFileSearchResponseDto third = service.search(request(null, second.getNextCursor()));
+        assertThat(ids(third.getResults())).containsExactly(expected.get(5));
+        // 빠진 파일이 있어도 다음 페이지는 순위 기준으로 이어진다
+        OrganizedFileSearchResponseDto fourth = service.search(request(null, third.getNextCursor()));
+        assertThat(ids(fourth.getResults())).containsExactly(expected.get(6));
+        assertThat(fourth.getNextCursor()).isNull();
+    }
+
+    @Test
+    void search_shouldRejectCursorOfAnotherUser() {
+        OrganizedFileSearchResponseDto first = service.search(request("스펙", null));
+
+        OrganizedFileSearchRequestDto foreign = request(null, first.getNextCursor());
+        foreign.setUserId(new ObjectId().toHexString());
+
+        assertThatThrownBy(() -> service.search(foreign)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private OrganizedFileSearchRequestDto request(String query, String cursor) {
+        OrganizedFileSearchRequestDto request = new OrganizedFileSearchRequestDto();
+        request.setUserId(userId.toHexString());
+        request.setQuery(query);
+        request.setCursor(cursor);
+        request.setLimit(2);
+        request.setMinScore(0.0);
+        return request;
+    }
+
+    private List<String> expectedOrder() {
+        return rankedIds().stream().map(ObjectId::toHexString).toList();
+    }
+
+    private List<ObjectId> rankedIds() {
+        return scores.keySet().stream()
+                .sorted(Comparator.comparing((ObjectId id) -> scores.get(id)).reversed()
+                        .thenComparing(Comparator.naturalOrder()))
+                .toList();
+    }
+
+    private List<String> ids(List<SearchResultDto> results) {
+        return results.stream().map(SearchResultDto::getId).toList();
+    }
+
+    /**
+     * $vectorSearch 흉내: $lookup이 있으면 첫 페이지 질의($limit만큼 메타데이터 포함), 없으면 순위 질의(ID와 점수만)
+     */
+    private AggregateIterable<Document> vectorSearch(List<Document> pipeline) {
+        Document vectorSearch = pipeline.get(0).get("$vectorSearch", Document.class);
+        assertThat(vectorSearch.get("filter", Document.class).get("userId")).isEqualTo(userId);
+        boolean firstPage = pipeline.stream().anyMatch(stage -> stage.containsKey("$lookup"));
+        int limit = firstPage
+                ? pipeline.stream().filter(stage -> stage.containsKey("$limit")).findFirst().orElseThrow().getInteger("$limit")
+                : vectorSearch.getInteger("limit");
+        if (!firstPage) {
+            rankingQueries.incrementAndGet();
+        }
+
+        List<Document> documents = rankedIds().stream()
+                .limit(limit)
+                .map(id -> firstPage
+                        ? new Document(files.get(id)).append("similarity", scores.get(id))
+                        : new Document("_id", id).append("similarity", scores.get(id)))
+                .toList();
+        return iterable(documents);
+    }
+
+    /**
+     * _id $in 조회 흉내: 순서를 보장하지 않으므로 역순으로 돌려준다
+     */
+    private AggregateIterable<Document> fetchByIds(List<Document> pipeline) {
+        Document match = pipeline.get(0).get("$match", Document.class);
+        assertThat(match.get("userId")).isEqualTo(userId);
+        List<?> ids = match.get("_id", Document.class).getList("$in", Object.class);
+        List<Document> documents = new ArrayList<>();
+        for (int i = ids.size() - 1; i >= 0; i--) {
+            Document file = files.get((ObjectId) ids.get(i));
+            if (file != null) {
+                documents.add(new Document(file));
+            }
+        }
+        return iterable(documents);
+    }
+
+    @SuppressWarnings("unchecked")
+    private AggregateIterable<Document> iterable(List<Document> documents) {
+        AggregateIterable<Document> iterable = Mockito.mock(AggregateIterable.class);
+        MongoCursor<Document> cursor = Mockito.mock(MongoCursor.class);
+        Iterator<Document> iterator = documents.iterator();
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        doAnswer(invocation -> {
+            iterator.forEachRemaining(invocation.getArgument(0));
+            return null;
+        }).when(cursor).forEachRemaining(any());
+        when(iterable.cursor()).thenReturn(cursor);
+        doAnswer(invocation -> {
+            documents.forEach(invocation.getArgument(0));
+            return null;
+        }).when(iterable).forEach(any());
+        return iterable;
+    }
+}
@@ -0,0 +1,189 @@
+package com.filenori.nebula.service;
+
+import com.filenori.nebula.dto.response.OrganizedFileChangesResponseDto;
+import com.filenori.nebula.dto.response.OrganizedFileSummaryDto;
+import com.filenori.nebula.entity.OrganizedFileDocument;
+import com.filenori.nebula.entity.OrganizedFileTombstoneDocument;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrganizedFileSyncServiceTest {
+
+    private final ObjectId userId = new ObjectId();
+    private final List<OrganizedFileDocument> files = new ArrayList<>();
+    private final List<OrganizedFileTombstoneDocument> tombstones = new ArrayList<>();
+
+    private MongoTemplate mongoTemplate;
+    private ChangeSequenceService changeSequenceService;
+    private OrganizedFileSyncService service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = Mockito.mock(MongoTemplate.class);
+        changeSequenceService = Mockito.mock(ChangeSequenceService.class);
+        OrganizedFileService organizedFileService = Mockito.mock(OrganizedFileService.class);
+        when(organizedFileService.summaryQuery(any(Criteria.class)))
+                .thenAnswer(invocation -> Query.query(invocation.getArgument(0)));
+        when(organizedFileService.toSummary(any(OrganizedFileDocument.class)))
+                .thenAnswer(invocation -> {
+                    OrganizedFileDocument document = invocation.getArgument(0);
+                    return OrganizedFileSummaryDto.builder()
+                            .id(document.getId().toHexString())
+                            .changeSeq(document.getChangeSeq())
+                            .build();
+                });
+        when(mongoTemplate.find(any(Query.class), eq(OrganizedFileDocument.class)))
+                .thenAnswer(invocation -> select(files, invocation.getArgument(0), OrganizedFileDocument::getChangeSeq));
+        when(mongoTemplate.find(any(Query.class), eq(OrganizedFileTombstoneDocument.class)))
+                .thenAnswer(invocation -> select(tombstones, invocation.getArgument(0), OrganizedFileTombstoneDocument::getChangeSeq));
+
+        service = new OrganizedFileSyncService(mongoTemplate, changeSequenceService, organizedFileService);
+        ReflectionTestUtils.setField(service, "defaultLimit", 1000);
+        ReflectionTestUtils.setField(service, "maxLimit", 5000);
+    }
+
+    @Test
+    void getChangesSince_shouldPageAtSequenceBoundaries() {
+        addFiles(1L, 2);
+        addFiles(2L, 3);
+        addTombstone(3L);
+        window(3L, 1L);
+
+        OrganizedFileChangesResponseDto first = service.getChangesSince(userId, 0L, 3);
+        assertThat(first.getUpserts()).extracting(OrganizedFileSummaryDto::getChangeSeq).containsOnly(1L).hasSize(2);
+        assertThat(first.getNextSince()).isEqualTo(1L);
+        assertThat(first.isHasMore()).isTrue();
+
+        OrganizedFileChangesResponseDto second = service.getChangesSince(userId, first.getNextSince(), 3);
+        assertThat(second.getUpserts()).extracting(OrganizedFileSummaryDto::getChangeSeq).containsOnly(2L).hasSize(3);
+        assertThat(second.getDeletions()).isEmpty();
+        assertThat(second.getNextSince()).isEqualTo(2L);
+        assertThat(second.isHasMore()).isTrue();
+
+        OrganizedFileChangesResponseDto third = service.getChangesSince(userId, second.getNextSince(), 3);
+        assertThat(third.getUpserts()).isEmpty();
+        assertThat(third.getDeletions()).extracting(OrganizedFileChangesResponseDto.DeletedFileDto::getChangeSeq)
+                .containsExactly(3L);
+        assertThat(third.getNextSince()).isEqualTo(3L);
+        assertThat(third.isHasMore()).isFalse();
+        assertThat(third.isResyncRequired()).isFalse();
+    }
+
+    @Test
+    void getChangesSince_shouldReturnWholeSequenceLargerThanPage() {
+        addFiles(1L, 5);
+        addFiles(2L, 1);
+        window(2L, 1L);
+
+        OrganizedFileChangesResponseDto page = service.getChangesSince(userId, 0L, 2);
+
+        assertThat(page.getUpserts()).hasSize(5).extracting(OrganizedFileSummaryDto::getChangeSeq).containsOnly(1L);
+        assertThat(page.getNextSince()).isEqualTo(1L);
+        assertThat(page.isHasMore()).isTrue();
+    }
+
+    @Test
+    void getChangesSince_shouldNotPassUnfinishedSequence() {
+        // 3번 쓰기는 끝났지만 2번 쓰기가 아직 진행 중이면 1까지만 반영해야 2번 변경을 놓치지 않는다
+        addFiles(1L, 1);
+        addFiles(3L, 1);
+        window(1L, 1L);
+
+        OrganizedFileChangesResponseDto page = service.getChangesSince(userId, 0L, 100);
+        assertThat(page.getUpserts()).extracting(OrganizedFileSummaryDto::getChangeSeq).containsExactly(1L);
+        assertThat(page.getNextSince()).isEqualTo(1L);
+        assertThat(page.isHasMore()).isFalse();
+
+        OrganizedFileChangesResponseDto bootstrap = service.getChangesSince(userId, null, null);
+        assertThat(bootstrap.getNextSince()).isEqualTo(1L);
+
+        addFiles(2L, 1);
+        window(3L, 1L);
+        OrganizedFileChangesResponseDto next = service.getChangesSince(userId, page.getNextSince(), 100);
+        assertThat(next.getUpserts()).extracting(OrganizedFileSummaryDto::getChangeSeq).containsExactly(2L, 3L);
+        assertThat(next.getNextSince()).isEqualTo(3L);
+    }
+
+    @Test
+    void getChangesSince_shouldRequireResyncWhenTombstonesMayHaveExpired() {
+        addTombstone(12L);
+        window(12L, 10L);
+
+        OrganizedFileChangesResponseDto expired = service.getChangesSince(userId, 5L, 100);
+        assertThat(expired.isResyncRequired()).isTrue();
+        assertThat(expired.getDeletions()).isEmpty();
+        assertThat(expired.getNextSince()).isEqualTo(5L);
+        verify(mongoTemplate, never()).find(any(Query.class), eq(OrganizedFileTombstoneDocument.class));
+
+        OrganizedFileChangesResponseDto retained = service.getChangesSince(userId, 9L, 100);
+        assertThat(retained.isResyncRequired()).isFalse();
+        assertThat(retained.getDeletions()).hasSize(1);
+        assertThat(retained.getNextSince()).isEqualTo(12L);
+    }
+
+    private void window(long highWaterMark, long retainedFrom) {
+        when(changeSequenceService.syncWindow(eq(userId), any()))
+                .thenReturn(new ChangeSequenceService.SyncWindow(highWaterMark, retainedFrom));
+    }
+
+    private void addFiles(long changeSeq, int count) {
+        for (int i = 0; i < count; i++) {
+            files.add(OrganizedFileDocument.builder()
+                    .id(new ObjectId())
+                    .userId(userId)
+                    .originalRelativePath("seq-" + changeSeq + "/file-" + i)
+                    .changeSeq(changeSeq)
+                    .build());
+        }
+    }
+
+    private void addTombstone(long changeSeq) {
+        tombstones.add(OrganizedFileTombstoneDocument.builder()
+                .id(new ObjectId())
+                .userId(userId)
+                .fileId(new ObjectId())
+                .originalRelativePath("deleted-" + changeSeq)
+                .changeSeq(changeSeq)
+                .build());
+    }
+
+    /**
+     * 서비스가 만드는 (userId, changeSeq) 조건을 메모리 목록에 적용한다. changeSeq 오름차순, limit 0은 무제한
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> select(List<T> source, Query query, ToLongFunction<T> changeSeq) {
+        Document seqCriteria = ((List<Document>) query.getQueryObject().get("$and")).get(0);
+        Object condition = seqCriteria.get("changeSeq");
+        List<T> matched = source.stream()
+                .filter(item -> {
+                    long seq = changeSeq.applyAsLong(item);
+                    if (condition instanceof Document range) {
+                        return seq > ((Number) range.get("$gt")).longValue()
+                                && seq <= ((Number) range.get("$lte")).longValue();
+                    }
+                    return seq == ((Number) condition).longValue();
+                })
+                .sorted(Comparator.comparingLong(changeSeq))
+                .toList();
+        return query.getLimit() > 0 && matched.size() > query.getLimit() ? matched.subList(0, query.getLimit()) : matched;
+    }
+}
@@ -43,7 +43,32 @@ class SageMakerEmbeddingServiceTest {
         assertThat(result).isPresent();
         assertThat(result.get()).containsExactly(2.5d, 3.5d, 4.5d);
     }
-}
 
+    @Test
+    void embedTexts_shouldSplitBatchResponsePerInput() throws Exception {
+        SageMakerRuntimeClient runtimeClient = Mockito.mock(SageMakerRuntimeClient.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+        SageMakerEmbeddingService service = new SageMakerEmbeddingService(runtimeClient, objectMapper);
+        ReflectionTestUtils.setField(service, "endpointName", "clip-vit-large-p14-embedding");
+        ReflectionTestUtils.setField(service, "maxBatchSize", 32);
+
+        List<List<List<List<Double>>>> responsePayload = List.of(
+                List.of(List.of(List.of(1.0d, 2.0d), List.of(3.0d, 4.0d))),
+                List.of(List.of(List.of(5.0d, 6.0d)))
+        );
+        byte[] responseBytes = objectMapper.writeValueAsBytes(responsePayload);
+
+        InvokeEndpointResponse response = InvokeEndpointResponse.builder()
+                .body(SdkBytes.fromByteArray(responseBytes))
+                .build();
+        when(runtimeClient.invokeEndpoint(any(InvokeEndpointRequest.class))).thenReturn(response);
 
+        List<Optional<List<Double>>> result = service.embedTexts(List.of("세금", " ", "영수증"));
 
+        assertThat(result).hasSize(3);
+        assertThat(result.get(0)).contains(List.of(2.0d, 3.0d));
+        assertThat(result.get(1)).isEmpty();
+        assertThat(result.get(2)).contains(List.of(5.0d, 6.0d));
+        Mockito.verify(runtimeClient, Mockito.times(1)).invokeEndpoint(any(InvokeEndpointRequest.class));
+    }
+}